@@ -0,0 +1,87 @@
+package com.bdkamaci.urlshorteningservice.benchmark;
+
+import com.bdkamaci.urlshorteningservice.UrlShorteningServiceApplication;
+import com.bdkamaci.urlshorteningservice.model.ShortenedUrl;
+import com.bdkamaci.urlshorteningservice.repository.ShortenedUrlRepository;
+import com.bdkamaci.urlshorteningservice.storage.JpaUrlStore;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryLookupBenchmark {
+    private static final int ROWS = 10_000;
+
+    private ConfigurableApplicationContext context;
+    private ShortenedUrlRepository repository;
+    private JpaUrlStore urlStore;
+    private String[] codes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(UrlShorteningServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.jpa.show-sql=false",
+                        "--shortener.code-generator.secret=" + ThreadLocalRandom.current().nextLong(),
+                        "--logging.level.root=WARN");
+        repository = context.getBean(ShortenedUrlRepository.class);
+        urlStore = context.getBean(JpaUrlStore.class);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<ShortenedUrl> urls = new ArrayList<>(ROWS);
+        codes = new String[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            codes[i] = String.format("bm%06d", i);
+            urls.add(ShortenedUrl.builder()
+                    .url("https://www.example.com/benchmark/" + i)
+                    .shortCode(codes[i])
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build());
+        }
+        repository.saveAll(urls);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<ShortenedUrl> findByShortCode() {
+        return repository.findByShortCode(randomCode());
+    }
+
+    @Benchmark
+    public Optional<String> findUrlByShortCode() {
+        return repository.findUrlByShortCode(randomCode());
+    }
+
+    @Benchmark
+    public Optional<String> findUrlByShortCodeJdbc() {
+        return urlStore.findUrlByShortCode(randomCode());
+    }
+
+    @Benchmark
+    public Optional<ShortenedUrl> findByShortCodeMissing() {
+        return repository.findByShortCode("missing0");
+    }
+
+    private String randomCode() {
+        return codes[ThreadLocalRandom.current().nextInt(ROWS)];
+    }
+}
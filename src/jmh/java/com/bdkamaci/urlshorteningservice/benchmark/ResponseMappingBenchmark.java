@@ -0,0 +1,72 @@
+package com.bdkamaci.urlshorteningservice.benchmark;
+
+import com.bdkamaci.urlshorteningservice.dto.response.ShortenUrlResponse;
+import com.bdkamaci.urlshorteningservice.dto.response.UrlStatisticsResponse;
+import com.bdkamaci.urlshorteningservice.mapper.ShortenedUrlMapper;
+import com.bdkamaci.urlshorteningservice.model.ShortenedUrl;
+import com.bdkamaci.urlshorteningservice.statistics.ClickGranularity;
+import com.bdkamaci.urlshorteningservice.statistics.UrlSketches;
+import com.bdkamaci.urlshorteningservice.statistics.sketch.SpaceSaving;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseMappingBenchmark {
+    private ShortenedUrl entity;
+    private List<UrlStatisticsResponse.Bucket> series;
+    private UrlSketches.Summary sketches;
+    private ShortenUrlResponse response;
+    private UrlStatisticsResponse statisticsResponse;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        entity = ShortenedUrl.builder()
+                .id(123_456L)
+                .url("https://www.example.com/some/fairly/long/path?utm_source=newsletter&utm_medium=email")
+                .shortCode("aB3dE5fG")
+                .createdAt(now)
+                .updatedAt(now)
+                .accessCount(42L)
+                .build();
+        series = List.of(new UrlStatisticsResponse.Bucket(now.minusHours(1), 30L), new UrlStatisticsResponse.Bucket(now, 12L));
+        sketches = new UrlSketches.Summary(17, List.of(new SpaceSaving.Entry("news.example.org", 30, 0)),
+                List.of(new SpaceSaving.Entry("Mozilla/5.0", 42, 0)));
+        response = ShortenedUrlMapper.toResponse(entity);
+        statisticsResponse = ShortenedUrlMapper.toStatisticsResponse(entity, entity.getAccessCount(),
+                ClickGranularity.HOUR, series, sketches);
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    @Benchmark
+    public ShortenUrlResponse mapResponse() {
+        return ShortenedUrlMapper.toResponse(entity);
+    }
+
+    @Benchmark
+    public UrlStatisticsResponse mapStatisticsResponse() {
+        return ShortenedUrlMapper.toStatisticsResponse(entity, entity.getAccessCount(), ClickGranularity.HOUR, series,
+                sketches);
+    }
+
+    @Benchmark
+    public byte[] serializeResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] serializeStatisticsResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(statisticsResponse);
+    }
+}
@@ -0,0 +1,47 @@
+package com.bdkamaci.urlshorteningservice.benchmark;
+
+import com.bdkamaci.urlshorteningservice.config.CodeGeneratorProperties;
+import com.bdkamaci.urlshorteningservice.generator.RandomShortCodeGenerator;
+import com.bdkamaci.urlshorteningservice.generator.ShortCodePermutation;
+import com.bdkamaci.urlshorteningservice.storage.UrlStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShortCodeGenerationBenchmark {
+    private ShortCodePermutation permutation;
+    private RandomShortCodeGenerator randomGenerator;
+    private long counter;
+
+    @Setup
+    public void setUp() {
+        CodeGeneratorProperties properties = new CodeGeneratorProperties();
+        properties.setSecret(ThreadLocalRandom.current().nextLong());
+        permutation = new ShortCodePermutation(properties.getLength(), properties.getSecret());
+        // Every code is reported as unused, so this measures generation without the existence query
+        UrlStore urlStore = (UrlStore) Proxy.newProxyInstance(
+                UrlStore.class.getClassLoader(),
+                new Class<?>[]{UrlStore.class},
+                (proxy, method, args) -> Boolean.FALSE);
+        randomGenerator = new RandomShortCodeGenerator(urlStore, properties, new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public String sequencePermutation() {
+        return permutation.encode(counter++);
+    }
+
+    @Benchmark
+    public String randomSecureRandom() {
+        return randomGenerator.nextCode();
+    }
+}
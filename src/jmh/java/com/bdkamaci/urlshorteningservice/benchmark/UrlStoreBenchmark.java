@@ -0,0 +1,98 @@
+package com.bdkamaci.urlshorteningservice.benchmark;
+
+import com.bdkamaci.urlshorteningservice.UrlShorteningServiceApplication;
+import com.bdkamaci.urlshorteningservice.model.ShortenedUrl;
+import com.bdkamaci.urlshorteningservice.storage.UrlStore;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UrlStoreBenchmark {
+    private static final int ROWS = 10_000;
+
+    @Param({"jpa", "log"})
+    private String storage;
+
+    private ConfigurableApplicationContext context;
+    private UrlStore urlStore;
+    private Path directory;
+    private String[] codes;
+    private final AtomicLong inserted = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("url-store-benchmark");
+        context = new SpringApplicationBuilder(UrlShorteningServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.jpa.show-sql=false",
+                        "--shortener.code-generator.secret=" + ThreadLocalRandom.current().nextLong(),
+                        "--shortener.storage.type=" + storage,
+                        "--shortener.storage.directory=" + directory,
+                        "--logging.level.root=WARN");
+        urlStore = context.getBean(UrlStore.class);
+
+        List<ShortenedUrl> urls = new ArrayList<>(ROWS);
+        codes = new String[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            codes[i] = String.format("bm%06d", i);
+            urls.add(url(codes[i], "https://www.example.com/benchmark/" + i));
+        }
+        urlStore.saveAll(urls);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public Optional<ShortenedUrl> findByShortCode() {
+        return urlStore.findByShortCode(randomCode());
+    }
+
+    @Benchmark
+    public Optional<String> findUrlByShortCode() {
+        return urlStore.findUrlByShortCode(randomCode());
+    }
+
+    @Benchmark
+    public ShortenedUrl save() {
+        String code = String.format("in%07d", inserted.incrementAndGet());
+        return urlStore.save(url(code, "https://www.example.com/inserted/" + code));
+    }
+
+    private String randomCode() {
+        return codes[ThreadLocalRandom.current().nextInt(ROWS)];
+    }
+
+    private static ShortenedUrl url(String shortCode, String url) {
+        LocalDateTime now = LocalDateTime.now();
+        return ShortenedUrl.builder()
+                .url(url)
+                .shortCode(shortCode)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+}
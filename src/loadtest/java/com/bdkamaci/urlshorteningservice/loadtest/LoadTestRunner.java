@@ -0,0 +1,294 @@
+package com.bdkamaci.urlshorteningservice.loadtest;
+
+import com.bdkamaci.urlshorteningservice.UrlShorteningServiceApplication;
+import com.bdkamaci.urlshorteningservice.cache.ShortCodeBloomFilter;
+import com.bdkamaci.urlshorteningservice.generator.ShortCodes;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Boots the service on an embedded H2 database, seeds it and drives a weighted mix of API calls with Zipf-distributed
+ * short code popularity. Latencies are recorded per operation in HDR histograms and written as JSON so runs can be
+ * compared.
+ *
+ * <pre>
+ * mvn -Ploadtest test-compile exec:exec -Dloadtest.args="rows=1000000 concurrency=256 duration=60"
+ * </pre>
+ */
+public final class LoadTestRunner {
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.SECONDS.toMicros(60);
+    private static final int SEED_BATCH_SIZE = 10_000;
+
+    private final Map<String, String> config;
+    private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final ConcurrentLinkedQueue<String> createdCodes = new ConcurrentLinkedQueue<>();
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private String baseUrl;
+    private ZipfSampler sampler;
+    private Operation[] schedule;
+
+    private LoadTestRunner(Map<String, String> config) {
+        this.config = config;
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        // Devtools would restart main() with the Spring arguments and lose the load test configuration
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        Map<String, String> config = new LinkedHashMap<>();
+        config.put("rows", "100000");
+        config.put("concurrency", "64");
+        config.put("warmup", "10");
+        config.put("duration", "30");
+        config.put("zipf", "1.1");
+        config.put("mix", "create:5,resolve:60,redirect:25,stats:5,update:3,delete:2");
+        config.put("output", "target/loadtest");
+        for (String arg : args) {
+            String[] pair = arg.split("=", 2);
+            config.put(pair[0], pair.length > 1 ? pair[1] : "true");
+        }
+        new LoadTestRunner(config).run();
+    }
+
+    private void run() throws Exception {
+        int rows = intConfig("rows");
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(UrlShorteningServiceApplication.class)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.jpa.show-sql=false",
+                        "--shortener.code-generator.secret=" + ThreadLocalRandom.current().nextLong(),
+                        "--shortener.bloom-filter.expected-insertions=" + Math.max(1_000_000, rows * 2L),
+                        "--logging.level.root=WARN")) {
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            seed(context, rows);
+            sampler = new ZipfSampler(rows, Double.parseDouble(config.get("zipf")));
+            schedule = buildSchedule(config.get("mix"));
+
+            System.out.printf("Warming up for %ss%n", config.get("warmup"));
+            drive(intConfig("warmup"));
+            latencies.values().forEach(Histogram::reset);
+            errors.values().forEach(LongAdder::reset);
+
+            System.out.printf("Measuring for %ss with %s workers%n", config.get("duration"), config.get("concurrency"));
+            long elapsedNanos = drive(intConfig("duration"));
+            report(elapsedNanos);
+        }
+    }
+
+    private void seed(ConfigurableApplicationContext context, int rows) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        long start = System.nanoTime();
+        List<Object[]> batch = new ArrayList<>(SEED_BATCH_SIZE);
+        for (int i = 1; i <= rows; i++) {
+            batch.add(new Object[]{seedCode(i), ShortCodes.pack(seedCode(i)), "https://www.example.com/loadtest/" + i, now, now});
+            if (batch.size() == SEED_BATCH_SIZE || i == rows) {
+                jdbcTemplate.batchUpdate("insert into shortened_urls (id, short_code, code_key, url, created_at, updated_at, "
+                        + "access_count) values (next value for shortened_urls_seq, ?, ?, ?, ?, ?, 0)", batch);
+                batch.clear();
+            }
+        }
+        context.getBean(ShortCodeBloomFilter.class).rebuild();
+        System.out.printf("Seeded %d rows in %d ms%n", rows, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private long drive(int seconds) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        long start = System.nanoTime();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < intConfig("concurrency"); i++) {
+                workers.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        execute(schedule[ThreadLocalRandom.current().nextInt(schedule.length)]);
+                    }
+                });
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private void execute(Operation operation) {
+        HttpRequest request = operation.request(this);
+        if (request == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+            latencies.get(operation).recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+            if (response.statusCode() >= 400) {
+                errors.get(operation).increment();
+            } else if (operation == Operation.CREATE) {
+                createdCodes.add(extractShortCode(response.body()));
+            }
+        } catch (Exception e) {
+            errors.get(operation).increment();
+        }
+    }
+
+    private void report(long elapsedNanos) throws Exception {
+        double seconds = elapsedNanos / 1e9;
+        Map<String, Object> operations = new LinkedHashMap<>();
+        System.out.printf("%-9s %10s %8s %10s %9s %9s %9s %9s%n",
+                "operation", "count", "errors", "ops/s", "p50(us)", "p99(us)", "p999(us)", "max(us)");
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = latencies.get(operation);
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("count", histogram.getTotalCount());
+            result.put("errors", errors.get(operation).sum());
+            result.put("throughput", histogram.getTotalCount() / seconds);
+            result.put("p50Micros", histogram.getValueAtPercentile(50));
+            result.put("p90Micros", histogram.getValueAtPercentile(90));
+            result.put("p99Micros", histogram.getValueAtPercentile(99));
+            result.put("p999Micros", histogram.getValueAtPercentile(99.9));
+            result.put("maxMicros", histogram.getMaxValue());
+            operations.put(operation.name().toLowerCase(), result);
+            System.out.printf("%-9s %10d %8d %10.0f %9d %9d %9d %9d%n", operation.name().toLowerCase(),
+                    histogram.getTotalCount(), errors.get(operation).sum(), histogram.getTotalCount() / seconds,
+                    histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(99),
+                    histogram.getValueAtPercentile(99.9), histogram.getMaxValue());
+        }
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        results.put("timestamp", Instant.now().toString());
+        results.put("config", config);
+        results.put("elapsedSeconds", seconds);
+        results.put("operations", operations);
+        Path directory = Path.of(config.get("output"));
+        Files.createDirectories(directory);
+        Path file = directory.resolve("results-" + System.currentTimeMillis() + ".json");
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), results);
+        System.out.println("Results written to " + file);
+    }
+
+    private Operation[] buildSchedule(String mix) {
+        List<Operation> slots = new ArrayList<>();
+        for (String entry : mix.split(",")) {
+            String[] pair = entry.split(":");
+            Operation operation = Operation.valueOf(pair[0].trim().toUpperCase());
+            for (int i = 0; i < Integer.parseInt(pair[1].trim()); i++) {
+                slots.add(operation);
+            }
+        }
+        return slots.toArray(Operation[]::new);
+    }
+
+    String popularCode() {
+        return seedCode(sampler.sample());
+    }
+
+    String createdCode() {
+        return createdCodes.poll();
+    }
+
+    URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private int intConfig(String key) {
+        return Integer.parseInt(config.get(key));
+    }
+
+    private static String seedCode(int rank) {
+        return String.format("lt%08d", rank);
+    }
+
+    private static String extractShortCode(String body) {
+        int start = body.indexOf("\"shortCode\":\"") + 13;
+        return body.substring(start, body.indexOf('"', start));
+    }
+
+    private static HttpRequest.BodyPublisher json(String url) {
+        return HttpRequest.BodyPublishers.ofString("{\"url\":\"" + url + "\"}");
+    }
+
+    enum Operation {
+        CREATE {
+            @Override
+            HttpRequest request(LoadTestRunner runner) {
+                return HttpRequest.newBuilder(runner.uri("/shorten"))
+                        .header("Content-Type", "application/json")
+                        .POST(json("https://www.example.com/created/" + ThreadLocalRandom.current().nextLong()))
+                        .build();
+            }
+        },
+        RESOLVE {
+            @Override
+            HttpRequest request(LoadTestRunner runner) {
+                return HttpRequest.newBuilder(runner.uri("/shorten/" + runner.popularCode())).GET().build();
+            }
+        },
+        REDIRECT {
+            @Override
+            HttpRequest request(LoadTestRunner runner) {
+                return HttpRequest.newBuilder(runner.uri("/" + runner.popularCode())).GET().build();
+            }
+        },
+        STATS {
+            @Override
+            HttpRequest request(LoadTestRunner runner) {
+                return HttpRequest.newBuilder(runner.uri("/shorten/" + runner.popularCode() + "/stats")).GET().build();
+            }
+        },
+        UPDATE {
+            @Override
+            HttpRequest request(LoadTestRunner runner) {
+                String code = runner.popularCode();
+                return HttpRequest.newBuilder(runner.uri("/shorten/" + code))
+                        .header("Content-Type", "application/json")
+                        .PUT(json("https://www.example.com/updated/" + code))
+                        .build();
+            }
+        },
+        DELETE {
+            @Override
+            HttpRequest request(LoadTestRunner runner) {
+                // Only links created during the run are deleted, so the seeded popularity distribution stays intact
+                String code = runner.createdCode();
+                return code == null ? null : HttpRequest.newBuilder(runner.uri("/shorten/" + code)).DELETE().build();
+            }
+        };
+
+        abstract HttpRequest request(LoadTestRunner runner);
+    }
+}
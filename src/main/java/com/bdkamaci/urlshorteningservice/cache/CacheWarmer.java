@@ -0,0 +1,97 @@
+package com.bdkamaci.urlshorteningservice.cache;
+
+import com.bdkamaci.urlshorteningservice.config.CacheConfig;
+import com.bdkamaci.urlshorteningservice.config.CacheWarmupProperties;
+import com.bdkamaci.urlshorteningservice.mapper.ShortenedUrlMapper;
+import com.bdkamaci.urlshorteningservice.model.ShortenedUrl;
+import com.bdkamaci.urlshorteningservice.storage.UrlStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads the most accessed short codes into the lookup caches while the application starts. Spring Boot only
+ * reports the instance ready once started listeners have returned, so a freshly deployed instance receives traffic
+ * with its hottest entries already cached. Loading stops at the configured entry count or time budget, whichever
+ * comes first.
+ */
+@Slf4j
+@Component
+public class CacheWarmer {
+    private final UrlStore urlStore;
+    private final CacheManager cacheManager;
+    private final CacheWarmupProperties properties;
+    private final Timer warmupTimer;
+
+    public CacheWarmer(UrlStore urlStore,
+                       CacheManager cacheManager,
+                       CacheWarmupProperties properties,
+                       MeterRegistry meterRegistry) {
+        this.urlStore = urlStore;
+        this.cacheManager = cacheManager;
+        this.properties = properties;
+        this.warmupTimer = Timer.builder("shortener.cache.warmup")
+                .description("Time taken to pre-load the most accessed short codes at startup")
+                .register(meterRegistry);
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @EventListener(ApplicationStartedEvent.class)
+    public void onStarted() {
+        if (properties.isEnabled()) {
+            warmUp();
+        }
+    }
+
+    public int warmUp() {
+        Cache urls = cacheManager.getCache(CacheConfig.SHORT_URLS);
+        Cache targets = cacheManager.getCache(CacheConfig.SHORT_URL_TARGETS);
+        if (urls == null && targets == null) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        long deadline = start + properties.getTimeBudget().toNanos();
+        int batchSize = Math.max(1, properties.getBatchSize());
+        int loaded = 0;
+        try {
+            ShortenedUrl last = null;
+            while (loaded < properties.getMaxEntries() && System.nanoTime() - deadline < 0) {
+                Limit limit = Limit.of(Math.min(batchSize, properties.getMaxEntries() - loaded));
+                List<ShortenedUrl> batch = last == null
+                        ? urlStore.findMostAccessed(limit)
+                        : urlStore.findMostAccessedAfter(last.getAccessCount(), last.getId(), limit);
+                for (ShortenedUrl url : batch) {
+                    if (urls != null) {
+                        urls.put(url.getShortCode(), ShortenedUrlMapper.toResponse(url));
+                    }
+                    if (targets != null) {
+                        targets.put(url.getShortCode(), url.getUrl());
+                    }
+                }
+                loaded += batch.size();
+                if (batch.size() < limit.max()) {
+                    break;
+                }
+                last = batch.getLast();
+            }
+        } catch (RuntimeException e) {
+            // A cold cache only costs database lookups, so the instance still starts
+            log.warn("Cache warm-up stopped after {} entries", loaded, e);
+        }
+        long elapsed = System.nanoTime() - start;
+        warmupTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("Cache warmed with {} most accessed short codes in {} ms", loaded, TimeUnit.NANOSECONDS.toMillis(elapsed));
+        return loaded;
+    }
+}
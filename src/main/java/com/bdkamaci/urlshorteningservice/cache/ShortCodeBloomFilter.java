@@ -0,0 +1,138 @@
+package com.bdkamaci.urlshorteningservice.cache;
+
+import com.bdkamaci.urlshorteningservice.config.BloomFilterProperties;
+import com.bdkamaci.urlshorteningservice.config.DeploymentProperties;
+import com.bdkamaci.urlshorteningservice.generator.ShortCodes;
+import com.bdkamaci.urlshorteningservice.storage.UrlStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * Membership filter over every persisted short code. A negative answer means the code definitely does not
+ * exist, so callers can reject it without a database round trip. Deleted codes cannot be removed from a
+ * Bloom filter and stay as false positives until the next rebuild, which only costs a regular lookup.
+ * <p>
+ * The filter only learns codes created through this instance after it was built. Codes created by another instance
+ * would be false negatives, so the filter stays inactive unless {@code shortener.deployment.single-instance} is set.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ShortCodeBloomFilter {
+    private final UrlStore urlStore;
+    private final BloomFilterProperties properties;
+    private final DeploymentProperties deploymentProperties;
+
+    private volatile Bits active;
+    private volatile Bits building;
+
+    @EventListener(ApplicationStartedEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (!deploymentProperties.isSingleInstance()) {
+            log.info("Short code filter inactive: it cannot see codes created by other instances "
+                    + "unless shortener.deployment.single-instance is set");
+            return;
+        }
+        long expected = Math.max(properties.getExpectedInsertions(), urlStore.count() * 2);
+        Bits bits = new Bits(expected, properties.getFalsePositiveProbability());
+        building = bits;
+        long loaded = 0;
+        try (Stream<String> codes = urlStore.streamAllShortCodes()) {
+            for (String code : (Iterable<String>) codes::iterator) {
+                bits.put(code);
+                loaded++;
+            }
+        } finally {
+            building = null;
+        }
+        active = bits;
+        log.info("Short code filter rebuilt with {} codes ({} bits, {} hash functions)",
+                loaded, bits.bitCount, bits.hashFunctions);
+    }
+
+    public boolean mightContain(String shortCode) {
+        Bits bits = active;
+        return bits == null || bits.mightContain(shortCode);
+    }
+
+    public void put(String shortCode) {
+        Bits bits = active;
+        if (bits != null) {
+            bits.put(shortCode);
+        }
+        Bits pending = building;
+        if (pending != null) {
+            pending.put(shortCode);
+        }
+    }
+
+    public boolean isReady() {
+        return active != null;
+    }
+
+    static final class Bits {
+        private final AtomicLongArray words;
+        private final long bitCount;
+        private final int hashFunctions;
+
+        Bits(long expectedInsertions, double falsePositiveProbability) {
+            long bits = (long) (-expectedInsertions * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+            this.words = new AtomicLongArray(Math.toIntExact(Math.max(1, (bits + 63) >>> 6)));
+            this.bitCount = (long) words.length() << 6;
+            this.hashFunctions = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+        }
+
+        void put(String value) {
+            long hash = hash(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashFunctions; i++) {
+                long index = ((h1 + (long) i * h2) & Long.MAX_VALUE) % bitCount;
+                int word = (int) (index >>> 6);
+                long mask = 1L << index;
+                long current = words.get(word);
+                while ((current & mask) == 0 && !words.weakCompareAndSetVolatile(word, current, current | mask)) {
+                    current = words.get(word);
+                }
+            }
+        }
+
+        boolean mightContain(String value) {
+            long hash = hash(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashFunctions; i++) {
+                long index = ((h1 + (long) i * h2) & Long.MAX_VALUE) % bitCount;
+                if ((words.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static long hash(String value) {
+            long codeKey = ShortCodes.pack(value);
+            if (codeKey != ShortCodes.INVALID) {
+                return ShortCodes.hash(codeKey);
+            }
+            // Codes that cannot be packed never exist, but the filter still has to answer for them
+            long h = 0xcbf29ce484222325L;
+            for (int i = 0; i < value.length(); i++) {
+                h ^= value.charAt(i);
+                h *= 0x100000001b3L;
+            }
+            return ShortCodes.hash(h);
+        }
+    }
+}
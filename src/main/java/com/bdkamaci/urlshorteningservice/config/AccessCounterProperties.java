@@ -0,0 +1,11 @@
+package com.bdkamaci.urlshorteningservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "shortener.access-counter")
+public class AccessCounterProperties {
+    private long flushIntervalMs = 1000;
+    private int batchSize = 500;
+}
@@ -0,0 +1,11 @@
+package com.bdkamaci.urlshorteningservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "shortener.batch")
+public class BatchProperties {
+    private int chunkSize = 500;
+    private int resolveChunkSize = 500;
+}
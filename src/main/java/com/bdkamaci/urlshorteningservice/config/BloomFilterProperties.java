@@ -0,0 +1,12 @@
+package com.bdkamaci.urlshorteningservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "shortener.bloom-filter")
+public class BloomFilterProperties {
+    private boolean enabled = true;
+    private long expectedInsertions = 1_000_000;
+    private double falsePositiveProbability = 0.01;
+}
@@ -0,0 +1,15 @@
+package com.bdkamaci.urlshorteningservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "shortener.cache.warmup")
+public class CacheWarmupProperties {
+    private boolean enabled = true;
+    private int maxEntries = 10_000;
+    private int batchSize = 1_000;
+    private Duration timeBudget = Duration.ofSeconds(10);
+}
@@ -0,0 +1,26 @@
+package com.bdkamaci.urlshorteningservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "shortener.clicks")
+public class ClickProperties {
+    private int queueCapacity = 65_536;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+    private Duration offerTimeout = Duration.ofMillis(5);
+    private long flushIntervalMs = 1000;
+    private int batchSize = 1000;
+    private long purgeIntervalMs = 3_600_000;
+    private Duration eventRetention = Duration.ofDays(7);
+    private Duration minuteRetention = Duration.ofDays(2);
+    private Duration hourRetention = Duration.ofDays(90);
+    private int maxSeriesPoints = 1440;
+
+    public enum OverflowPolicy {
+        DROP,
+        BLOCK
+    }
+}
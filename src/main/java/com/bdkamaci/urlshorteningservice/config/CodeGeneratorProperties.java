@@ -0,0 +1,30 @@
+package com.bdkamaci.urlshorteningservice.config;
+
+import jakarta.validation.constraints.AssertTrue;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Data
+@Validated
+@ConfigurationProperties(prefix = "shortener.code-generator")
+public class CodeGeneratorProperties {
+    private Strategy strategy = Strategy.SEQUENCE;
+    private int length = 8;
+    private int blockSize = 1000;
+    /**
+     * Keys the permutation behind {@code sequence} codes. Anyone who knows it can invert the permutation and
+     * enumerate every issued code, so there is no default and each deployment sets its own.
+     */
+    private Long secret;
+
+    @AssertTrue(message = "shortener.code-generator.secret must be set for the sequence strategy")
+    boolean isSecretConfigured() {
+        return strategy != Strategy.SEQUENCE || secret != null;
+    }
+
+    public enum Strategy {
+        SEQUENCE,
+        RANDOM
+    }
+}
@@ -0,0 +1,11 @@
+package com.bdkamaci.urlshorteningservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "shortener.dedup")
+public class DedupProperties {
+    private boolean enabled = false;
+    private int lockStripes = 64;
+}
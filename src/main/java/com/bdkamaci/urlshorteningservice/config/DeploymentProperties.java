@@ -0,0 +1,14 @@
+package com.bdkamaci.urlshorteningservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "shortener.deployment")
+public class DeploymentProperties {
+    /**
+     * Declares that this is the only instance writing to the database. Structures that only learn about writes made
+     * through their own instance, such as the short code filter, may then answer negatively on their own.
+     */
+    private boolean singleInstance = false;
+}
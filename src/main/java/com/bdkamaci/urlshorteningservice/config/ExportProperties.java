@@ -0,0 +1,10 @@
+package com.bdkamaci.urlshorteningservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "shortener.export")
+public class ExportProperties {
+    private int pageSize = 1000;
+}
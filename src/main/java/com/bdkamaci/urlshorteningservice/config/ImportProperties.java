@@ -0,0 +1,18 @@
+package com.bdkamaci.urlshorteningservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "shortener.import")
+public class ImportProperties {
+    private int chunkSize = 1000;
+    private int rejectedSampleSize = 100;
+    /**
+     * How long a running job may go without committing a chunk before another request with the same job id may
+     * take it over. Keep it well above the time one chunk takes to commit.
+     */
+    private Duration leaseTimeout = Duration.ofMinutes(5);
+}
@@ -0,0 +1,15 @@
+package com.bdkamaci.urlshorteningservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "shortener.index")
+public class IndexProperties {
+    private boolean enabled = false;
+    private String directory = "data/index";
+    private int buildPageSize = 10_000;
+    private int maxDeltaEntries = 100_000;
+    private long rebuildIntervalMs = 21_600_000;
+    private long checkIntervalMs = 10_000;
+}
@@ -0,0 +1,12 @@
+package com.bdkamaci.urlshorteningservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "shortener.key-pool")
+public class KeyPoolProperties {
+    private boolean enabled = true;
+    private int capacity = 10_000;
+    private int lowWaterMark = 2_000;
+}
@@ -0,0 +1,31 @@
+package com.bdkamaci.urlshorteningservice.config;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.http.HttpStatus;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
+
+@Data
+@Validated
+@ConfigurationProperties(prefix = "shortener.redirect")
+public class RedirectProperties {
+    private static final Set<HttpStatus> REDIRECT_STATUSES = EnumSet.of(
+            HttpStatus.MOVED_PERMANENTLY, HttpStatus.FOUND, HttpStatus.SEE_OTHER,
+            HttpStatus.TEMPORARY_REDIRECT, HttpStatus.PERMANENT_REDIRECT);
+
+    @NotNull
+    private HttpStatus status = HttpStatus.FOUND;
+    private Duration maxAge = Duration.ofMinutes(5);
+    private boolean cachePublic = true;
+
+    @AssertTrue(message = "shortener.redirect.status must be one of 301, 302, 303, 307 or 308")
+    boolean isRedirectStatus() {
+        return status == null || REDIRECT_STATUSES.contains(status);
+    }
+}
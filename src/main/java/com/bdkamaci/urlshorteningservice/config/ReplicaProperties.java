@@ -0,0 +1,27 @@
+package com.bdkamaci.urlshorteningservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "shortener.replicas")
+public class ReplicaProperties {
+    private boolean enabled = false;
+    private List<Node> nodes = new ArrayList<>();
+    private int maximumPoolSize = 16;
+    private long connectionTimeoutMs = 1_000;
+    private long healthCheckIntervalMs = 5_000;
+    private int healthCheckTimeoutSeconds = 1;
+    private long readYourWritesWindowMs = 5_000;
+    private long maxTrackedWrites = 100_000;
+
+    @Data
+    public static class Node {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
@@ -0,0 +1,17 @@
+package com.bdkamaci.urlshorteningservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "shortener.sketches")
+public class SketchProperties {
+    private boolean enabled = true;
+    private int precision = 10;
+    private int topCapacity = 32;
+    private int topN = 10;
+    private int maxValueLength = 200;
+    private int maxTrackedCodes = 100_000;
+    private long persistIntervalMs = 10_000;
+    private int persistBatchSize = 100;
+}
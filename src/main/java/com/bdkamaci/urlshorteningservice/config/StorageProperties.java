@@ -0,0 +1,32 @@
+package com.bdkamaci.urlshorteningservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+@Data
+@ConfigurationProperties(prefix = "shortener.storage")
+public class StorageProperties {
+    private String type = "jpa";
+    private String directory = "data/store";
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+    private FsyncPolicy fsync = FsyncPolicy.INTERVAL;
+    private long fsyncIntervalMs = 1_000;
+    private double compactionGarbageRatio = 0.5;
+    private long compactionCheckIntervalMs = 60_000;
+
+    public enum FsyncPolicy {
+        /**
+         * Flush every write to disk before it returns.
+         */
+        ALWAYS,
+        /**
+         * Flush at {@code fsync-interval-ms}; a crash loses at most that much.
+         */
+        INTERVAL,
+        /**
+         * Leave flushing to the operating system.
+         */
+        NEVER
+    }
+}
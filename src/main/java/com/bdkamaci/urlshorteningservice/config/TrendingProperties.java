@@ -0,0 +1,14 @@
+package com.bdkamaci.urlshorteningservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "shortener.trending")
+public class TrendingProperties {
+    private boolean enabled = true;
+    private int topK = 100;
+    private int slotCapacity = 5000;
+    private int slotRetain = 1000;
+    private long refreshIntervalMs = 1000;
+}
@@ -0,0 +1,16 @@
+package com.bdkamaci.urlshorteningservice.config;
+
+import com.bdkamaci.urlshorteningservice.export.ExportFormat;
+import com.bdkamaci.urlshorteningservice.trending.TrendingWindow;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.format.FormatterRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+    @Override
+    public void addFormatters(FormatterRegistry registry) {
+        registry.addConverter(String.class, ExportFormat.class, ExportFormat::fromValue);
+        registry.addConverter(String.class, TrendingWindow.class, TrendingWindow::fromValue);
+    }
+}
@@ -0,0 +1,33 @@
+package com.bdkamaci.urlshorteningservice.controller;
+
+import com.bdkamaci.urlshorteningservice.export.ExportFormat;
+import com.bdkamaci.urlshorteningservice.export.ShortenedUrlExporter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping("/shorten/export")
+@RequiredArgsConstructor
+public class ExportController {
+    private final ShortenedUrlExporter exporter;
+
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(defaultValue = "ndjson") ExportFormat format
+    ) {
+        ContentDisposition disposition = ContentDisposition.attachment()
+                .filename("shortened-urls." + format.getExtension())
+                .build();
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .body(outputStream -> exporter.export(format, outputStream));
+    }
+}
@@ -0,0 +1,36 @@
+package com.bdkamaci.urlshorteningservice.controller;
+
+import com.bdkamaci.urlshorteningservice.dto.response.ImportJobResponse;
+import com.bdkamaci.urlshorteningservice.export.ExportFormat;
+import com.bdkamaci.urlshorteningservice.importer.ShortenedUrlImporter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/shorten/import")
+@RequiredArgsConstructor
+public class ImportController {
+    private final ShortenedUrlImporter importer;
+
+    @PostMapping
+    public ResponseEntity<ImportJobResponse> importUrls(
+            @RequestParam(defaultValue = "ndjson") ExportFormat format,
+            @RequestParam(required = false) String jobId,
+            InputStream body
+    ) throws IOException {
+        ImportJobResponse response = importer.importUrls(jobId, format, body);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ImportJobResponse> getImportJob(
+            @PathVariable String jobId
+    ) {
+        ImportJobResponse response = importer.getJob(jobId);
+        return ResponseEntity.ok(response);
+    }
+}
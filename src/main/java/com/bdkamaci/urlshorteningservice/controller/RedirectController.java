@@ -0,0 +1,42 @@
+package com.bdkamaci.urlshorteningservice.controller;
+
+import com.bdkamaci.urlshorteningservice.config.RedirectProperties;
+import com.bdkamaci.urlshorteningservice.service.UrlShortenerService;
+import com.bdkamaci.urlshorteningservice.statistics.ClickEventRecorder;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+public class RedirectController {
+    private final UrlShortenerService urlShortenerService;
+    private final RedirectProperties redirectProperties;
+    private final ClickEventRecorder clickEventRecorder;
+
+    @GetMapping("/{shortCode:[A-Za-z0-9_-]{6,10}}")
+    public ResponseEntity<Void> redirect(
+            @PathVariable String shortCode,
+            HttpServletRequest request
+    ) {
+        String url = urlShortenerService.resolveUrl(shortCode);
+        clickEventRecorder.record(shortCode, request);
+        return ResponseEntity.status(redirectProperties.getStatus())
+                .header(HttpHeaders.LOCATION, url)
+                .cacheControl(cacheControl())
+                .build();
+    }
+
+    private CacheControl cacheControl() {
+        if (redirectProperties.getMaxAge().isZero()) {
+            return CacheControl.noCache();
+        }
+        CacheControl cacheControl = CacheControl.maxAge(redirectProperties.getMaxAge());
+        return redirectProperties.isCachePublic() ? cacheControl.cachePublic() : cacheControl.cachePrivate();
+    }
+}
@@ -0,0 +1,42 @@
+package com.bdkamaci.urlshorteningservice.controller;
+
+import com.bdkamaci.urlshorteningservice.dto.response.TrendingResponse;
+import com.bdkamaci.urlshorteningservice.exception.BadRequestException;
+import com.bdkamaci.urlshorteningservice.trending.TrendingTracker;
+import com.bdkamaci.urlshorteningservice.trending.TrendingWindow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+@RestController
+@RequestMapping("/shorten/trending")
+@RequiredArgsConstructor
+public class TrendingController {
+    private final TrendingTracker trendingTracker;
+
+    @GetMapping
+    public ResponseEntity<TrendingResponse> trending(
+            @RequestParam(defaultValue = "1h") TrendingWindow window,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        if (limit < 1) {
+            throw new BadRequestException("Limit must be at least 1");
+        }
+        TrendingTracker.Leaderboard leaderboard = trendingTracker.leaderboard(window);
+        TrendingResponse response = TrendingResponse.builder()
+                .window(window.getValue())
+                .generatedAt(LocalDateTime.ofInstant(leaderboard.generatedAt(), ZoneId.systemDefault()))
+                .items(leaderboard.entries().stream()
+                        .limit(limit)
+                        .map(entry -> new TrendingResponse.Item(entry.shortCode(), entry.clicks()))
+                        .toList())
+                .build();
+        return ResponseEntity.ok(response);
+    }
+}
@@ -1,9 +1,18 @@
 package com.bdkamaci.urlshorteningservice.controller;
 
+import com.bdkamaci.urlshorteningservice.dto.request.BatchShortenUrlRequest;
+import com.bdkamaci.urlshorteningservice.dto.request.ListUrlsRequest;
+import com.bdkamaci.urlshorteningservice.dto.request.ResolveUrlsRequest;
 import com.bdkamaci.urlshorteningservice.dto.request.ShortenUrlRequest;
+import com.bdkamaci.urlshorteningservice.dto.request.UrlStatisticsRequest;
+import com.bdkamaci.urlshorteningservice.dto.response.BatchShortenUrlResponse;
+import com.bdkamaci.urlshorteningservice.dto.response.ResolveUrlsResponse;
+import com.bdkamaci.urlshorteningservice.dto.response.ShortenUrlPageResponse;
 import com.bdkamaci.urlshorteningservice.dto.response.ShortenUrlResponse;
 import com.bdkamaci.urlshorteningservice.dto.response.UrlStatisticsResponse;
 import com.bdkamaci.urlshorteningservice.service.UrlShortenerService;
+import com.bdkamaci.urlshorteningservice.statistics.ClickEventRecorder;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -15,6 +24,7 @@ import org.springframework.web.bind.annotation.*;
 @RequiredArgsConstructor
 public class UrlShortenerController {
     private final UrlShortenerService urlShortenerService;
+    private final ClickEventRecorder clickEventRecorder;
 
     @PostMapping
     public ResponseEntity<ShortenUrlResponse> createShortUrl(
@@ -24,11 +34,38 @@ public class UrlShortenerController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @GetMapping
+    public ResponseEntity<ShortenUrlPageResponse> listUrls(
+            @Valid ListUrlsRequest request
+    ) {
+        ShortenUrlPageResponse response = urlShortenerService.listUrls(request);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<BatchShortenUrlResponse> createShortUrls(
+            @Valid @RequestBody BatchShortenUrlRequest request
+    ) {
+        BatchShortenUrlResponse response = urlShortenerService.createShortUrls(request);
+        HttpStatus status = response.getFailed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        return ResponseEntity.status(status).body(response);
+    }
+
+    @PostMapping("/resolve")
+    public ResponseEntity<ResolveUrlsResponse> resolveUrls(
+            @Valid @RequestBody ResolveUrlsRequest request
+    ) {
+        ResolveUrlsResponse response = urlShortenerService.resolveUrls(request);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/{shortCode}")
     public ResponseEntity<ShortenUrlResponse> getOriginalUrl(
-            @PathVariable String shortCode
+            @PathVariable String shortCode,
+            HttpServletRequest request
     ) {
         ShortenUrlResponse response = urlShortenerService.getUrlByShortCode(shortCode);
+        clickEventRecorder.record(shortCode, request);
         return ResponseEntity.ok(response);
     }
 
@@ -51,9 +88,10 @@ public class UrlShortenerController {
 
     @GetMapping("/{shortCode}/stats")
     public ResponseEntity<UrlStatisticsResponse> getUrlStatistics(
-            @PathVariable String shortCode
+            @PathVariable String shortCode,
+            @Valid UrlStatisticsRequest request
     ) {
-        UrlStatisticsResponse response = urlShortenerService.getUrlStatistics(shortCode);
+        UrlStatisticsResponse response = urlShortenerService.getUrlStatistics(shortCode, request);
         return ResponseEntity.ok(response);
     }
 }
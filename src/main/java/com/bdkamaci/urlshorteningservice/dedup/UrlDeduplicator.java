@@ -0,0 +1,44 @@
+package com.bdkamaci.urlshorteningservice.dedup;
+
+import com.bdkamaci.urlshorteningservice.config.DedupProperties;
+import com.bdkamaci.urlshorteningservice.model.ShortenedUrl;
+import com.bdkamaci.urlshorteningservice.storage.UrlStore;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Finds an existing mapping for a URL through the indexed hash of its normalized form. Identical creates on
+ * this instance are serialized on a lock stripe so only one of them takes a short code; the creator must write
+ * through {@link UrlStore#saveIfAbsent}, which settles creates racing on other instances without deleting rows.
+ */
+@Component
+public class UrlDeduplicator {
+    private final UrlStore urlStore;
+    private final DedupProperties properties;
+    private final ReentrantLock[] stripes;
+
+    public UrlDeduplicator(UrlStore urlStore, DedupProperties properties) {
+        this.urlStore = urlStore;
+        this.properties = properties;
+        this.stripes = new ReentrantLock[Math.max(1, properties.getLockStripes())];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public ShortenedUrl findOrCreate(String url, String urlHash, Supplier<ShortenedUrl> creator) {
+        ReentrantLock lock = stripes[Math.floorMod(urlHash.hashCode(), stripes.length)];
+        lock.lock();
+        try {
+            return UrlHashes.oldestMatch(urlStore.findByUrlHash(urlHash), url).orElseGet(creator);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
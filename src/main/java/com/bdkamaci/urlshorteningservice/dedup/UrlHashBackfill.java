@@ -0,0 +1,61 @@
+package com.bdkamaci.urlshorteningservice.dedup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Fills {@code shortened_urls.url_hash} for rows written before the column existed. Deduplication only finds
+ * existing mappings through the hash, so without it every older URL would be shortened again.
+ */
+@Slf4j
+@Component
+public class UrlHashBackfill {
+    private static final String SELECT_SQL = "select id, url from shortened_urls where url_hash is null limit ?";
+    private static final String UPDATE_SQL = "update shortened_urls set url_hash = ? where id = ?";
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public UrlHashBackfill(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+    @EventListener(ApplicationStartedEvent.class)
+    public long backfill() {
+        long updated = 0;
+        while (true) {
+            List<Row> batch = transactionTemplate.execute(status -> {
+                List<Row> rows = jdbcTemplate.query(SELECT_SQL, (rs, rowNum) ->
+                        new Row(rs.getLong("id"), UrlHashes.hash(rs.getString("url"))), BATCH_SIZE);
+                jdbcTemplate.batchUpdate(UPDATE_SQL, rows, BATCH_SIZE, (ps, row) -> {
+                    ps.setString(1, row.urlHash());
+                    ps.setLong(2, row.id());
+                });
+                return rows;
+            });
+            updated += batch.size();
+            if (batch.size() < BATCH_SIZE) {
+                break;
+            }
+        }
+        if (updated > 0) {
+            log.info("Backfilled url_hash for {} URLs", updated);
+        }
+        return updated;
+    }
+
+    private record Row(long id, String urlHash) {
+    }
+}
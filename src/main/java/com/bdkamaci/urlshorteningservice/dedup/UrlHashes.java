@@ -0,0 +1,78 @@
+package com.bdkamaci.urlshorteningservice.dedup;
+
+import com.bdkamaci.urlshorteningservice.model.ShortenedUrl;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Optional;
+
+public final class UrlHashes {
+    private UrlHashes() {
+    }
+
+    public static String hash(String url) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(normalize(url).getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * The oldest candidate whose normalized form equals the URL's, so hash collisions never match.
+     */
+    public static Optional<ShortenedUrl> oldestMatch(Collection<ShortenedUrl> candidates, String url) {
+        String normalized = normalize(url);
+        return candidates.stream()
+                .filter(candidate -> normalized.equals(normalize(candidate.getUrl())))
+                .min(Comparator.comparing(ShortenedUrl::getId));
+    }
+
+    /**
+     * Lower-cases the scheme and host, drops default ports and gives an empty path a trailing slash. Path,
+     * query and fragment are kept verbatim since servers may treat them case-sensitively.
+     */
+    public static String normalize(String url) {
+        String trimmed = url.trim();
+        try {
+            URI uri = new URI(trimmed);
+            if (uri.getScheme() == null || uri.getRawAuthority() == null || uri.getHost() == null) {
+                return trimmed;
+            }
+            String scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+            int port = uri.getPort();
+            boolean defaultPort = port == -1
+                    || ("http".equals(scheme) && port == 80)
+                    || ("https".equals(scheme) && port == 443);
+            StringBuilder normalized = new StringBuilder(trimmed.length())
+                    .append(scheme)
+                    .append("://");
+            if (uri.getRawUserInfo() != null) {
+                normalized.append(uri.getRawUserInfo()).append('@');
+            }
+            normalized.append(uri.getHost().toLowerCase(Locale.ROOT));
+            if (!defaultPort) {
+                normalized.append(':').append(port);
+            }
+            String path = uri.getRawPath();
+            normalized.append(path == null || path.isEmpty() ? "/" : path);
+            if (uri.getRawQuery() != null) {
+                normalized.append('?').append(uri.getRawQuery());
+            }
+            if (uri.getRawFragment() != null) {
+                normalized.append('#').append(uri.getRawFragment());
+            }
+            return normalized.toString();
+        } catch (URISyntaxException e) {
+            return trimmed;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.bdkamaci.urlshorteningservice.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchShortenUrlRequest {
+    public static final int MAX_ITEMS = 1000;
+
+    @NotEmpty(message = "At least one URL is required")
+    @Size(max = MAX_ITEMS, message = "At most " + MAX_ITEMS + " URLs can be shortened per request")
+    private List<ShortenUrlRequest> urls;
+}
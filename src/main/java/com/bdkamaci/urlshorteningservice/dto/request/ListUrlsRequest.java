@@ -0,0 +1,42 @@
+package com.bdkamaci.urlshorteningservice.dto.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ListUrlsRequest {
+    public static final String SORT_BY_ID = "id";
+    public static final String SORT_BY_CREATED_AT = "createdAt";
+
+    private String after;
+
+    @Builder.Default
+    @Min(value = 1, message = "Limit must be at least 1")
+    @Max(value = 500, message = "Limit must be at most 500")
+    private int limit = 50;
+
+    @Builder.Default
+    @Pattern(regexp = SORT_BY_ID + "|" + SORT_BY_CREATED_AT, message = "Sort must be 'id' or 'createdAt'")
+    private String sort = SORT_BY_ID;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdTo;
+
+    @Size(max = 2048, message = "URL prefix is too long")
+    private String urlPrefix;
+}
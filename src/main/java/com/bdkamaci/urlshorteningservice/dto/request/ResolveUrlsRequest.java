@@ -0,0 +1,22 @@
+package com.bdkamaci.urlshorteningservice.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResolveUrlsRequest {
+    public static final int MAX_CODES = 10_000;
+
+    @NotEmpty(message = "At least one short code is required")
+    @Size(max = MAX_CODES, message = "At most " + MAX_CODES + " short codes can be resolved per request")
+    private List<String> shortCodes;
+}
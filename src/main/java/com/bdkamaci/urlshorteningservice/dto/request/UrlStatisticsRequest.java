@@ -0,0 +1,26 @@
+package com.bdkamaci.urlshorteningservice.dto.request;
+
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UrlStatisticsRequest {
+    @Builder.Default
+    @Pattern(regexp = "(?i)minute|hour|day", message = "Granularity must be 'minute', 'hour' or 'day'")
+    private String granularity = "hour";
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to;
+}
@@ -0,0 +1,28 @@
+package com.bdkamaci.urlshorteningservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchShortenUrlResponse {
+    private int created;
+    private int failed;
+    private List<Item> results;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        private int index;
+        private ShortenUrlResponse url;
+        private String error;
+    }
+}
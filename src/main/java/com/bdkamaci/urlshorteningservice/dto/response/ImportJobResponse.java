@@ -0,0 +1,35 @@
+package com.bdkamaci.urlshorteningservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJobResponse {
+    private String jobId;
+    private String status;
+    private long linesProcessed;
+    private long imported;
+    private long rejected;
+    private List<RejectedRow> rejectedRows;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+    private LocalDateTime startedAt;
+    private LocalDateTime updatedAt;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RejectedRow {
+        private long line;
+        private String error;
+    }
+}
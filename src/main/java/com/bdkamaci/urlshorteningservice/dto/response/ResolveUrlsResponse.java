@@ -0,0 +1,17 @@
+package com.bdkamaci.urlshorteningservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResolveUrlsResponse {
+    private List<ShortenUrlResponse> found;
+    private List<String> missing;
+}
@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 @Builder
@@ -18,4 +19,27 @@ public class UrlStatisticsResponse {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private Long accessCount;
+    private String granularity;
+    private List<Bucket> series;
+    private Long uniqueVisitors;
+    private List<TopValue> topReferrers;
+    private List<TopValue> topUserAgents;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Bucket {
+        private LocalDateTime start;
+        private long clicks;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TopValue {
+        private String value;
+        private long count;
+    }
 }
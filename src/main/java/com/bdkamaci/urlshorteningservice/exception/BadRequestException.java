@@ -0,0 +1,7 @@
+package com.bdkamaci.urlshorteningservice.exception;
+
+public class BadRequestException extends RuntimeException {
+    public BadRequestException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,7 @@
+package com.bdkamaci.urlshorteningservice.exception;
+
+public class ConflictException extends RuntimeException {
+    public ConflictException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,11 @@
+package com.bdkamaci.urlshorteningservice.export;
+
+import java.time.LocalDateTime;
+
+public record ExportedUrl(Long id,
+                          String shortCode,
+                          String url,
+                          LocalDateTime createdAt,
+                          LocalDateTime updatedAt,
+                          Long accessCount) {
+}
@@ -0,0 +1,99 @@
+package com.bdkamaci.urlshorteningservice.export;
+
+import com.bdkamaci.urlshorteningservice.config.ExportProperties;
+import com.bdkamaci.urlshorteningservice.storage.UrlStore;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Streams every shortened URL in id order using keyset pagination. Each page is a short read-only query for
+ * rows after the last id written, so memory stays constant and no connection is held open between pages,
+ * however long the client takes to consume the stream.
+ */
+@Component
+public class ShortenedUrlExporter {
+    private static final String CSV_HEADER = "id,short_code,url,created_at,updated_at,access_count";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final UrlStore urlStore;
+    private final ObjectWriter jsonWriter;
+    private final ExportProperties properties;
+
+    public ShortenedUrlExporter(UrlStore urlStore, ObjectMapper objectMapper, ExportProperties properties) {
+        this.urlStore = urlStore;
+        this.jsonWriter = objectMapper.writerFor(ExportedUrl.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.properties = properties;
+    }
+
+    public long export(ExportFormat format, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+        JsonGenerator generator = jsonWriter.createGenerator(writer)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        int pageSize = Math.max(1, properties.getPageSize());
+        long afterId = Long.MIN_VALUE;
+        long exported = 0;
+        List<ExportedUrl> page;
+        do {
+            page = urlStore.findExportPage(afterId, Limit.of(pageSize));
+            for (ExportedUrl url : page) {
+                if (format == ExportFormat.CSV) {
+                    writeCsv(writer, url);
+                } else {
+                    jsonWriter.writeValue(generator, url);
+                    generator.writeRaw('\n');
+                }
+            }
+            if (!page.isEmpty()) {
+                afterId = page.getLast().id();
+                exported += page.size();
+            }
+            generator.flush();
+        } while (page.size() == pageSize);
+
+        writer.flush();
+        return exported;
+    }
+
+    private static void writeCsv(Writer writer, ExportedUrl url) throws IOException {
+        writer.write(String.valueOf(url.id()));
+        writer.write(',');
+        writeCsvField(writer, url.shortCode());
+        writer.write(',');
+        writeCsvField(writer, url.url());
+        writer.write(',');
+        writer.write(String.valueOf(url.createdAt()));
+        writer.write(',');
+        writer.write(String.valueOf(url.updatedAt()));
+        writer.write(',');
+        writer.write(String.valueOf(url.accessCount()));
+        writer.write('\n');
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,108 @@
+package com.bdkamaci.urlshorteningservice.generator;
+
+import com.bdkamaci.urlshorteningservice.config.StorageProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps the counter and the released ranges in a small file next to the embedded store's segments, so they survive
+ * a restart together with the URLs. The database tables used in {@code jpa} mode would start over with an in-memory
+ * database and hand out codes that are already stored.
+ * <p>
+ * The embedded store has a single writer, so the state is guarded by this instance alone. Every change is written
+ * to a temporary file and moved over the old one before a block is handed out, so a crash never reissues a range.
+ */
+@Component
+@ConditionalOnProperty(name = "shortener.storage.type", havingValue = "log")
+public class FileShortCodeBlockAllocator implements ShortCodeBlockAllocator {
+    static final String STATE_FILE = "short-codes.state";
+    private static final long FIRST_VALUE = 1L;
+
+    private final Path file;
+    private final TreeMap<Long, Long> released = new TreeMap<>();
+    private long nextValue = FIRST_VALUE;
+
+    public FileShortCodeBlockAllocator(StorageProperties properties) {
+        this.file = Path.of(properties.getDirectory()).resolve(STATE_FILE);
+        try {
+            Files.createDirectories(file.getParent());
+            if (Files.exists(file)) {
+                load();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Short code allocator state could not be read", e);
+        }
+    }
+
+    @Override
+    public synchronized Block reserve(long size) {
+        Map.Entry<Long, Long> claimed = released.firstEntry();
+        if (claimed != null) {
+            TreeMap<Long, Long> remaining = new TreeMap<>(released);
+            remaining.remove(claimed.getKey());
+            store(nextValue, remaining);
+            released.remove(claimed.getKey());
+            return new Block(claimed.getKey(), claimed.getValue());
+        }
+        long start = nextValue;
+        store(start + size, released);
+        nextValue = start + size;
+        return new Block(start, start + size);
+    }
+
+    @Override
+    public synchronized void release(Collection<Block> blocks) {
+        if (blocks.isEmpty()) {
+            return;
+        }
+        TreeMap<Long, Long> updated = new TreeMap<>(released);
+        blocks.forEach(block -> updated.put(block.start(), block.end()));
+        store(nextValue, updated);
+        blocks.forEach(block -> released.put(block.start(), block.end()));
+    }
+
+    private void load() throws IOException {
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        nextValue = Long.parseLong(lines.getFirst().trim());
+        for (String line : lines.subList(1, lines.size())) {
+            if (!line.isBlank()) {
+                String[] range = line.trim().split(" ");
+                released.put(Long.parseLong(range[0]), Long.parseLong(range[1]));
+            }
+        }
+    }
+
+    private void store(long next, Map<Long, Long> ranges) {
+        Path temporary = file.resolveSibling(STATE_FILE + ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                writer.write(Long.toString(next));
+                writer.newLine();
+                for (Map.Entry<Long, Long> range : ranges.entrySet()) {
+                    writer.write(range.getKey() + " " + range.getValue());
+                    writer.newLine();
+                }
+            }
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Short code allocator state could not be written", e);
+        }
+    }
+}
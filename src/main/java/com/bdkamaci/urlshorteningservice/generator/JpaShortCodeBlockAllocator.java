@@ -0,0 +1,114 @@
+package com.bdkamaci.urlshorteningservice.generator;
+
+import com.bdkamaci.urlshorteningservice.model.ShortCodeBlock;
+import com.bdkamaci.urlshorteningservice.model.ShortCodeSequence;
+import com.bdkamaci.urlshorteningservice.repository.ShortCodeBlockRepository;
+import com.bdkamaci.urlshorteningservice.repository.ShortCodeSequenceRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Reserves contiguous blocks of counter values from a shared database row, so each instance can hand out
+ * codes from its block without further coordination. Every reservation is recorded in
+ * {@code short_code_blocks}; ranges released on shutdown are claimed again before the counter advances.
+ */
+@Component
+@ConditionalOnProperty(name = "shortener.storage.type", havingValue = "jpa", matchIfMissing = true)
+public class JpaShortCodeBlockAllocator implements ShortCodeBlockAllocator {
+    static final String SEQUENCE_NAME = "short_codes";
+    private static final long FIRST_VALUE = 1L;
+    private static final int MAX_CLAIM_ATTEMPTS = 3;
+
+    private final ShortCodeSequenceRepository sequenceRepository;
+    private final ShortCodeBlockRepository blockRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public JpaShortCodeBlockAllocator(ShortCodeSequenceRepository sequenceRepository,
+                                      ShortCodeBlockRepository blockRepository,
+                                      PlatformTransactionManager transactionManager) {
+        this.sequenceRepository = sequenceRepository;
+        this.blockRepository = blockRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public Block reserve(long size) {
+        for (int attempt = 0; attempt < MAX_CLAIM_ATTEMPTS; attempt++) {
+            Optional<ShortCodeBlock> released = blockRepository
+                    .findFirstByStatusOrderByRangeStartAsc(ShortCodeBlock.Status.RELEASED);
+            if (released.isEmpty()) {
+                break;
+            }
+            Block claimed = transactionTemplate.execute(status -> claim(released.get()));
+            if (claimed != null) {
+                return claimed;
+            }
+        }
+
+        Block block = transactionTemplate.execute(status -> advance(size));
+        if (block != null) {
+            return block;
+        }
+        try {
+            return transactionTemplate.execute(status -> {
+                sequenceRepository.saveAndFlush(ShortCodeSequence.builder()
+                        .name(SEQUENCE_NAME)
+                        .nextValue(FIRST_VALUE + size)
+                        .build());
+                return record(new Block(FIRST_VALUE, FIRST_VALUE + size));
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another instance created the row first
+            return transactionTemplate.execute(status -> advance(size));
+        }
+    }
+
+    @Override
+    public void release(Collection<Block> blocks) {
+        if (blocks.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> blockRepository.saveAll(blocks.stream()
+                .map(block -> ShortCodeBlock.builder()
+                        .rangeStart(block.start())
+                        .rangeEnd(block.end())
+                        .status(ShortCodeBlock.Status.RELEASED)
+                        .updatedAt(now)
+                        .build())
+                .toList()));
+    }
+
+    private Block claim(ShortCodeBlock released) {
+        int updated = blockRepository.transition(released.getId(),
+                ShortCodeBlock.Status.RELEASED, ShortCodeBlock.Status.RESERVED, LocalDateTime.now());
+        return updated == 1 ? new Block(released.getRangeStart(), released.getRangeEnd()) : null;
+    }
+
+    private Block advance(long size) {
+        if (sequenceRepository.advance(SEQUENCE_NAME, size) == 0) {
+            return null;
+        }
+        long end = sequenceRepository.findById(SEQUENCE_NAME).orElseThrow().getNextValue();
+        return record(new Block(end - size, end));
+    }
+
+    private Block record(Block block) {
+        blockRepository.save(ShortCodeBlock.builder()
+                .rangeStart(block.start())
+                .rangeEnd(block.end())
+                .status(ShortCodeBlock.Status.RESERVED)
+                .updatedAt(LocalDateTime.now())
+                .build());
+        return block;
+    }
+}
@@ -0,0 +1,43 @@
+package com.bdkamaci.urlshorteningservice.generator;
+
+import com.bdkamaci.urlshorteningservice.config.CodeGeneratorProperties;
+import com.bdkamaci.urlshorteningservice.storage.UrlStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+
+@Component
+@ConditionalOnProperty(name = "shortener.code-generator.strategy", havingValue = "random")
+public class RandomShortCodeGenerator implements ShortCodeGenerator {
+    private final UrlStore urlStore;
+    private final SecureRandom random = new SecureRandom();
+    private final int length;
+    private final Counter retries;
+
+    public RandomShortCodeGenerator(UrlStore urlStore,
+                                    CodeGeneratorProperties properties,
+                                    MeterRegistry meterRegistry) {
+        this.urlStore = urlStore;
+        this.length = properties.getLength();
+        this.retries = Counter.builder("shortener.code.generation.retries")
+                .description("Random short codes discarded because they were already taken")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String nextCode() {
+        // Random bits map directly onto URL-safe Base64 characters
+        long codeKey = ShortCodes.fromBits(random.nextLong(), length);
+
+        // Ensure uniqueness and keep clear of fixed routes
+        while (ReservedShortCodes.isReserved(codeKey) || urlStore.existsByCodeKey(codeKey)) {
+            retries.increment();
+            codeKey = ShortCodes.fromBits(random.nextLong(), length);
+        }
+
+        return ShortCodes.unpack(codeKey);
+    }
+}
@@ -0,0 +1,31 @@
+package com.bdkamaci.urlshorteningservice.generator;
+
+import java.util.Arrays;
+
+/**
+ * Path segments served by fixed {@code GET} endpoints, at the root ({@code /shorten}, {@code /actuator}) or under
+ * {@code /shorten}. Literal mappings take precedence over {@code GET /{shortCode}} and
+ * {@code GET /shorten/{shortCode}}, so a short code spelling one of them could be stored but never redirected or read
+ * back. Generators skip them and imports reject them.
+ */
+public final class ReservedShortCodes {
+    private static final long[] KEYS = Arrays.stream(new String[]{"shorten", "actuator", "export", "trending"})
+            .mapToLong(ShortCodes::pack)
+            .toArray();
+
+    private ReservedShortCodes() {
+    }
+
+    public static boolean isReserved(long codeKey) {
+        for (long key : KEYS) {
+            if (key == codeKey) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static boolean isReserved(String code) {
+        return isReserved(ShortCodes.pack(code));
+    }
+}
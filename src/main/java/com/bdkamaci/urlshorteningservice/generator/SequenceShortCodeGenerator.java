@@ -0,0 +1,100 @@
+package com.bdkamaci.urlshorteningservice.generator;
+
+import com.bdkamaci.urlshorteningservice.config.CodeGeneratorProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shortener.code-generator.strategy", havingValue = "sequence", matchIfMissing = true)
+public class SequenceShortCodeGenerator implements ShortCodeGenerator {
+    private final ShortCodeBlockAllocator allocator;
+    private final ShortCodePermutation permutation;
+    private final int blockSize;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private long next;
+    private long limit;
+
+    public SequenceShortCodeGenerator(ShortCodeBlockAllocator allocator, CodeGeneratorProperties properties) {
+        this.allocator = allocator;
+        this.permutation = new ShortCodePermutation(properties.getLength(), properties.getSecret());
+        this.blockSize = properties.getBlockSize();
+    }
+
+    @Override
+    public String nextCode() {
+        String code = permutation.encode(nextValue());
+        while (ReservedShortCodes.isReserved(code)) {
+            code = permutation.encode(nextValue());
+        }
+        return code;
+    }
+
+    private long nextValue() {
+        long value;
+        lock.lock();
+        try {
+            if (next >= limit) {
+                ShortCodeBlockAllocator.Block block = allocator.reserve(blockSize);
+                next = block.start();
+                limit = block.end();
+            }
+            value = next++;
+        } finally {
+            lock.unlock();
+        }
+        if (value >= permutation.capacity()) {
+            throw new IllegalStateException("Short code space exhausted");
+        }
+        return value;
+    }
+
+    @Override
+    public void release(Collection<String> unusedCodes) {
+        long[] values = unusedCodes.stream()
+                .mapToLong(this::decodeOrSkip)
+                .filter(value -> value >= 0)
+                .sorted()
+                .toArray();
+        List<ShortCodeBlockAllocator.Block> blocks = new ArrayList<>();
+        for (int i = 0; i < values.length; ) {
+            int j = i + 1;
+            while (j < values.length && values[j] == values[j - 1] + 1) {
+                j++;
+            }
+            blocks.add(new ShortCodeBlockAllocator.Block(values[i], values[j - 1] + 1));
+            i = j;
+        }
+        allocator.release(blocks);
+        log.info("Released {} unused short codes in {} ranges", values.length, blocks.size());
+    }
+
+    @PreDestroy
+    public void releaseRemainder() {
+        lock.lock();
+        try {
+            if (next < limit) {
+                allocator.release(List.of(new ShortCodeBlockAllocator.Block(next, limit)));
+                next = limit;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long decodeOrSkip(String code) {
+        try {
+            return permutation.decode(code);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+}
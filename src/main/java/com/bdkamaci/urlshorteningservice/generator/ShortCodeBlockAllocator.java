@@ -0,0 +1,20 @@
+package com.bdkamaci.urlshorteningservice.generator;
+
+import java.util.Collection;
+
+/**
+ * Hands out contiguous, never overlapping blocks of counter values for the {@link SequenceShortCodeGenerator}. The
+ * allocator state must live as long as the URLs stored under the codes, so the implementation follows
+ * {@code shortener.storage.type}.
+ */
+public interface ShortCodeBlockAllocator {
+    Block reserve(long size);
+
+    /**
+     * Returns unused ranges so that a later reservation can hand them out again.
+     */
+    void release(Collection<Block> blocks);
+
+    record Block(long start, long end) {
+    }
+}
@@ -0,0 +1,10 @@
+package com.bdkamaci.urlshorteningservice.generator;
+
+import java.util.Collection;
+
+public interface ShortCodeGenerator {
+    String nextCode();
+
+    default void release(Collection<String> unusedCodes) {
+    }
+}
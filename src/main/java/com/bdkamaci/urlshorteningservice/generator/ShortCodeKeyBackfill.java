@@ -0,0 +1,58 @@
+package com.bdkamaci.urlshorteningservice.generator;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Fills {@code shortened_urls.code_key} for rows written before the column existed. Lookups only use the packed
+ * key, so this runs before any other startup work and before the instance reports ready.
+ */
+@Slf4j
+@Component
+public class ShortCodeKeyBackfill {
+    private static final String SELECT_SQL = "select id, short_code from shortened_urls where code_key is null limit ?";
+    private static final String UPDATE_SQL = "update shortened_urls set code_key = ? where id = ?";
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public ShortCodeKeyBackfill(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationStartedEvent.class)
+    public long backfill() {
+        long updated = 0;
+        while (true) {
+            List<long[]> batch = transactionTemplate.execute(status -> {
+                List<long[]> rows = jdbcTemplate.query(SELECT_SQL, (rs, rowNum) ->
+                        new long[]{ShortCodes.pack(rs.getString("short_code")), rs.getLong("id")}, BATCH_SIZE);
+                jdbcTemplate.batchUpdate(UPDATE_SQL, rows, BATCH_SIZE, (ps, row) -> {
+                    ps.setLong(1, row[0]);
+                    ps.setLong(2, row[1]);
+                });
+                return rows;
+            });
+            updated += batch.size();
+            if (batch.size() < BATCH_SIZE) {
+                break;
+            }
+        }
+        if (updated > 0) {
+            log.info("Backfilled code_key for {} short codes", updated);
+        }
+        return updated;
+    }
+}
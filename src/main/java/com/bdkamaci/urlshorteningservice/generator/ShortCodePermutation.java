@@ -0,0 +1,118 @@
+package com.bdkamaci.urlshorteningservice.generator;
+
+import java.util.SplittableRandom;
+
+/**
+ * Keyed bijection between counter values in {@code [0, 62^length)} and fixed-length base62 codes. A balanced
+ * Feistel network with cycle walking keeps the mapping inside the code space, so consecutive counters produce
+ * unrelated-looking codes while distinct counters can never produce the same code.
+ */
+public final class ShortCodePermutation {
+    private static final char[] ALPHABET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz".toCharArray();
+    private static final int ROUNDS = 4;
+
+    private final int length;
+    private final long capacity;
+    private final int halfBits;
+    private final long halfMask;
+    private final long[] roundKeys = new long[ROUNDS];
+
+    public ShortCodePermutation(int length, long secret) {
+        if (length < 6 || length > 10) {
+            throw new IllegalArgumentException("Short code length must be between 6 and 10 characters");
+        }
+        long space = 1;
+        for (int i = 0; i < length; i++) {
+            space *= ALPHABET.length;
+        }
+        this.length = length;
+        this.capacity = space;
+        this.halfBits = (64 - Long.numberOfLeadingZeros(space - 1) + 1) / 2;
+        this.halfMask = (1L << halfBits) - 1;
+        SplittableRandom random = new SplittableRandom(secret);
+        for (int i = 0; i < ROUNDS; i++) {
+            roundKeys[i] = random.nextLong();
+        }
+    }
+
+    public long capacity() {
+        return capacity;
+    }
+
+    public String encode(long value) {
+        if (value < 0 || value >= capacity) {
+            throw new IllegalArgumentException("Value out of short code range: " + value);
+        }
+        long scrambled = value;
+        do {
+            scrambled = permute(scrambled);
+        } while (scrambled >= capacity);
+
+        char[] code = new char[length];
+        for (int i = length - 1; i >= 0; i--) {
+            code[i] = ALPHABET[(int) (scrambled % ALPHABET.length)];
+            scrambled /= ALPHABET.length;
+        }
+        return new String(code);
+    }
+
+    public long decode(String code) {
+        if (code.length() != length) {
+            throw new IllegalArgumentException("Short code must be " + length + " characters long");
+        }
+        long scrambled = 0;
+        for (int i = 0; i < length; i++) {
+            scrambled = scrambled * ALPHABET.length + digit(code.charAt(i));
+        }
+        long value = scrambled;
+        do {
+            value = unpermute(value);
+        } while (value >= capacity);
+        return value;
+    }
+
+    private long permute(long value) {
+        long left = value >>> halfBits;
+        long right = value & halfMask;
+        for (int i = 0; i < ROUNDS; i++) {
+            long next = left ^ round(right, roundKeys[i]);
+            left = right;
+            right = next;
+        }
+        return (left << halfBits) | right;
+    }
+
+    private long unpermute(long value) {
+        long left = value >>> halfBits;
+        long right = value & halfMask;
+        for (int i = ROUNDS - 1; i >= 0; i--) {
+            long previous = right ^ round(left, roundKeys[i]);
+            right = left;
+            left = previous;
+        }
+        return (left << halfBits) | right;
+    }
+
+    private long round(long half, long key) {
+        long h = half ^ key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h & halfMask;
+    }
+
+    private static int digit(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A' + 10;
+        }
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a' + 36;
+        }
+        throw new IllegalArgumentException("Invalid short code character: " + c);
+    }
+}
@@ -0,0 +1,143 @@
+package com.bdkamaci.urlshorteningservice.generator;
+
+import com.bdkamaci.urlshorteningservice.config.KeyPoolProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Lock-free pool of pre-generated short codes. Codes are produced off the request thread by a background
+ * refill whenever the pool drops below its low-water mark; when the pool runs dry, callers fall back to
+ * generating a code inline. Codes still pooled at shutdown are handed back to the generator for reuse.
+ */
+@Slf4j
+@Component
+public class ShortCodePool {
+    private final ShortCodeGenerator generator;
+    private final TaskExecutor taskExecutor;
+    private final KeyPoolProperties properties;
+    private final ConcurrentLinkedQueue<String> codes = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicBoolean refilling = new AtomicBoolean();
+    private final ReentrantLock refillLock = new ReentrantLock();
+    private final Timer refillTimer;
+    private final Counter misses;
+
+    private volatile boolean closed;
+
+    public ShortCodePool(ShortCodeGenerator generator,
+                         @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) TaskExecutor taskExecutor,
+                         KeyPoolProperties properties,
+                         MeterRegistry meterRegistry) {
+        this.generator = generator;
+        this.taskExecutor = taskExecutor;
+        this.properties = properties;
+        this.refillTimer = Timer.builder("shortener.key.pool.refill")
+                .description("Time taken to refill the short code pool")
+                .register(meterRegistry);
+        this.misses = Counter.builder("shortener.key.pool.misses")
+                .description("Short codes generated inline because the pool was empty")
+                .register(meterRegistry);
+        Gauge.builder("shortener.key.pool.size", size, AtomicInteger::get)
+                .description("Pre-generated short codes available")
+                .register(meterRegistry);
+    }
+
+    public String take() {
+        if (!properties.isEnabled()) {
+            return generator.nextCode();
+        }
+        String code = codes.poll();
+        if (code == null) {
+            misses.increment();
+            scheduleRefill();
+            return generator.nextCode();
+        }
+        if (size.decrementAndGet() < properties.getLowWaterMark()) {
+            scheduleRefill();
+        }
+        return code;
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (properties.isEnabled()) {
+            scheduleRefill();
+        }
+    }
+
+    /**
+     * Waits for a running refill before draining, so the generator is not used after its own shutdown.
+     */
+    @PreDestroy
+    public void close() {
+        closed = true;
+        refillLock.lock();
+        try {
+            releasePooled();
+        } finally {
+            refillLock.unlock();
+        }
+    }
+
+    private void releasePooled() {
+        List<String> unused = new ArrayList<>();
+        for (String code = codes.poll(); code != null; code = codes.poll()) {
+            unused.add(code);
+        }
+        size.addAndGet(-unused.size());
+        if (!unused.isEmpty()) {
+            generator.release(unused);
+        }
+    }
+
+    private void scheduleRefill() {
+        if (closed || !refilling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            taskExecutor.execute(this::refill);
+        } catch (RejectedExecutionException e) {
+            refilling.set(false);
+        }
+    }
+
+    void refill() {
+        long start = System.nanoTime();
+        refillLock.lock();
+        try {
+            while (!closed && size.get() < properties.getCapacity()) {
+                codes.add(generator.nextCode());
+                size.incrementAndGet();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Short code pool refill failed", e);
+        } finally {
+            refillLock.unlock();
+            refillTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            refilling.set(false);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.bdkamaci.urlshorteningservice.generator;
+
+import java.util.Arrays;
+
+/**
+ * Packs short codes of up to 10 URL-safe Base64 characters into a single {@code long}: 6 bits per character from
+ * the lowest bits up, with the length in the top 4 bits so that codes differing only in trailing {@code 'A'}s stay
+ * distinct. Keys are compared, hashed and stored as primitives, and the packing is cheap enough to run on every
+ * lookup.
+ */
+public final class ShortCodes {
+    public static final int MAX_LENGTH = 10;
+    /**
+     * Returned for codes that cannot be packed. No valid key has all length bits set, so it never matches a row.
+     */
+    public static final long INVALID = -1L;
+
+    private static final char[] ALPHABET =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".toCharArray();
+    private static final byte[] DIGITS = new byte[128];
+    private static final int LENGTH_SHIFT = 60;
+
+    static {
+        Arrays.fill(DIGITS, (byte) -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            DIGITS[ALPHABET[i]] = (byte) i;
+        }
+    }
+
+    private ShortCodes() {
+    }
+
+    public static long pack(CharSequence code) {
+        if (code == null || code.isEmpty() || code.length() > MAX_LENGTH) {
+            return INVALID;
+        }
+        long key = (long) code.length() << LENGTH_SHIFT;
+        for (int i = 0; i < code.length(); i++) {
+            char c = code.charAt(i);
+            int digit = c < DIGITS.length ? DIGITS[c] : -1;
+            if (digit < 0) {
+                return INVALID;
+            }
+            key |= (long) digit << (6 * i);
+        }
+        return key;
+    }
+
+    /**
+     * Builds a key from the low {@code 6 * length} bits of {@code bits}, e.g. for random codes.
+     */
+    public static long fromBits(long bits, int length) {
+        if (length < 1 || length > MAX_LENGTH) {
+            throw new IllegalArgumentException("Short code length must be between 1 and " + MAX_LENGTH);
+        }
+        return (long) length << LENGTH_SHIFT | bits & ((1L << (6 * length)) - 1);
+    }
+
+    public static String unpack(long key) {
+        int length = (int) (key >>> LENGTH_SHIFT);
+        if (length < 1 || length > MAX_LENGTH) {
+            throw new IllegalArgumentException("Not a packed short code: " + key);
+        }
+        char[] code = new char[length];
+        for (int i = 0; i < length; i++) {
+            code[i] = ALPHABET[(int) (key >>> (6 * i)) & 0x3f];
+        }
+        return new String(code);
+    }
+
+    /**
+     * Well-mixed 64-bit hash of a key, for hash tables and filters.
+     */
+    public static long hash(long key) {
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,360 @@
+package com.bdkamaci.urlshorteningservice.importer;
+
+import com.bdkamaci.urlshorteningservice.cache.ShortCodeBloomFilter;
+import com.bdkamaci.urlshorteningservice.config.CacheConfig;
+import com.bdkamaci.urlshorteningservice.config.ImportProperties;
+import com.bdkamaci.urlshorteningservice.dedup.UrlHashes;
+import com.bdkamaci.urlshorteningservice.dto.response.ImportJobResponse;
+import com.bdkamaci.urlshorteningservice.exception.BadRequestException;
+import com.bdkamaci.urlshorteningservice.exception.ConflictException;
+import com.bdkamaci.urlshorteningservice.exception.ResourceNotFoundException;
+import com.bdkamaci.urlshorteningservice.export.ExportFormat;
+import com.bdkamaci.urlshorteningservice.export.ExportedUrl;
+import com.bdkamaci.urlshorteningservice.generator.ReservedShortCodes;
+import com.bdkamaci.urlshorteningservice.index.UrlIndex;
+import com.bdkamaci.urlshorteningservice.model.ImportJob;
+import com.bdkamaci.urlshorteningservice.model.ShortenedUrl;
+import com.bdkamaci.urlshorteningservice.repository.ImportJobRepository;
+import com.bdkamaci.urlshorteningservice.storage.UrlStore;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streams NDJSON or CSV rows (the same layouts the exporter writes) into the {@link UrlStore}. Rows are
+ * validated against the entity constraints and upserted on the short code one chunk at a time. With the JPA store
+ * the chunk is one batched {@code MERGE} in the same transaction that advances the job row, so re-posting the same
+ * file with the same job id skips every line that was already committed. The embedded store cannot join that
+ * transaction; a chunk cut short by a crash there is simply upserted again on the retry. Each committed chunk renews
+ * the job's lease; a request for a job that is still running within {@code shortener.import.lease-timeout} is
+ * refused rather than taken over.
+ */
+@Slf4j
+@Component
+public class ShortenedUrlImporter {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int PROGRESS_LOG_INTERVAL = 100;
+
+    private final ImportJobRepository jobRepository;
+    private final UrlStore urlStore;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectReader jsonReader;
+    private final Validator validator;
+    private final ShortCodeBloomFilter shortCodeFilter;
+    private final CacheManager cacheManager;
+    private final UrlIndex urlIndex;
+    private final ImportProperties properties;
+
+    public ShortenedUrlImporter(ImportJobRepository jobRepository,
+                                UrlStore urlStore,
+                                PlatformTransactionManager transactionManager,
+                                ObjectMapper objectMapper,
+                                Validator validator,
+                                ShortCodeBloomFilter shortCodeFilter,
+                                CacheManager cacheManager,
+                                UrlIndex urlIndex,
+                                ImportProperties properties) {
+        this.jobRepository = jobRepository;
+        this.urlStore = urlStore;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jsonReader = objectMapper.readerFor(ExportedUrl.class);
+        this.validator = validator;
+        this.shortCodeFilter = shortCodeFilter;
+        this.cacheManager = cacheManager;
+        this.urlIndex = urlIndex;
+        this.properties = properties;
+    }
+
+    public ImportJobResponse importUrls(String jobId, ExportFormat format, InputStream inputStream) throws IOException {
+        ImportJob job = startJob(jobId == null || jobId.isBlank() ? UUID.randomUUID().toString() : jobId, format);
+        if (job.getStatus() == ImportJob.Status.COMPLETED) {
+            return toResponse(job, List.of(), 0, 0);
+        }
+
+        long start = System.nanoTime();
+        long resumeAfter = job.getCommittedLines();
+        int chunkSize = Math.max(1, properties.getChunkSize());
+        List<ShortenedUrl> chunk = new ArrayList<>(chunkSize);
+        List<ImportJobResponse.RejectedRow> rejectedRows = new ArrayList<>();
+        long chunkRejected = 0;
+        long lineNumber = 0;
+        int chunks = 0;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(inputStream, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            RowParser parser = format == ExportFormat.CSV ? new CsvRowParser(reader.readLine()) : this::parseJson;
+            if (format == ExportFormat.CSV) {
+                lineNumber++;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber <= resumeAfter) {
+                    continue;
+                }
+                if (!line.isBlank()) {
+                    String error = parse(parser, line, now, chunk);
+                    if (error != null) {
+                        chunkRejected++;
+                        if (rejectedRows.size() < properties.getRejectedSampleSize()) {
+                            rejectedRows.add(new ImportJobResponse.RejectedRow(lineNumber, error));
+                        }
+                    }
+                }
+                if (lineNumber - job.getCommittedLines() >= chunkSize) {
+                    commit(job, chunk, chunkRejected, lineNumber);
+                    chunk.clear();
+                    chunkRejected = 0;
+                    if (++chunks % PROGRESS_LOG_INTERVAL == 0) {
+                        log.info("Import {}: {} lines committed, {} imported, {} rejected",
+                                job.getId(), job.getCommittedLines(), job.getImported(), job.getRejected());
+                    }
+                }
+            }
+            commit(job, chunk, chunkRejected, lineNumber);
+            job = finish(job.getId(), ImportJob.Status.COMPLETED);
+        } catch (IOException | RuntimeException e) {
+            finish(job.getId(), ImportJob.Status.FAILED);
+            throw e;
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        log.info("Import {} completed: {} imported, {} rejected in {} ms",
+                job.getId(), job.getImported(), job.getRejected(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        return toResponse(job, rejectedRows, elapsedNanos, lineNumber - resumeAfter);
+    }
+
+    public ImportJobResponse getJob(String jobId) {
+        ImportJob job = jobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("Import job not found"));
+        return toResponse(job, List.of(), 0, 0);
+    }
+
+    private String parse(RowParser parser, String line, LocalDateTime now, List<ShortenedUrl> chunk) {
+        ShortenedUrl url;
+        try {
+            url = parser.parse(line, now);
+        } catch (JsonProcessingException | IllegalArgumentException | DateTimeException e) {
+            return "Malformed row";
+        }
+        Set<ConstraintViolation<ShortenedUrl>> violations = validator.validate(url);
+        if (!violations.isEmpty()) {
+            return violations.iterator().next().getMessage();
+        }
+        if (ReservedShortCodes.isReserved(url.getShortCode())) {
+            return "Short code is reserved";
+        }
+        chunk.add(url);
+        return null;
+    }
+
+    private ShortenedUrl parseJson(String line, LocalDateTime now) throws JsonProcessingException {
+        ExportedUrl row = jsonReader.readValue(line);
+        return toEntity(row.shortCode(), row.url(), row.createdAt(), row.updatedAt(), row.accessCount(), now);
+    }
+
+    private static ShortenedUrl toEntity(String shortCode, String url, LocalDateTime createdAt,
+                                         LocalDateTime updatedAt, Long accessCount, LocalDateTime now) {
+        LocalDateTime created = createdAt == null ? now : createdAt;
+        return ShortenedUrl.builder()
+                .shortCode(shortCode)
+                .url(url)
+                .urlHash(UrlHashes.hash(url))
+                .createdAt(created)
+                .updatedAt(updatedAt == null ? created : updatedAt)
+                .accessCount(accessCount == null ? 0L : accessCount)
+                .build();
+    }
+
+    private void commit(ImportJob job, List<ShortenedUrl> chunk, long rejected, long lineNumber) {
+        if (lineNumber == job.getCommittedLines()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            urlStore.upsertAll(chunk);
+            job.setCommittedLines(lineNumber);
+            job.setImported(job.getImported() + chunk.size());
+            job.setRejected(job.getRejected() + rejected);
+            job.setUpdatedAt(LocalDateTime.now());
+            jobRepository.save(job);
+        });
+
+        Cache shortUrls = cacheManager.getCache(CacheConfig.SHORT_URLS);
+        Cache shortUrlTargets = cacheManager.getCache(CacheConfig.SHORT_URL_TARGETS);
+        for (ShortenedUrl url : chunk) {
+            shortCodeFilter.put(url.getShortCode());
+            if (shortUrls != null) {
+                shortUrls.evict(url.getShortCode());
+            }
+            if (shortUrlTargets != null) {
+                shortUrlTargets.evict(url.getShortCode());
+            }
+        }
+        // The merged rows are not read back, so the index defers to the database for them until its next rebuild
+        urlIndex.invalidate(chunk.stream().map(ShortenedUrl::getShortCode).toList());
+    }
+
+    private ImportJob startJob(String jobId, ExportFormat format) {
+        try {
+            return transactionTemplate.execute(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                // The row lock makes claiming the job atomic: a concurrent resume waits here, then sees the lease
+                ImportJob job = jobRepository.findWithLockById(jobId).orElse(null);
+                if (job == null) {
+                    return jobRepository.saveAndFlush(ImportJob.builder()
+                            .id(jobId)
+                            .format(format)
+                            .status(ImportJob.Status.RUNNING)
+                            .startedAt(now)
+                            .updatedAt(now)
+                            .build());
+                }
+                if (job.getFormat() != format) {
+                    throw new BadRequestException("Import job " + jobId + " was started as " + job.getFormat());
+                }
+                if (job.getStatus() == ImportJob.Status.COMPLETED) {
+                    return job;
+                }
+                if (job.getStatus() == ImportJob.Status.RUNNING
+                        && job.getUpdatedAt().isAfter(now.minus(properties.getLeaseTimeout()))) {
+                    throw new ConflictException("Import job " + jobId + " is already running");
+                }
+                job.setStatus(ImportJob.Status.RUNNING);
+                job.setUpdatedAt(now);
+                return jobRepository.save(job);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another request created the same job between our lookup and insert
+            throw new ConflictException("Import job " + jobId + " is already running");
+        }
+    }
+
+    private ImportJob finish(String jobId, ImportJob.Status outcome) {
+        return transactionTemplate.execute(status -> {
+            // Reload so a failed chunk never leaves uncommitted progress on the job row
+            ImportJob job = jobRepository.findById(jobId).orElseThrow();
+            job.setStatus(outcome);
+            job.setUpdatedAt(LocalDateTime.now());
+            return jobRepository.save(job);
+        });
+    }
+
+    private static ImportJobResponse toResponse(ImportJob job, List<ImportJobResponse.RejectedRow> rejectedRows,
+                                                long elapsedNanos, long linesRead) {
+        double seconds = elapsedNanos / 1e9;
+        return ImportJobResponse.builder()
+                .jobId(job.getId())
+                .status(job.getStatus().name())
+                .linesProcessed(job.getCommittedLines())
+                .imported(job.getImported())
+                .rejected(job.getRejected())
+                .rejectedRows(rejectedRows)
+                .elapsedMillis(TimeUnit.NANOSECONDS.toMillis(elapsedNanos))
+                .rowsPerSecond(seconds > 0 ? linesRead / seconds : 0)
+                .startedAt(job.getStartedAt())
+                .updatedAt(job.getUpdatedAt())
+                .build();
+    }
+
+    @FunctionalInterface
+    private interface RowParser {
+        ShortenedUrl parse(String line, LocalDateTime now) throws JsonProcessingException;
+    }
+
+    private static final class CsvRowParser implements RowParser {
+        private final int shortCodeColumn;
+        private final int urlColumn;
+        private final int createdAtColumn;
+        private final int updatedAtColumn;
+        private final int accessCountColumn;
+
+        CsvRowParser(String header) {
+            if (header == null) {
+                throw new IllegalArgumentException("CSV header is missing");
+            }
+            List<String> columns = split(header).stream().map(String::trim).toList();
+            this.shortCodeColumn = columns.indexOf("short_code");
+            this.urlColumn = columns.indexOf("url");
+            this.createdAtColumn = columns.indexOf("created_at");
+            this.updatedAtColumn = columns.indexOf("updated_at");
+            this.accessCountColumn = columns.indexOf("access_count");
+            if (shortCodeColumn < 0 || urlColumn < 0) {
+                throw new IllegalArgumentException("CSV header must contain short_code and url columns");
+            }
+        }
+
+        @Override
+        public ShortenedUrl parse(String line, LocalDateTime now) {
+            List<String> fields = split(line);
+            String createdAt = field(fields, createdAtColumn);
+            String updatedAt = field(fields, updatedAtColumn);
+            String accessCount = field(fields, accessCountColumn);
+            return toEntity(field(fields, shortCodeColumn),
+                    field(fields, urlColumn),
+                    createdAt == null ? null : LocalDateTime.parse(createdAt),
+                    updatedAt == null ? null : LocalDateTime.parse(updatedAt),
+                    accessCount == null ? null : Long.valueOf(accessCount),
+                    now);
+        }
+
+        private static String field(List<String> fields, int column) {
+            if (column < 0 || column >= fields.size() || fields.get(column).isEmpty()) {
+                return null;
+            }
+            return fields.get(column);
+        }
+
+        private static List<String> split(String line) {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            if (quoted) {
+                throw new IllegalArgumentException("Unterminated quoted field");
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+}
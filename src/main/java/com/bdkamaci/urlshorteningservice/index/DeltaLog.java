@@ -0,0 +1,165 @@
+package com.bdkamaci.urlshorteningservice.index;
+
+import com.bdkamaci.urlshorteningservice.generator.ShortCodes;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Append-only log of the changes made since an {@link IndexFile} was built. The latest change per code is kept in
+ * memory, keyed by packed short code, and shadows the index file; the log is replayed on open so changes survive a
+ * restart. A record cut short by a crash is dropped and truncated away.
+ */
+final class DeltaLog implements Closeable {
+    /**
+     * Marks codes that changed outside this instance's view, so lookups fall back to the database.
+     */
+    static final IndexedUrl INVALIDATED = new IndexedUrl(0, "", null, null, null);
+
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final byte INVALIDATE = 3;
+
+    private final FileChannel channel;
+    private final Map<Long, IndexedUrl> entries = new ConcurrentHashMap<>();
+
+    private DeltaLog(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    static DeltaLog open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            DeltaLog log = new DeltaLog(channel);
+            long valid = log.replay();
+            channel.truncate(valid);
+            channel.position(valid);
+            return log;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private long replay() throws IOException {
+        long valid = 0;
+        InputStream stream = new BufferedInputStream(Channels.newInputStream(channel.position(0)), 64 * 1024);
+        CountingInput input = new CountingInput(stream);
+        DataInputStream data = new DataInputStream(input);
+        try {
+            for (int op = data.read(); op != -1; op = data.read()) {
+                String shortCode = data.readUTF();
+                switch (op) {
+                    case PUT -> entries.put(ShortCodes.pack(shortCode), new IndexedUrl(data.readLong(), shortCode, data.readUTF(),
+                            IndexFile.fromMicros(data.readLong()), IndexFile.fromMicros(data.readLong())));
+                    case DELETE -> entries.put(ShortCodes.pack(shortCode), IndexedUrl.deleted(shortCode));
+                    case INVALIDATE -> entries.put(ShortCodes.pack(shortCode), INVALIDATED);
+                    default -> throw new IOException("Unknown delta record type " + op);
+                }
+                valid = input.count;
+            }
+        } catch (EOFException e) {
+            // Torn final record
+        }
+        return valid;
+    }
+
+    IndexedUrl get(String shortCode) {
+        return entries.get(ShortCodes.pack(shortCode));
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    synchronized void put(IndexedUrl url) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + url.url().length());
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(PUT);
+        out.writeUTF(url.shortCode());
+        out.writeLong(url.id());
+        out.writeUTF(url.url());
+        out.writeLong(IndexFile.toMicros(url.createdAt()));
+        out.writeLong(IndexFile.toMicros(url.updatedAt()));
+        append(bytes.toByteArray());
+        entries.put(ShortCodes.pack(url.shortCode()), url);
+    }
+
+    synchronized void delete(String shortCode) throws IOException {
+        append(marker(DELETE, shortCode));
+        entries.put(ShortCodes.pack(shortCode), IndexedUrl.deleted(shortCode));
+    }
+
+    synchronized void invalidate(Collection<String> shortCodes) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(shortCodes.size() * 16);
+        for (String shortCode : shortCodes) {
+            bytes.write(marker(INVALIDATE, shortCode));
+        }
+        append(bytes.toByteArray());
+        for (String shortCode : shortCodes) {
+            entries.put(ShortCodes.pack(shortCode), INVALIDATED);
+        }
+    }
+
+    private static byte[] marker(byte op, String shortCode) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(op);
+        out.writeUTF(shortCode);
+        return bytes.toByteArray();
+    }
+
+    private void append(byte[] record) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(record);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    private static final class CountingInput extends InputStream {
+        private final InputStream delegate;
+        private long count;
+
+        CountingInput(InputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = delegate.read();
+            if (b != -1) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = delegate.read(b, off, len);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.bdkamaci.urlshorteningservice.index;
+
+import com.bdkamaci.urlshorteningservice.generator.ShortCodes;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Immutable open-addressing hash table of short codes, read through a memory mapping so that neither the table
+ * nor the URLs live on the Java heap.
+ *
+ * <pre>
+ * header   magic, version, slot count, entry count, file size, build time
+ * slots    slot count x 8 bytes: 24-bit hash tag | 40-bit entry position, 0 when empty
+ * entries  packed code (8), id (8), created and updated micros (8 + 8), URL length (2), URL (UTF-8)
+ * </pre>
+ *
+ * Lookups probe linearly from the hash of the {@link ShortCodes#pack packed} code and only compare entries whose
+ * tag matches, so a miss usually reads nothing but the slot table.
+ */
+final class IndexFile {
+    private static final int MAGIC = 0x55524c49;
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 64;
+    private static final int TAG_SHIFT = 40;
+    private static final long POSITION_MASK = (1L << TAG_SHIFT) - 1;
+    private static final int MAX_URL_BYTES = 0xffff;
+    private static final int MIN_SLOTS = 1024;
+    private static final int MAX_SLOTS = 1 << 30;
+
+    private final MappedRegion region;
+    private final int slotCount;
+    private final long entryCount;
+    private final long builtAt;
+
+    private IndexFile(MappedRegion region, int slotCount, long entryCount, long builtAt) {
+        this.region = region;
+        this.slotCount = slotCount;
+        this.entryCount = entryCount;
+        this.builtAt = builtAt;
+    }
+
+    static IndexFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new IOException("Index file " + path + " is truncated");
+            }
+            MappedRegion region = new MappedRegion(channel, FileChannel.MapMode.READ_ONLY, size);
+            if (region.getInt(0) != MAGIC || region.getInt(4) != VERSION || region.getLong(24) != size) {
+                throw new IOException("Index file " + path + " is incomplete or has an unknown format");
+            }
+            return new IndexFile(region, region.getInt(8), region.getLong(16), region.getLong(32));
+        }
+    }
+
+    static Writer create(Path path, long expectedEntries) throws IOException {
+        return new Writer(path, expectedEntries);
+    }
+
+    long entryCount() {
+        return entryCount;
+    }
+
+    long builtAt() {
+        return builtAt;
+    }
+
+    IndexedUrl find(String shortCode) {
+        long codeKey = ShortCodes.pack(shortCode);
+        if (codeKey == ShortCodes.INVALID) {
+            return null;
+        }
+        long hash = ShortCodes.hash(codeKey);
+        long tag = hash >>> TAG_SHIFT;
+        int mask = slotCount - 1;
+        for (int slot = (int) hash & mask, probes = 0; probes < slotCount; slot = (slot + 1) & mask, probes++) {
+            long value = region.getLong(HEADER_SIZE + ((long) slot << 3));
+            if (value == 0) {
+                return null;
+            }
+            if (value >>> TAG_SHIFT == tag) {
+                long position = value & POSITION_MASK;
+                ByteBuffer buffer = region.chunk(position);
+                int offset = MappedRegion.offset(position);
+                if (buffer.getLong(offset) == codeKey) {
+                    return read(buffer, offset + 8, shortCode);
+                }
+            }
+        }
+        return null;
+    }
+
+    private static IndexedUrl read(ByteBuffer buffer, int offset, String shortCode) {
+        long id = buffer.getLong(offset);
+        long createdAt = buffer.getLong(offset + 8);
+        long updatedAt = buffer.getLong(offset + 16);
+        byte[] url = new byte[buffer.getChar(offset + 24)];
+        buffer.get(offset + 26, url);
+        return new IndexedUrl(id, shortCode, new String(url, StandardCharsets.UTF_8), fromMicros(createdAt),
+                fromMicros(updatedAt));
+    }
+
+    static long toMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000;
+    }
+
+    static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+
+    /**
+     * Streams entries into a new index file. The slot table is sized up front for the expected entry count, and
+     * {@link #add} refuses entries once it is three quarters full so the caller can start over with a larger table.
+     */
+    static final class Writer implements Closeable {
+        private static final int BUFFER_SIZE = 1 << 20;
+
+        private final FileChannel channel;
+        private final MappedRegion slots;
+        private final int slotCount;
+        private final long capacity;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private long position;
+        private long entries;
+
+        private Writer(Path path, long expectedEntries) throws IOException {
+            long wanted = Math.max(MIN_SLOTS, expectedEntries * 2);
+            this.slotCount = (int) Math.min(MAX_SLOTS, Long.highestOneBit(wanted - 1) << 1);
+            this.capacity = slotCount / 4L * 3;
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.position = HEADER_SIZE + ((long) slotCount << 3);
+            this.slots = new MappedRegion(channel, FileChannel.MapMode.READ_WRITE, position);
+        }
+
+        long entries() {
+            return entries;
+        }
+
+        /**
+         * Returns {@code false} when the table is full. Codes that cannot be packed and URLs that do not fit the
+         * entry layout are skipped, leaving those lookups to the database.
+         */
+        boolean add(long id, String shortCode, String url, LocalDateTime createdAt, LocalDateTime updatedAt)
+                throws IOException {
+            if (entries >= capacity) {
+                return false;
+            }
+            long codeKey = ShortCodes.pack(shortCode);
+            byte[] urlBytes = url.getBytes(StandardCharsets.UTF_8);
+            if (codeKey == ShortCodes.INVALID || urlBytes.length > MAX_URL_BYTES) {
+                return true;
+            }
+            int size = 34 + urlBytes.length;
+            if (position + size > POSITION_MASK) {
+                throw new IOException("Index file exceeds the addressable size");
+            }
+            if (buffer.remaining() < size) {
+                flush();
+            }
+            buffer.putLong(codeKey)
+                    .putLong(id)
+                    .putLong(toMicros(createdAt))
+                    .putLong(toMicros(updatedAt))
+                    .putChar((char) urlBytes.length)
+                    .put(urlBytes);
+
+            long hash = ShortCodes.hash(codeKey);
+            int mask = slotCount - 1;
+            int slot = (int) hash & mask;
+            while (slots.getLong(HEADER_SIZE + ((long) slot << 3)) != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots.putLong(HEADER_SIZE + ((long) slot << 3), (hash >>> TAG_SHIFT) << TAG_SHIFT | position);
+            position += size;
+            entries++;
+            return true;
+        }
+
+        void finish(long builtAt) throws IOException {
+            flush();
+            slots.putInt(0, MAGIC);
+            slots.putInt(4, VERSION);
+            slots.putInt(8, slotCount);
+            slots.putLong(16, entries);
+            slots.putLong(24, position);
+            slots.putLong(32, builtAt);
+            slots.force();
+            channel.force(true);
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            long writeAt = position - buffer.remaining();
+            while (buffer.hasRemaining()) {
+                writeAt += channel.write(buffer, writeAt);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.bdkamaci.urlshorteningservice.index;
+
+import com.bdkamaci.urlshorteningservice.model.ShortenedUrl;
+
+import java.time.LocalDateTime;
+
+/**
+ * A short URL as served from the {@link UrlIndex}. Deleted codes are represented by an entry without a URL.
+ */
+public record IndexedUrl(long id, String shortCode, String url, LocalDateTime createdAt, LocalDateTime updatedAt) {
+    public static IndexedUrl of(ShortenedUrl url) {
+        return new IndexedUrl(url.getId(), url.getShortCode(), url.getUrl(), url.getCreatedAt(), url.getUpdatedAt());
+    }
+
+    static IndexedUrl deleted(String shortCode) {
+        return new IndexedUrl(0, shortCode, null, null, null);
+    }
+
+    public boolean isDeleted() {
+        return url == null;
+    }
+}
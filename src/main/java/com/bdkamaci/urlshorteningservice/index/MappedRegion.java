@@ -0,0 +1,57 @@
+package com.bdkamaci.urlshorteningservice.index;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Maps a file of any size as consecutive 1 GiB buffers. Each buffer reaches {@link #OVERLAP} bytes into the next
+ * one, so a record of at most that size that starts in a buffer can be read from it without crossing a boundary.
+ */
+final class MappedRegion {
+    static final int OVERLAP = 1 << 17;
+    private static final int CHUNK_SHIFT = 30;
+    private static final long CHUNK_SIZE = 1L << CHUNK_SHIFT;
+
+    private final MappedByteBuffer[] chunks;
+
+    MappedRegion(FileChannel channel, FileChannel.MapMode mode, long size) throws IOException {
+        int count = (int) Math.max(1, (size + CHUNK_SIZE - 1) >>> CHUNK_SHIFT);
+        chunks = new MappedByteBuffer[count];
+        for (int i = 0; i < count; i++) {
+            long start = (long) i << CHUNK_SHIFT;
+            chunks[i] = channel.map(mode, start, Math.min(size - start, CHUNK_SIZE + OVERLAP));
+        }
+    }
+
+    ByteBuffer chunk(long position) {
+        return chunks[(int) (position >>> CHUNK_SHIFT)];
+    }
+
+    static int offset(long position) {
+        return (int) (position & (CHUNK_SIZE - 1));
+    }
+
+    long getLong(long position) {
+        return chunk(position).getLong(offset(position));
+    }
+
+    void putLong(long position, long value) {
+        chunk(position).putLong(offset(position), value);
+    }
+
+    void putInt(long position, int value) {
+        chunk(position).putInt(offset(position), value);
+    }
+
+    int getInt(long position) {
+        return chunk(position).getInt(offset(position));
+    }
+
+    void force() {
+        for (MappedByteBuffer chunk : chunks) {
+            chunk.force();
+        }
+    }
+}
@@ -0,0 +1,372 @@
+package com.bdkamaci.urlshorteningservice.index;
+
+import com.bdkamaci.urlshorteningservice.config.DeploymentProperties;
+import com.bdkamaci.urlshorteningservice.config.IndexProperties;
+import com.bdkamaci.urlshorteningservice.export.ExportedUrl;
+import com.bdkamaci.urlshorteningservice.model.ShortenedUrl;
+import com.bdkamaci.urlshorteningservice.storage.UrlStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Database-free read path for short code lookups. Each generation is an immutable, memory-mapped
+ * {@link IndexFile} built from the {@link UrlStore} plus a {@link DeltaLog} of the changes made through this
+ * instance since. Both are kept on disk, so a restart reopens the latest generation instead of reloading. Changes
+ * reach the delta log only after the database write commits, so a process that died in between leaves the files
+ * stale: they are reopened only when {@link #close()} left its clean shutdown marker, and rebuilt otherwise.
+ * <p>
+ * A rebuild starts a new delta log before reading the table, and changes are written to both logs until the new
+ * generation is swapped in, so nothing made during the rebuild is lost. Rebuilds run when the delta log grows
+ * past its limit and at a fixed interval. A lookup the index cannot answer returns {@code null} and the caller
+ * falls back to the database.
+ * <p>
+ * Answers are authoritative, so changes made through another instance would be served stale until the next
+ * rebuild. The index therefore refuses to open unless the deployment is declared single-instance.
+ */
+@Slf4j
+@Component
+public class UrlIndex {
+    private static final Pattern INDEX_FILE = Pattern.compile("index-(\\d+)\\.dat");
+    private static final String CLEAN_SHUTDOWN_MARKER = "clean-shutdown";
+
+    private final UrlStore urlStore;
+    private final IndexProperties properties;
+    private final DeploymentProperties deploymentProperties;
+    private final Object writeLock = new Object();
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer rebuildTimer;
+
+    private volatile Generation current;
+    private DeltaLog next;
+
+    public UrlIndex(UrlStore urlStore, IndexProperties properties, DeploymentProperties deploymentProperties,
+                    MeterRegistry meterRegistry) {
+        this.urlStore = urlStore;
+        this.properties = properties;
+        this.deploymentProperties = deploymentProperties;
+        this.hits = Counter.builder("shortener.index.lookups")
+                .description("Short code lookups answered by the index")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("shortener.index.lookups")
+                .description("Short code lookups answered by the index")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.rebuildTimer = Timer.builder("shortener.index.rebuild")
+                .description("Time taken to rebuild the short code index from the database")
+                .register(meterRegistry);
+        Gauge.builder("shortener.index.delta.size", this, UrlIndex::deltaSize)
+                .description("Changes held in the index delta log")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void open() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (!deploymentProperties.isSingleInstance()) {
+            throw new IllegalStateException(
+                    "shortener.index.enabled requires shortener.deployment.single-instance=true");
+        }
+        try {
+            Files.createDirectories(directory());
+            // Removed before serving, so a crash from here on leaves no marker behind
+            if (Files.deleteIfExists(directory().resolve(CLEAN_SHUTDOWN_MARKER))) {
+                current = openLatest();
+            } else if (latestNumber() != 0) {
+                log.warn("Short code index was not shut down cleanly, rebuilding it");
+            }
+        } catch (IOException e) {
+            log.warn("Short code index could not be reopened, rebuilding it", e);
+        }
+        if (current == null) {
+            rebuild();
+        } else {
+            log.info("Short code index reopened with {} entries and {} pending changes",
+                    current.base().entryCount(), current.delta().size());
+        }
+    }
+
+    public boolean isReady() {
+        return current != null;
+    }
+
+    /**
+     * Returns the indexed URL, a deleted entry, or {@code null} when the index has no answer for the code.
+     */
+    public IndexedUrl find(String shortCode) {
+        Generation generation = current;
+        if (generation == null) {
+            return null;
+        }
+        IndexedUrl url = generation.delta().get(shortCode);
+        if (url == null) {
+            url = generation.base().find(shortCode);
+        } else if (url == DeltaLog.INVALIDATED) {
+            url = null;
+        }
+        (url == null ? misses : hits).increment();
+        return url;
+    }
+
+    public void put(ShortenedUrl url) {
+        write(delta -> delta.put(IndexedUrl.of(url)));
+    }
+
+    public void delete(String shortCode) {
+        write(delta -> delta.delete(shortCode));
+    }
+
+    /**
+     * Makes lookups for the codes fall back to the database until the next rebuild, for changes whose resulting
+     * rows are not at hand.
+     */
+    public void invalidate(Collection<String> shortCodes) {
+        if (!shortCodes.isEmpty()) {
+            write(delta -> delta.invalidate(shortCodes));
+        }
+    }
+
+    private void write(DeltaWrite change) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        synchronized (writeLock) {
+            Generation generation = current;
+            try {
+                if (generation != null) {
+                    change.apply(generation.delta());
+                }
+                if (next != null) {
+                    change.apply(next);
+                }
+            } catch (IOException e) {
+                // A change the index missed would serve stale URLs, so stop answering until the next rebuild
+                log.error("Short code index delta write failed, falling back to the database", e);
+                current = null;
+                if (generation != null) {
+                    closeQuietly(generation.delta());
+                }
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shortener.index.check-interval-ms:10000}")
+    public void maintain() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Generation generation = current;
+        if (generation == null
+                || generation.delta().size() >= properties.getMaxDeltaEntries()
+                || System.currentTimeMillis() - generation.base().builtAt() >= properties.getRebuildIntervalMs()) {
+            rebuild();
+        }
+    }
+
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        long builtAt = System.currentTimeMillis();
+        Path indexPath = null;
+        Path deltaPath = null;
+        DeltaLog delta = null;
+        try {
+            Files.createDirectories(directory());
+            Generation previous = current;
+            long number = previous == null ? latestNumber() + 1 : previous.number() + 1;
+            indexPath = indexPath(number);
+            deltaPath = deltaPath(number);
+            Files.deleteIfExists(deltaPath);
+            delta = DeltaLog.open(deltaPath);
+            synchronized (writeLock) {
+                next = delta;
+            }
+            IndexFile base = build(indexPath, builtAt);
+            synchronized (writeLock) {
+                previous = current;
+                current = new Generation(number, base, delta);
+                next = null;
+            }
+            if (previous != null) {
+                closeQuietly(previous.delta());
+            }
+            deleteOtherGenerations(number);
+            log.info("Short code index rebuilt with {} entries in {} ms", base.entryCount(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Short code index rebuild failed", e);
+            synchronized (writeLock) {
+                next = null;
+            }
+            closeQuietly(delta);
+            if (indexPath != null) {
+                deleteQuietly(indexPath);
+                deleteQuietly(deltaPath);
+            }
+        } finally {
+            rebuildTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private IndexFile build(Path path, long builtAt) throws IOException {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        int pageSize = Math.max(1, properties.getBuildPageSize());
+        long expected = urlStore.count() + pageSize;
+        while (true) {
+            boolean complete;
+            long entries;
+            try (IndexFile.Writer writer = IndexFile.create(temporary, expected)) {
+                complete = fill(writer, pageSize);
+                if (complete) {
+                    writer.finish(builtAt);
+                }
+                entries = writer.entries();
+            }
+            if (complete) {
+                Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                return IndexFile.open(path);
+            }
+            // Rows were added faster than expected, so start over with a larger table
+            expected = entries * 2;
+        }
+    }
+
+    private boolean fill(IndexFile.Writer writer, int pageSize) throws IOException {
+        long afterId = 0;
+        while (true) {
+            List<ExportedUrl> page = urlStore.findExportPage(afterId, Limit.of(pageSize));
+            for (ExportedUrl url : page) {
+                if (!writer.add(url.id(), url.shortCode(), url.url(), url.createdAt(), url.updatedAt())) {
+                    return false;
+                }
+            }
+            if (page.size() < pageSize) {
+                return true;
+            }
+            afterId = page.getLast().id();
+        }
+    }
+
+    private Generation openLatest() throws IOException {
+        long number = latestNumber();
+        if (number == 0) {
+            return null;
+        }
+        IndexFile base = IndexFile.open(indexPath(number));
+        Generation generation = new Generation(number, base, DeltaLog.open(deltaPath(number)));
+        deleteOtherGenerations(number);
+        return generation;
+    }
+
+    private long latestNumber() {
+        long latest = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory(), "index-*.dat")) {
+            for (Path file : files) {
+                Matcher matcher = INDEX_FILE.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    latest = Math.max(latest, Long.parseLong(matcher.group(1)));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return latest;
+    }
+
+    private void deleteOtherGenerations(long keep) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory(), "{index,delta}-*")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (!name.equals(indexPath(keep).getFileName().toString())
+                        && !name.equals(deltaPath(keep).getFileName().toString())) {
+                    // Mappings of an older generation stay valid for readers still holding it
+                    deleteQuietly(file);
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        synchronized (writeLock) {
+            Generation generation = current;
+            current = null;
+            if (generation == null) {
+                return;
+            }
+            try {
+                generation.delta().close();
+                Files.write(directory().resolve(CLEAN_SHUTDOWN_MARKER), new byte[0]);
+            } catch (IOException e) {
+                log.warn("Short code index could not be closed cleanly, it will be rebuilt on startup", e);
+            }
+        }
+    }
+
+    private int deltaSize() {
+        Generation generation = current;
+        return generation == null ? 0 : generation.delta().size();
+    }
+
+    private Path directory() {
+        return Path.of(properties.getDirectory());
+    }
+
+    private Path indexPath(long number) {
+        return directory().resolve("index-" + number + ".dat");
+    }
+
+    private Path deltaPath(long number) {
+        return directory().resolve("delta-" + number + ".log");
+    }
+
+    private static void closeQuietly(DeltaLog delta) {
+        if (delta == null) {
+            return;
+        }
+        try {
+            delta.close();
+        } catch (IOException e) {
+            log.debug("Closing index delta log failed", e);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.debug("Deleting index file {} failed", path, e);
+        }
+    }
+
+    private record Generation(long number, IndexFile base, DeltaLog delta) {
+    }
+
+    @FunctionalInterface
+    private interface DeltaWrite {
+        void apply(DeltaLog delta) throws IOException;
+    }
+}
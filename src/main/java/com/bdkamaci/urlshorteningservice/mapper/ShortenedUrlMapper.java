@@ -0,0 +1,60 @@
+package com.bdkamaci.urlshorteningservice.mapper;
+
+import com.bdkamaci.urlshorteningservice.dto.response.ShortenUrlResponse;
+import com.bdkamaci.urlshorteningservice.dto.response.UrlStatisticsResponse;
+import com.bdkamaci.urlshorteningservice.index.IndexedUrl;
+import com.bdkamaci.urlshorteningservice.model.ShortenedUrl;
+import com.bdkamaci.urlshorteningservice.statistics.ClickGranularity;
+import com.bdkamaci.urlshorteningservice.statistics.UrlSketches;
+import com.bdkamaci.urlshorteningservice.statistics.sketch.SpaceSaving;
+
+import java.util.List;
+
+public final class ShortenedUrlMapper {
+    private ShortenedUrlMapper() {
+    }
+
+    public static ShortenUrlResponse toResponse(ShortenedUrl url) {
+        return ShortenUrlResponse.builder()
+                .id(url.getId().toString())
+                .url(url.getUrl())
+                .shortCode(url.getShortCode())
+                .createdAt(url.getCreatedAt())
+                .updatedAt(url.getUpdatedAt())
+                .build();
+    }
+
+    public static ShortenUrlResponse toResponse(IndexedUrl url) {
+        return ShortenUrlResponse.builder()
+                .id(Long.toString(url.id()))
+                .url(url.url())
+                .shortCode(url.shortCode())
+                .createdAt(url.createdAt())
+                .updatedAt(url.updatedAt())
+                .build();
+    }
+
+    public static UrlStatisticsResponse toStatisticsResponse(ShortenedUrl url, long accessCount, ClickGranularity granularity,
+                                                             List<UrlStatisticsResponse.Bucket> series,
+                                                             UrlSketches.Summary sketches) {
+        return UrlStatisticsResponse.builder()
+                .id(url.getId().toString())
+                .url(url.getUrl())
+                .shortCode(url.getShortCode())
+                .createdAt(url.getCreatedAt())
+                .updatedAt(url.getUpdatedAt())
+                .accessCount(accessCount)
+                .granularity(granularity.getValue())
+                .series(series)
+                .uniqueVisitors(sketches.uniqueVisitors())
+                .topReferrers(toTopValues(sketches.topReferrers()))
+                .topUserAgents(toTopValues(sketches.topUserAgents()))
+                .build();
+    }
+
+    private static List<UrlStatisticsResponse.TopValue> toTopValues(List<SpaceSaving.Entry> entries) {
+        return entries.stream()
+                .map(entry -> new UrlStatisticsResponse.TopValue(entry.item(), entry.count()))
+                .toList();
+    }
+}
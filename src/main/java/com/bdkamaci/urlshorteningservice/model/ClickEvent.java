@@ -0,0 +1,27 @@
+package com.bdkamaci.urlshorteningservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "click_events", indexes = @Index(columnList = "occurredAt"))
+public class ClickEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String shortCode;
+
+    @Column(nullable = false)
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,36 @@
+package com.bdkamaci.urlshorteningservice.model;
+
+import com.bdkamaci.urlshorteningservice.statistics.ClickGranularity;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "click_rollups",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"shortCode", "granularity", "bucketStart"}))
+public class ClickRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String shortCode;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private ClickGranularity granularity;
+
+    @Column(nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(nullable = false)
+    private long clicks;
+}
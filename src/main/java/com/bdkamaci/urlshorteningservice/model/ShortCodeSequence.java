@@ -0,0 +1,24 @@
+package com.bdkamaci.urlshorteningservice.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "short_code_sequences")
+public class ShortCodeSequence {
+    @Id
+    private String name;
+
+    @Column(nullable = false)
+    private Long nextValue;
+}
@@ -1,7 +1,9 @@
 package com.bdkamaci.urlshorteningservice.model;
 
+import com.bdkamaci.urlshorteningservice.generator.ShortCodes;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -15,10 +17,14 @@ import java.time.LocalDateTime;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "shortened_urls", uniqueConstraints = {@UniqueConstraint(columnNames = "shortCode")})
+@Table(name = "shortened_urls",
+        uniqueConstraints = {@UniqueConstraint(columnNames = "shortCode")},
+        indexes = {@Index(columnList = "createdAt, id"), @Index(columnList = "urlHash"),
+                @Index(columnList = "accessCount, id"), @Index(columnList = "codeKey", unique = true)})
 public class ShortenedUrl {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "shortened_urls_seq")
+    @SequenceGenerator(name = "shortened_urls_seq", sequenceName = "shortened_urls_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Original URL is required")
@@ -26,11 +32,20 @@ public class ShortenedUrl {
     @Column(length = 2048)
     private String url;
 
+    @Column(length = 64)
+    private String urlHash;
+
     @NotBlank(message = "Short code is required")
     @Size(min = 6, max = 10, message = "Short code must be between 6 and 10 characters")
+    @Pattern(regexp = "[A-Za-z0-9_-]*", message = "Short code may only contain letters, digits, '_' and '-'")
     @Column(unique = true)
     private String shortCode;
 
+    /**
+     * {@link ShortCodes#pack packed} short code, kept in step with {@link #shortCode} on every write.
+     */
+    private Long codeKey;
+
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
@@ -38,5 +53,12 @@ public class ShortenedUrl {
     private LocalDateTime updatedAt;
 
     @Builder.Default
+    @Column(updatable = false)
     private Long accessCount = 0L;
+
+    @PrePersist
+    @PreUpdate
+    void assignCodeKey() {
+        codeKey = ShortCodes.pack(shortCode);
+    }
 }
@@ -0,0 +1,29 @@
+package com.bdkamaci.urlshorteningservice.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The mapping deduplication hands out for a URL hash. The primary key makes the claim unique across instances,
+ * while {@code shortened_urls} itself may still hold duplicates written with deduplication off.
+ */
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "url_hash_claims")
+public class UrlHashClaim {
+    @Id
+    @Column(length = 64)
+    private String urlHash;
+
+    @Column(nullable = false)
+    private long codeKey;
+}
@@ -0,0 +1,32 @@
+package com.bdkamaci.urlshorteningservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "url_sketches")
+public class UrlSketch {
+    @Id
+    private String shortCode;
+
+    @Column(nullable = false, length = 65_536)
+    private byte[] visitors;
+
+    @Column(nullable = false, length = 65_536)
+    private byte[] referrers;
+
+    @Column(nullable = false, length = 65_536)
+    private byte[] userAgents;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
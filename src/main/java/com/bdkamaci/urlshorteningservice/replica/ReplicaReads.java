@@ -0,0 +1,65 @@
+package com.bdkamaci.urlshorteningservice.replica;
+
+import com.bdkamaci.urlshorteningservice.config.ReplicaProperties;
+import com.bdkamaci.urlshorteningservice.generator.ShortCodes;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Runs lookups on a read replica when replicas are enabled. Replication lag would otherwise hide a client's own
+ * create or update from the read that follows it, so short codes written through this instance are read from the
+ * primary for {@code read-your-writes-window-ms} afterwards. Listings go to the primary for that long after any
+ * write.
+ */
+@Component
+public class ReplicaReads {
+    private final boolean enabled;
+    private final long windowNanos;
+    private final Cache<Long, Boolean> recentWrites;
+    private volatile long lastWriteNanos;
+
+    public ReplicaReads(ReplicaProperties properties) {
+        this.enabled = properties.isEnabled() && !properties.getNodes().isEmpty();
+        this.windowNanos = Duration.ofMillis(properties.getReadYourWritesWindowMs()).toNanos();
+        this.recentWrites = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(properties.getReadYourWritesWindowMs()))
+                .maximumSize(properties.getMaxTrackedWrites())
+                .build();
+        this.lastWriteNanos = System.nanoTime() - windowNanos;
+    }
+
+    public void recordWrite(String shortCode) {
+        if (enabled) {
+            recentWrites.put(ShortCodes.pack(shortCode), Boolean.TRUE);
+            lastWriteNanos = System.nanoTime();
+        }
+    }
+
+    public <T> T read(String shortCode, Supplier<T> action) {
+        return read(List.of(shortCode), action);
+    }
+
+    public <T> T read(Collection<String> shortCodes, Supplier<T> action) {
+        if (!enabled || shortCodes.stream()
+                .anyMatch(shortCode -> recentWrites.getIfPresent(ShortCodes.pack(shortCode)) != null)) {
+            return action.get();
+        }
+        return ReplicaRouting.onReplica(action);
+    }
+
+    /**
+     * For reads that are not tied to particular short codes.
+     */
+    public <T> T read(Supplier<T> action) {
+        if (!enabled || System.nanoTime() - lastWriteNanos < windowNanos) {
+            return action.get();
+        }
+        return ReplicaRouting.onReplica(action);
+    }
+}
@@ -0,0 +1,32 @@
+package com.bdkamaci.urlshorteningservice.replica;
+
+import java.util.function.Supplier;
+
+/**
+ * Marks the current thread as performing replica-safe reads, for {@link ReplicaRoutingDataSource} to pick up when
+ * the next connection is opened.
+ */
+final class ReplicaRouting {
+    private static final ThreadLocal<Boolean> REPLICA = new ThreadLocal<>();
+
+    private ReplicaRouting() {
+    }
+
+    static <T> T onReplica(Supplier<T> action) {
+        Boolean previous = REPLICA.get();
+        REPLICA.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                REPLICA.remove();
+            } else {
+                REPLICA.set(previous);
+            }
+        }
+    }
+
+    static boolean isReplicaRead() {
+        return Boolean.TRUE.equals(REPLICA.get());
+    }
+}
@@ -0,0 +1,134 @@
+package com.bdkamaci.urlshorteningservice.replica;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Routes connections opened inside {@link ReplicaReads} to the healthy replicas in turn, and everything else to the
+ * primary. A read-write transaction always gets the primary, even inside a replica read. A replica that fails to
+ * hand out a connection is taken out of rotation and the connection comes from the next one, or from the primary,
+ * until the health check sees it valid again.
+ * <p>
+ * The decision is made when the connection is opened, so the data source must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} for a transaction's read-only flag to
+ * be known by then.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final int validationTimeoutSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter failovers;
+
+    public ReplicaRoutingDataSource(DataSource primary,
+                                    Map<String, DataSource> replicas,
+                                    int validationTimeoutSeconds,
+                                    MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicas.entrySet().stream()
+                .map(replica -> new Replica(replica.getKey(), replica.getValue(), new AtomicBoolean(true)))
+                .toList();
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.failovers = Counter.builder("shortener.replicas.failovers")
+                .description("Replica reads served by another node because a replica could not be reached")
+                .register(meterRegistry);
+        Gauge.builder("shortener.replicas.healthy", this, ReplicaRoutingDataSource::healthyCount)
+                .description("Replicas currently in rotation")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!routesToReplica()) {
+            return primary.getConnection();
+        }
+        for (int attempt = 0; attempt < replicas.size(); attempt++) {
+            Replica replica = nextHealthy();
+            if (replica == null) {
+                break;
+            }
+            try {
+                return replica.dataSource().getConnection();
+            } catch (SQLException e) {
+                failovers.increment();
+                if (replica.healthy().compareAndSet(true, false)) {
+                    log.warn("Replica {} taken out of rotation: {}", replica.name(), e.getMessage());
+                }
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    private static boolean routesToReplica() {
+        return ReplicaRouting.isReplicaRead() && (!TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+    }
+
+    private Replica nextHealthy() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy().get()) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    int healthyCount() {
+        return (int) replicas.stream().filter(replica -> replica.healthy().get()).count();
+    }
+
+    @Scheduled(fixedDelayString = "${shortener.replicas.health-check-interval-ms:5000}")
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            boolean healthy;
+            try (Connection connection = replica.dataSource().getConnection()) {
+                healthy = connection.isValid(validationTimeoutSeconds);
+            } catch (SQLException e) {
+                healthy = false;
+            }
+            if (replica.healthy().getAndSet(healthy) != healthy) {
+                if (healthy) {
+                    log.info("Replica {} back in rotation", replica.name());
+                } else {
+                    log.warn("Replica {} taken out of rotation: health check failed", replica.name());
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Replica replica : replicas) {
+            if (replica.dataSource() instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private record Replica(String name, DataSource dataSource, AtomicBoolean healthy) {
+    }
+}
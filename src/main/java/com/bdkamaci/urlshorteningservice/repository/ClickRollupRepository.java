@@ -0,0 +1,15 @@
+package com.bdkamaci.urlshorteningservice.repository;
+
+import com.bdkamaci.urlshorteningservice.model.ClickRollup;
+import com.bdkamaci.urlshorteningservice.statistics.ClickGranularity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ClickRollupRepository extends JpaRepository<ClickRollup, Long> {
+    List<ClickRollup> findByShortCodeAndGranularityAndBucketStartBetweenOrderByBucketStartAsc(
+            String shortCode, ClickGranularity granularity, LocalDateTime from, LocalDateTime to);
+}
@@ -0,0 +1,15 @@
+package com.bdkamaci.urlshorteningservice.repository;
+
+import com.bdkamaci.urlshorteningservice.model.ImportJob;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJob, String> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<ImportJob> findWithLockById(String id);
+}
@@ -0,0 +1,23 @@
+package com.bdkamaci.urlshorteningservice.repository;
+
+import com.bdkamaci.urlshorteningservice.model.ShortCodeBlock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface ShortCodeBlockRepository extends JpaRepository<ShortCodeBlock, Long> {
+    Optional<ShortCodeBlock> findFirstByStatusOrderByRangeStartAsc(ShortCodeBlock.Status status);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update ShortCodeBlock b set b.status = :to, b.updatedAt = :now where b.id = :id and b.status = :from")
+    int transition(@Param("id") Long id,
+                   @Param("from") ShortCodeBlock.Status from,
+                   @Param("to") ShortCodeBlock.Status to,
+                   @Param("now") LocalDateTime now);
+}
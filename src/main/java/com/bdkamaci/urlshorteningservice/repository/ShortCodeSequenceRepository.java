@@ -0,0 +1,15 @@
+package com.bdkamaci.urlshorteningservice.repository;
+
+import com.bdkamaci.urlshorteningservice.model.ShortCodeSequence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ShortCodeSequenceRepository extends JpaRepository<ShortCodeSequence, String> {
+    @Modifying(clearAutomatically = true)
+    @Query("update ShortCodeSequence s set s.nextValue = s.nextValue + :size where s.name = :name")
+    int advance(@Param("name") String name, @Param("size") long size);
+}
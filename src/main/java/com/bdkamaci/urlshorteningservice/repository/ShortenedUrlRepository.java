@@ -1,13 +1,69 @@
 package com.bdkamaci.urlshorteningservice.repository;
 
+import com.bdkamaci.urlshorteningservice.export.ExportedUrl;
+import com.bdkamaci.urlshorteningservice.generator.ShortCodes;
 import com.bdkamaci.urlshorteningservice.model.ShortenedUrl;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
-public interface ShortenedUrlRepository extends JpaRepository<ShortenedUrl, Long> {
-    Optional<ShortenedUrl> findByShortCode(String shortCode);
-    boolean existsByShortCode(String shortCode);
+public interface ShortenedUrlRepository extends JpaRepository<ShortenedUrl, Long>, JpaSpecificationExecutor<ShortenedUrl> {
+    Optional<ShortenedUrl> findByCodeKey(long codeKey);
+    boolean existsByCodeKey(long codeKey);
+    List<ShortenedUrl> findByUrlHash(String urlHash);
+
+    @QueryHints(@QueryHint(name = HINT_READ_ONLY, value = "true"))
+    List<ShortenedUrl> findByCodeKeyIn(Collection<Long> codeKeys);
+
+    @Query("select s.url from ShortenedUrl s where s.codeKey = :codeKey")
+    Optional<String> findUrlByCodeKey(@Param("codeKey") long codeKey);
+
+    // Short code lookups go through the packed BIGINT key instead of comparing varchars
+
+    default Optional<ShortenedUrl> findByShortCode(String shortCode) {
+        return findByCodeKey(ShortCodes.pack(shortCode));
+    }
+
+    default boolean existsByShortCode(String shortCode) {
+        return existsByCodeKey(ShortCodes.pack(shortCode));
+    }
+
+    default List<ShortenedUrl> findByShortCodeIn(Collection<String> shortCodes) {
+        return findByCodeKeyIn(shortCodes.stream().map(ShortCodes::pack).toList());
+    }
+
+    default Optional<String> findUrlByShortCode(String shortCode) {
+        return findUrlByCodeKey(ShortCodes.pack(shortCode));
+    }
+
+    @Query("select s.shortCode from ShortenedUrl s")
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    Stream<String> streamAllShortCodes();
+
+    @Query("select s from ShortenedUrl s order by s.accessCount desc, s.id desc")
+    @QueryHints(@QueryHint(name = HINT_READ_ONLY, value = "true"))
+    List<ShortenedUrl> findMostAccessed(Limit limit);
+
+    @Query("select s from ShortenedUrl s where s.accessCount < :accessCount "
+            + "or (s.accessCount = :accessCount and s.id < :id) order by s.accessCount desc, s.id desc")
+    @QueryHints(@QueryHint(name = HINT_READ_ONLY, value = "true"))
+    List<ShortenedUrl> findMostAccessedAfter(@Param("accessCount") long accessCount, @Param("id") long id, Limit limit);
+
+    @Query("select new com.bdkamaci.urlshorteningservice.export.ExportedUrl(s.id, s.shortCode, s.url, s.createdAt, "
+            + "s.updatedAt, s.accessCount) from ShortenedUrl s where s.id > :afterId order by s.id")
+    List<ExportedUrl> findExportPage(@Param("afterId") long afterId, Limit limit);
 }
@@ -0,0 +1,36 @@
+package com.bdkamaci.urlshorteningservice.repository;
+
+import com.bdkamaci.urlshorteningservice.model.ShortenedUrl;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+public final class ShortenedUrlSpecifications {
+    private static final char LIKE_ESCAPE = '\\';
+
+    private ShortenedUrlSpecifications() {
+    }
+
+    public static Specification<ShortenedUrl> idAfter(long id) {
+        return (root, query, cb) -> cb.greaterThan(root.get("id"), id);
+    }
+
+    public static Specification<ShortenedUrl> createdAfter(LocalDateTime createdAt, long id) {
+        return (root, query, cb) -> cb.or(
+                cb.greaterThan(root.get("createdAt"), createdAt),
+                cb.and(cb.equal(root.get("createdAt"), createdAt), cb.greaterThan(root.get("id"), id)));
+    }
+
+    public static Specification<ShortenedUrl> createdFrom(LocalDateTime from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("createdAt"), from);
+    }
+
+    public static Specification<ShortenedUrl> createdBefore(LocalDateTime to) {
+        return (root, query, cb) -> cb.lessThan(root.get("createdAt"), to);
+    }
+
+    public static Specification<ShortenedUrl> urlStartsWith(String prefix) {
+        String pattern = prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return (root, query, cb) -> cb.like(root.get("url"), pattern, LIKE_ESCAPE);
+    }
+}
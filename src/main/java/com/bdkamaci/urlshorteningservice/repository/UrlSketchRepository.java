@@ -0,0 +1,18 @@
+package com.bdkamaci.urlshorteningservice.repository;
+
+import com.bdkamaci.urlshorteningservice.model.UrlSketch;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface UrlSketchRepository extends JpaRepository<UrlSketch, String> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from UrlSketch s where s.shortCode = :shortCode")
+    Optional<UrlSketch> findForUpdate(@Param("shortCode") String shortCode);
+}
@@ -1,13 +1,24 @@
 package com.bdkamaci.urlshorteningservice.service;
 
+import com.bdkamaci.urlshorteningservice.dto.request.BatchShortenUrlRequest;
+import com.bdkamaci.urlshorteningservice.dto.request.ListUrlsRequest;
+import com.bdkamaci.urlshorteningservice.dto.request.ResolveUrlsRequest;
 import com.bdkamaci.urlshorteningservice.dto.request.ShortenUrlRequest;
+import com.bdkamaci.urlshorteningservice.dto.request.UrlStatisticsRequest;
+import com.bdkamaci.urlshorteningservice.dto.response.BatchShortenUrlResponse;
+import com.bdkamaci.urlshorteningservice.dto.response.ResolveUrlsResponse;
+import com.bdkamaci.urlshorteningservice.dto.response.ShortenUrlPageResponse;
 import com.bdkamaci.urlshorteningservice.dto.response.ShortenUrlResponse;
 import com.bdkamaci.urlshorteningservice.dto.response.UrlStatisticsResponse;
 
 public interface UrlShortenerService {
     ShortenUrlResponse createShortUrl(ShortenUrlRequest request);
+    BatchShortenUrlResponse createShortUrls(BatchShortenUrlRequest request);
     ShortenUrlResponse getUrlByShortCode(String shortCode);
+    String resolveUrl(String shortCode);
+    ResolveUrlsResponse resolveUrls(ResolveUrlsRequest request);
+    ShortenUrlPageResponse listUrls(ListUrlsRequest request);
     ShortenUrlResponse updateUrl(String shortCode, ShortenUrlRequest request);
     void deleteUrl(String shortCode);
-    UrlStatisticsResponse getUrlStatistics(String shortCode);
+    UrlStatisticsResponse getUrlStatistics(String shortCode, UrlStatisticsRequest request);
 }
@@ -1,127 +1,385 @@
 package com.bdkamaci.urlshorteningservice.service.impl;
 
+import com.bdkamaci.urlshorteningservice.cache.ShortCodeBloomFilter;
+import com.bdkamaci.urlshorteningservice.config.BatchProperties;
+import com.bdkamaci.urlshorteningservice.config.CacheConfig;
+import com.bdkamaci.urlshorteningservice.config.ClickProperties;
+import com.bdkamaci.urlshorteningservice.dedup.UrlDeduplicator;
+import com.bdkamaci.urlshorteningservice.dedup.UrlHashes;
+import com.bdkamaci.urlshorteningservice.dto.request.BatchShortenUrlRequest;
+import com.bdkamaci.urlshorteningservice.dto.request.ListUrlsRequest;
+import com.bdkamaci.urlshorteningservice.dto.request.ResolveUrlsRequest;
 import com.bdkamaci.urlshorteningservice.dto.request.ShortenUrlRequest;
+import com.bdkamaci.urlshorteningservice.dto.request.UrlStatisticsRequest;
+import com.bdkamaci.urlshorteningservice.dto.response.BatchShortenUrlResponse;
+import com.bdkamaci.urlshorteningservice.dto.response.ResolveUrlsResponse;
+import com.bdkamaci.urlshorteningservice.dto.response.ShortenUrlPageResponse;
 import com.bdkamaci.urlshorteningservice.dto.response.ShortenUrlResponse;
 import com.bdkamaci.urlshorteningservice.dto.response.UrlStatisticsResponse;
+import com.bdkamaci.urlshorteningservice.exception.BadRequestException;
 import com.bdkamaci.urlshorteningservice.exception.ResourceNotFoundException;
+import com.bdkamaci.urlshorteningservice.generator.ShortCodePool;
+import com.bdkamaci.urlshorteningservice.index.IndexedUrl;
+import com.bdkamaci.urlshorteningservice.index.UrlIndex;
+import com.bdkamaci.urlshorteningservice.mapper.ShortenedUrlMapper;
 import com.bdkamaci.urlshorteningservice.model.ShortenedUrl;
-import com.bdkamaci.urlshorteningservice.repository.ShortenedUrlRepository;
+import com.bdkamaci.urlshorteningservice.replica.ReplicaReads;
+import com.bdkamaci.urlshorteningservice.repository.ClickRollupRepository;
 import com.bdkamaci.urlshorteningservice.service.UrlShortenerService;
+import com.bdkamaci.urlshorteningservice.statistics.AccessCounter;
+import com.bdkamaci.urlshorteningservice.statistics.ClickGranularity;
+import com.bdkamaci.urlshorteningservice.statistics.UrlSketches;
+import com.bdkamaci.urlshorteningservice.storage.UrlPageQuery;
+import com.bdkamaci.urlshorteningservice.storage.UrlStore;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
-import java.security.SecureRandom;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.UnaryOperator;
 
 @Service
+@Timed("shortener.service")
 @RequiredArgsConstructor
 public class UrlShortenerServiceImpl implements UrlShortenerService {
-    private final ShortenedUrlRepository repository;
-    private static final int SHORT_CODE_LENGTH = 8;
+    private static final int MAX_CREATE_ATTEMPTS = 3;
 
-    private String generateUniqueShortCode() {
-        SecureRandom random = new SecureRandom();
-        byte[] bytes = new byte[6];
-        random.nextBytes(bytes);
+    private final UrlStore urlStore;
+    private final ShortCodeBloomFilter shortCodeFilter;
+    private final ShortCodePool shortCodePool;
+    private final AccessCounter accessCounter;
+    private final Validator validator;
+    private final BatchProperties batchProperties;
+    private final UrlDeduplicator deduplicator;
+    private final ClickRollupRepository clickRollupRepository;
+    private final ClickProperties clickProperties;
+    private final UrlSketches urlSketches;
+    private final UrlIndex urlIndex;
+    private final ReplicaReads replicaReads;
 
-        String shortCode = Base64.getUrlEncoder()
-                .withoutPadding()
-                .encodeToString(bytes)
-                .substring(0, SHORT_CODE_LENGTH);
-
-        // Ensure uniqueness
-        while (repository.existsByShortCode(shortCode)) {
-            random.nextBytes(bytes);
-            shortCode = Base64.getUrlEncoder()
-                    .withoutPadding()
-                    .encodeToString(bytes)
-                    .substring(0, SHORT_CODE_LENGTH);
+    private ShortenedUrl findExisting(String shortCode) {
+        if (!shortCodeFilter.mightContain(shortCode)) {
+            throw new ResourceNotFoundException("URL not found");
         }
+        return urlStore.findByShortCode(shortCode)
+                .orElseThrow(() -> new ResourceNotFoundException("URL not found"));
+    }
 
-        return shortCode;
+    private ShortenedUrl newUrl(String url, LocalDateTime now) {
+        return ShortenedUrl.builder()
+                .url(url)
+                .urlHash(UrlHashes.hash(url))
+                .shortCode(shortCodePool.take())
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
     }
 
     @Override
     public ShortenUrlResponse createShortUrl(ShortenUrlRequest request) {
-        String shortCode = generateUniqueShortCode();
+        String url = request.getUrl();
+        ShortenedUrl savedUrl = create(url);
+        urlIndex.put(savedUrl);
+        return ShortenedUrlMapper.toResponse(savedUrl);
+    }
+
+    private ShortenedUrl create(String url) {
+        return deduplicator.isEnabled()
+                ? deduplicator.findOrCreate(url, UrlHashes.hash(url), () -> insert(url, urlStore::saveIfAbsent))
+                : insert(url, urlStore::save);
+    }
+
+    private ShortenedUrl insert(String url, UnaryOperator<ShortenedUrl> writer) {
         LocalDateTime now = LocalDateTime.now();
+        ShortenedUrl savedUrl;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                savedUrl = writer.apply(newUrl(url, now));
+                break;
+            } catch (DataIntegrityViolationException e) {
+                // Imported codes share the keyspace with generated ones, so a fresh code is tried on a collision
+                if (attempt == MAX_CREATE_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+        shortCodeFilter.put(savedUrl.getShortCode());
+        replicaReads.recordWrite(savedUrl.getShortCode());
+        return savedUrl;
+    }
 
-        ShortenedUrl url = ShortenedUrl.builder()
-                .url(request.getUrl())
-                .shortCode(shortCode)
-                .createdAt(now)
-                .updatedAt(now)
+    @Override
+    public BatchShortenUrlResponse createShortUrls(BatchShortenUrlRequest request) {
+        List<ShortenUrlRequest> items = request.getUrls();
+        BatchShortenUrlResponse.Item[] results = new BatchShortenUrlResponse.Item[items.size()];
+        List<Integer> accepted = new ArrayList<>(items.size());
+
+        for (int i = 0; i < items.size(); i++) {
+            String error = validate(items.get(i));
+            if (error == null) {
+                accepted.add(i);
+            } else {
+                results[i] = failed(i, error);
+            }
+        }
+
+        int chunkSize = Math.max(1, batchProperties.getChunkSize());
+        for (int from = 0; from < accepted.size(); from += chunkSize) {
+            saveChunk(items, accepted.subList(from, Math.min(from + chunkSize, accepted.size())), results);
+        }
+
+        int failedCount = (int) Arrays.stream(results).filter(result -> result.getError() != null).count();
+        return BatchShortenUrlResponse.builder()
+                .created(results.length - failedCount)
+                .failed(failedCount)
+                .results(Arrays.asList(results))
                 .build();
+    }
+
+    private String validate(ShortenUrlRequest item) {
+        if (item == null) {
+            return "URL is required";
+        }
+        Set<ConstraintViolation<ShortenUrlRequest>> violations = validator.validate(item);
+        return violations.isEmpty() ? null : violations.iterator().next().getMessage();
+    }
+
+    private void saveChunk(List<ShortenUrlRequest> items, List<Integer> indexes, BatchShortenUrlResponse.Item[] results) {
+        if (deduplicator.isEnabled()) {
+            // Each URL has to be matched against the stored ones and claimed, so deduplicated chunks are not batched
+            saveEach(items, indexes, results);
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<ShortenedUrl> urls = indexes.stream()
+                .map(index -> newUrl(items.get(index).getUrl(), now))
+                .toList();
+        try {
+            // One transaction per chunk; the sequence-backed ids let Hibernate send the inserts as JDBC batches
+            List<ShortenedUrl> savedUrls = urlStore.saveAll(urls);
+            for (int i = 0; i < indexes.size(); i++) {
+                ShortenedUrl savedUrl = savedUrls.get(i);
+                shortCodeFilter.put(savedUrl.getShortCode());
+                replicaReads.recordWrite(savedUrl.getShortCode());
+                urlIndex.put(savedUrl);
+                results[indexes.get(i)] = created(indexes.get(i), savedUrl);
+            }
+        } catch (DataAccessException e) {
+            // The chunk was rolled back as a whole, so retry item by item to isolate the failures
+            saveEach(items, indexes, results);
+        }
+    }
 
-        ShortenedUrl savedUrl = repository.save(url);
+    private void saveEach(List<ShortenUrlRequest> items, List<Integer> indexes, BatchShortenUrlResponse.Item[] results) {
+        for (int index : indexes) {
+            try {
+                ShortenedUrl savedUrl = create(items.get(index).getUrl());
+                urlIndex.put(savedUrl);
+                results[index] = created(index, savedUrl);
+            } catch (DataAccessException e) {
+                results[index] = failed(index, "URL could not be stored");
+            }
+        }
+    }
 
-        return ShortenUrlResponse.builder()
-                .id(savedUrl.getId().toString())
-                .url(savedUrl.getUrl())
-                .shortCode(savedUrl.getShortCode())
-                .createdAt(savedUrl.getCreatedAt())
-                .updatedAt(savedUrl.getUpdatedAt())
+    private static BatchShortenUrlResponse.Item created(int index, ShortenedUrl url) {
+        return BatchShortenUrlResponse.Item.builder()
+                .index(index)
+                .url(ShortenedUrlMapper.toResponse(url))
+                .build();
+    }
+
+    private static BatchShortenUrlResponse.Item failed(int index, String error) {
+        return BatchShortenUrlResponse.Item.builder()
+                .index(index)
+                .error(error)
                 .build();
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.SHORT_URLS, key = "#shortCode", sync = true)
     public ShortenUrlResponse getUrlByShortCode(String shortCode) {
-        ShortenedUrl url = repository.findByShortCode(shortCode)
+        IndexedUrl indexed = findIndexed(shortCode);
+        if (indexed != null) {
+            return ShortenedUrlMapper.toResponse(indexed);
+        }
+        ShortenedUrl url = replicaReads.read(shortCode, () -> findExisting(shortCode));
+
+        return ShortenedUrlMapper.toResponse(url);
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.SHORT_URL_TARGETS, key = "#shortCode", sync = true)
+    public String resolveUrl(String shortCode) {
+        IndexedUrl indexed = findIndexed(shortCode);
+        if (indexed != null) {
+            return indexed.url();
+        }
+        if (!shortCodeFilter.mightContain(shortCode)) {
+            throw new ResourceNotFoundException("URL not found");
+        }
+        return replicaReads.read(shortCode, () -> urlStore.findUrlByShortCode(shortCode))
                 .orElseThrow(() -> new ResourceNotFoundException("URL not found"));
+    }
+
+    private IndexedUrl findIndexed(String shortCode) {
+        IndexedUrl indexed = urlIndex.find(shortCode);
+        if (indexed != null && indexed.isDeleted()) {
+            throw new ResourceNotFoundException("URL not found");
+        }
+        return indexed;
+    }
+
+    @Override
+    public ResolveUrlsResponse resolveUrls(ResolveUrlsRequest request) {
+        Set<String> requested = new LinkedHashSet<>();
+        request.getShortCodes().stream().filter(Objects::nonNull).forEach(requested::add);
+        List<String> candidates = requested.stream().filter(shortCodeFilter::mightContain).toList();
+
+        Map<String, ShortenedUrl> urls = new HashMap<>(candidates.size() * 2);
+        int chunkSize = Math.max(1, batchProperties.getResolveChunkSize());
+        for (int from = 0; from < candidates.size(); from += chunkSize) {
+            List<String> chunk = candidates.subList(from, Math.min(from + chunkSize, candidates.size()));
+            replicaReads.read(chunk, () -> urlStore.findByShortCodeIn(chunk))
+                    .forEach(url -> urls.put(url.getShortCode(), url));
+        }
+
+        List<ShortenUrlResponse> found = new ArrayList<>(urls.size());
+        List<String> missing = new ArrayList<>();
+        for (String shortCode : requested) {
+            ShortenedUrl url = urls.get(shortCode);
+            if (url == null) {
+                missing.add(shortCode);
+            } else {
+                found.add(ShortenedUrlMapper.toResponse(url));
+            }
+        }
+        return ResolveUrlsResponse.builder()
+                .found(found)
+                .missing(missing)
+                .build();
+    }
+
+    @Override
+    public ShortenUrlPageResponse listUrls(ListUrlsRequest request) {
+        boolean byCreatedAt = ListUrlsRequest.SORT_BY_CREATED_AT.equals(request.getSort());
+        PageCursor after = request.getAfter() == null || request.getAfter().isBlank()
+                ? null : parseCursor(request.getAfter(), request.getSort());
 
-        return ShortenUrlResponse.builder()
-                .id(url.getId().toString())
-                .url(url.getUrl())
-                .shortCode(url.getShortCode())
-                .createdAt(url.getCreatedAt())
-                .updatedAt(url.getUpdatedAt())
+        // One extra row tells whether another page exists without a count query
+        UrlPageQuery query = new UrlPageQuery(byCreatedAt,
+                after == null ? null : after.createdAt(), after == null ? null : after.id(),
+                request.getCreatedFrom(), request.getCreatedTo(), request.getUrlPrefix(), request.getLimit() + 1);
+        List<ShortenedUrl> urls = replicaReads.read(() -> urlStore.findPage(query));
+
+        boolean hasMore = urls.size() > request.getLimit();
+        List<ShortenedUrl> page = hasMore ? urls.subList(0, request.getLimit()) : urls;
+        return ShortenUrlPageResponse.builder()
+                .items(page.stream().map(ShortenedUrlMapper::toResponse).toList())
+                .nextCursor(hasMore ? cursor(page.getLast(), request.getSort()) : null)
                 .build();
     }
 
+    private static String cursor(ShortenedUrl last, String sort) {
+        String value = ListUrlsRequest.SORT_BY_CREATED_AT.equals(sort)
+                ? sort + "|" + last.getCreatedAt() + "|" + last.getId()
+                : sort + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static PageCursor parseCursor(String cursor, String sort) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (ListUrlsRequest.SORT_BY_CREATED_AT.equals(sort) && parts.length == 3 && sort.equals(parts[0])) {
+                return new PageCursor(LocalDateTime.parse(parts[1]), Long.parseLong(parts[2]));
+            }
+            if (ListUrlsRequest.SORT_BY_ID.equals(sort) && parts.length == 2 && sort.equals(parts[0])) {
+                return new PageCursor(null, Long.parseLong(parts[1]));
+            }
+        } catch (IllegalArgumentException | DateTimeException e) {
+            // Fall through to the rejection below
+        }
+        throw new BadRequestException("Invalid cursor");
+    }
+
     @Override
+    @Caching(
+            put = @CachePut(cacheNames = CacheConfig.SHORT_URLS, key = "#shortCode"),
+            evict = @CacheEvict(cacheNames = CacheConfig.SHORT_URL_TARGETS, key = "#shortCode")
+    )
     public ShortenUrlResponse updateUrl(String shortCode, ShortenUrlRequest request) {
-        ShortenedUrl url = repository.findByShortCode(shortCode)
-                .orElseThrow(() -> new ResourceNotFoundException("URL not found"));
+        ShortenedUrl url = findExisting(shortCode);
 
         url.setUrl(request.getUrl());
+        url.setUrlHash(UrlHashes.hash(request.getUrl()));
         url.setUpdatedAt(LocalDateTime.now());
 
-        ShortenedUrl savedUrl = repository.save(url);
+        ShortenedUrl savedUrl = urlStore.save(url);
+        replicaReads.recordWrite(shortCode);
+        urlIndex.put(savedUrl);
 
-        return ShortenUrlResponse.builder()
-                .id(savedUrl.getId().toString())
-                .url(savedUrl.getUrl())
-                .shortCode(savedUrl.getShortCode())
-                .createdAt(savedUrl.getCreatedAt())
-                .updatedAt(savedUrl.getUpdatedAt())
-                .build();
+        return ShortenedUrlMapper.toResponse(savedUrl);
     }
 
     @Override
+    @CacheEvict(cacheNames = {CacheConfig.SHORT_URLS, CacheConfig.SHORT_URL_TARGETS}, key = "#shortCode")
     public void deleteUrl(String shortCode) {
-        ShortenedUrl url = repository.findByShortCode(shortCode)
-                .orElseThrow(() -> new ResourceNotFoundException("URL not found"));
+        ShortenedUrl url = findExisting(shortCode);
 
-        repository.delete(url);
+        urlStore.delete(url);
+        replicaReads.recordWrite(shortCode);
+        urlIndex.delete(shortCode);
     }
 
     @Override
-    public UrlStatisticsResponse getUrlStatistics(String shortCode) {
-        ShortenedUrl url = repository.findByShortCode(shortCode)
-                .orElseThrow(() -> new ResourceNotFoundException("URL not found"));
+    public UrlStatisticsResponse getUrlStatistics(String shortCode, UrlStatisticsRequest request) {
+        ShortenedUrl url = replicaReads.read(shortCode, () -> findExisting(shortCode));
 
-        // Increment access count
-        url.setAccessCount(url.getAccessCount() + 1);
-        repository.save(url);
-
-        return UrlStatisticsResponse.builder()
-                .id(url.getId().toString())
-                .url(url.getUrl())
-                .shortCode(url.getShortCode())
-                .createdAt(url.getCreatedAt())
-                .updatedAt(url.getUpdatedAt())
-                .accessCount(url.getAccessCount())
-                .build();
+        ClickGranularity granularity = ClickGranularity.fromValue(request.getGranularity());
+        LocalDateTime to = granularity.bucketOf(request.getTo() == null ? LocalDateTime.now() : request.getTo());
+        LocalDateTime from = granularity.bucketOf(request.getFrom() == null
+                ? to.minus(granularity.getDefaultWindow()) : request.getFrom());
+        if (from.isAfter(to)) {
+            throw new BadRequestException("'from' must not be after 'to'");
+        }
+        if (granularity.bucketsBetween(from, to) > clickProperties.getMaxSeriesPoints()) {
+            throw new BadRequestException("Requested range exceeds " + clickProperties.getMaxSeriesPoints() + " "
+                    + granularity.getValue() + " buckets");
+        }
+
+        Map<LocalDateTime, Long> clicks = new HashMap<>();
+        replicaReads.read(shortCode, () -> clickRollupRepository
+                        .findByShortCodeAndGranularityAndBucketStartBetweenOrderByBucketStartAsc(
+                                shortCode, granularity, from, to))
+                .forEach(rollup -> clicks.put(rollup.getBucketStart(), rollup.getClicks()));
+        List<UrlStatisticsResponse.Bucket> series = new ArrayList<>();
+        for (LocalDateTime bucket = from; !bucket.isAfter(to); bucket = granularity.next(bucket)) {
+            series.add(new UrlStatisticsResponse.Bucket(bucket, clicks.getOrDefault(bucket, 0L)));
+        }
+
+        return ShortenedUrlMapper.toStatisticsResponse(url, url.getAccessCount() + accessCounter.pendingCount(shortCode),
+                granularity, series, urlSketches.summarize(shortCode));
+    }
+
+    private record PageCursor(LocalDateTime createdAt, long id) {
     }
 }
@@ -0,0 +1,136 @@
+package com.bdkamaci.urlshorteningservice.statistics;
+
+import com.bdkamaci.urlshorteningservice.generator.ShortCodes;
+import com.bdkamaci.urlshorteningservice.storage.UrlStore;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Write-behind access counter. Hits are accumulated in striped in-memory counters and periodically added to the
+ * stored access counts in batched relative updates, so no request writes to the {@link UrlStore} and
+ * concurrent hits are never lost. Each thread counts into one of several stripes, each with its own pending map and
+ * swap lock, so concurrent hits do not contend on a single lock word. A stripe's map is swapped under its write
+ * lock before each flush, which guarantees every increment lands in exactly one flush. Counters are keyed by packed
+ * short code.
+ */
+@Slf4j
+@Component
+public class AccessCounter {
+    private static final int STRIPES =
+            Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 4 - 1);
+
+    private final UrlStore urlStore;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public AccessCounter(UrlStore urlStore) {
+        this.urlStore = urlStore;
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    public void increment(String shortCode) {
+        long codeKey = ShortCodes.pack(shortCode);
+        if (codeKey != ShortCodes.INVALID) {
+            add(codeKey, 1);
+        }
+    }
+
+    public long pendingCount(String shortCode) {
+        long codeKey = ShortCodes.pack(shortCode);
+        long count = 0;
+        for (Stripe stripe : stripes) {
+            count += stripe.count(codeKey);
+        }
+        return count;
+    }
+
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${shortener.access-counter.flush-interval-ms:1000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            Map<Long, Long> deltas = new HashMap<>();
+            for (Stripe stripe : stripes) {
+                stripe.swap().forEach((codeKey, count) -> deltas.merge(codeKey, count.sum(), Long::sum));
+            }
+            if (deltas.isEmpty()) {
+                return;
+            }
+            try {
+                urlStore.addAccessCounts(deltas);
+                clearFlushing();
+            } catch (DataAccessException e) {
+                log.warn("Failed to flush {} access counters, retrying on next flush", deltas.size(), e);
+                // Cleared first so that pendingCount never sees the re-added counts twice
+                clearFlushing();
+                deltas.forEach(this::add);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void add(long codeKey, long delta) {
+        stripes[(int) Thread.currentThread().threadId() & (STRIPES - 1)].add(codeKey, delta);
+    }
+
+    private void clearFlushing() {
+        for (Stripe stripe : stripes) {
+            stripe.flushing = Map.of();
+        }
+    }
+
+    private static final class Stripe {
+        private final StampedLock swapLock = new StampedLock();
+
+        private volatile Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+        private volatile Map<Long, LongAdder> flushing = Map.of();
+
+        void add(long codeKey, long delta) {
+            long stamp = swapLock.readLock();
+            try {
+                pending.computeIfAbsent(codeKey, key -> new LongAdder()).add(delta);
+            } finally {
+                swapLock.unlockRead(stamp);
+            }
+        }
+
+        long count(long codeKey) {
+            long stamp = swapLock.readLock();
+            try {
+                LongAdder queued = pending.get(codeKey);
+                LongAdder inFlight = flushing.get(codeKey);
+                return (queued == null ? 0 : queued.sum()) + (inFlight == null ? 0 : inFlight.sum());
+            } finally {
+                swapLock.unlockRead(stamp);
+            }
+        }
+
+        Map<Long, LongAdder> swap() {
+            long stamp = swapLock.writeLock();
+            try {
+                Map<Long, LongAdder> batch = pending;
+                if (batch.isEmpty()) {
+                    return Map.of();
+                }
+                flushing = batch;
+                pending = new ConcurrentHashMap<>();
+                return batch;
+            } finally {
+                swapLock.unlockWrite(stamp);
+            }
+        }
+    }
+}
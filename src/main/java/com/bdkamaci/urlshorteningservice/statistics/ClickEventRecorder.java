@@ -0,0 +1,208 @@
+package com.bdkamaci.urlshorteningservice.statistics;
+
+import com.bdkamaci.urlshorteningservice.config.ClickProperties;
+import com.bdkamaci.urlshorteningservice.trending.TrendingTracker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Captures link resolutions as click events without touching the database on the request thread. Each resolution
+ * is counted in the {@link AccessCounter} and the {@link TrendingTracker} right away, so access counts survive a
+ * full queue, while the event goes through a bounded queue. When the queue is full, events are dropped, or with the
+ * {@code BLOCK} policy the caller waits up to the offer timeout first. A scheduled flush appends the drained events
+ * to {@code click_events}, adds them to per-code minute, hour and day buckets in {@code click_rollups} and hands the
+ * visitor, referrer and user agent to the {@link UrlSketches}.
+ */
+@Slf4j
+@Component
+public class ClickEventRecorder {
+    private static final String INSERT_EVENT_SQL = "insert into click_events (short_code, occurred_at) values (?, ?)";
+    private static final String UPSERT_ROLLUP_SQL = """
+            merge into click_rollups t
+            using (values (cast(? as varchar(255)), cast(? as varchar(8)), cast(? as timestamp), cast(? as bigint)))
+                s (short_code, granularity, bucket_start, clicks)
+            on t.short_code = s.short_code and t.granularity = s.granularity and t.bucket_start = s.bucket_start
+            when matched then update set t.clicks = t.clicks + s.clicks
+            when not matched then insert (short_code, granularity, bucket_start, clicks)
+                values (s.short_code, s.granularity, s.bucket_start, s.clicks)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AccessCounter accessCounter;
+    private final UrlSketches sketches;
+    private final TrendingTracker trendingTracker;
+    private final ClickProperties properties;
+    private final BlockingQueue<Click> queue;
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Counter recorded;
+    private final Counter dropped;
+    private final Timer flushTimer;
+
+    public ClickEventRecorder(JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              AccessCounter accessCounter,
+                              UrlSketches sketches,
+                              TrendingTracker trendingTracker,
+                              ClickProperties properties,
+                              MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.accessCounter = accessCounter;
+        this.sketches = sketches;
+        this.trendingTracker = trendingTracker;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.recorded = Counter.builder("shortener.clicks.recorded")
+                .description("Click events accepted into the event queue")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("shortener.clicks.dropped")
+                .description("Click events dropped because the event queue was full")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("shortener.clicks.flush")
+                .description("Time taken to persist a batch of click events and rollups")
+                .register(meterRegistry);
+        Gauge.builder("shortener.clicks.queue.size", queue, BlockingQueue::size)
+                .description("Click events waiting to be persisted")
+                .register(meterRegistry);
+    }
+
+    public void record(String shortCode, HttpServletRequest request) {
+        record(shortCode, request.getRemoteAddr(), request.getHeader(HttpHeaders.REFERER),
+                request.getHeader(HttpHeaders.USER_AGENT));
+    }
+
+    public void record(String shortCode, String clientAddress, String referrer, String userAgent) {
+        long now = System.currentTimeMillis();
+        accessCounter.increment(shortCode);
+        trendingTracker.record(shortCode, now);
+        if (offer(new Click(shortCode, now, clientAddress, referrer, userAgent))) {
+            recorded.increment();
+        } else {
+            dropped.increment();
+        }
+    }
+
+    public int queued() {
+        return queue.size();
+    }
+
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${shortener.clicks.flush-interval-ms:1000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            // Bounded by the backlog at the start, so events re-queued after a failed write wait for the next flush
+            int remaining = queue.size();
+            List<Click> batch = new ArrayList<>(Math.min(remaining, properties.getBatchSize()));
+            while (remaining > 0 && queue.drainTo(batch, Math.min(remaining, properties.getBatchSize())) > 0) {
+                remaining -= batch.size();
+                write(batch);
+                batch.clear();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${shortener.clicks.purge-interval-ms:3600000}",
+            fixedDelayString = "${shortener.clicks.purge-interval-ms:3600000}")
+    public void purge() {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            int events = jdbcTemplate.update("delete from click_events where occurred_at < ?",
+                    Timestamp.valueOf(now.minus(properties.getEventRetention())));
+            int minutes = purgeRollups(ClickGranularity.MINUTE, now.minus(properties.getMinuteRetention()));
+            int hours = purgeRollups(ClickGranularity.HOUR, now.minus(properties.getHourRetention()));
+            log.debug("Purged {} click events, {} minute and {} hour buckets", events, minutes, hours);
+        } catch (DataAccessException e) {
+            log.warn("Failed to purge expired click data", e);
+        }
+    }
+
+    private boolean offer(Click click) {
+        if (properties.getOverflowPolicy() == ClickProperties.OverflowPolicy.DROP) {
+            return queue.offer(click);
+        }
+        try {
+            return queue.offer(click, properties.getOfferTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void write(List<Click> batch) {
+        long start = System.nanoTime();
+        Map<Bucket, Long> buckets = new HashMap<>();
+        List<Object[]> events = new ArrayList<>(batch.size());
+        for (Click click : batch) {
+            LocalDateTime occurredAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(click.epochMillis()), ZoneId.systemDefault());
+            events.add(new Object[]{click.shortCode(), Timestamp.valueOf(occurredAt)});
+            for (ClickGranularity granularity : ClickGranularity.values()) {
+                buckets.merge(new Bucket(click.shortCode(), granularity, granularity.bucketOf(occurredAt)), 1L, Long::sum);
+            }
+        }
+        try {
+            List<Map.Entry<Bucket, Long>> rollups = new ArrayList<>(buckets.entrySet());
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(INSERT_EVENT_SQL, events);
+                jdbcTemplate.batchUpdate(UPSERT_ROLLUP_SQL, rollups, rollups.size(), (ps, entry) -> {
+                    ps.setString(1, entry.getKey().shortCode());
+                    ps.setString(2, entry.getKey().granularity().name());
+                    ps.setTimestamp(3, Timestamp.valueOf(entry.getKey().start()));
+                    ps.setLong(4, entry.getValue());
+                });
+            });
+            for (Click click : batch) {
+                String visitor = click.clientAddress() == null ? null : click.clientAddress() + '|' + click.userAgent();
+                sketches.add(click.shortCode(), visitor, click.referrer(), click.userAgent());
+            }
+        } catch (DataAccessException e) {
+            log.warn("Failed to persist {} click events, retrying on next flush", batch.size(), e);
+            for (Click click : batch) {
+                if (!queue.offer(click)) {
+                    dropped.increment();
+                }
+            }
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private int purgeRollups(ClickGranularity granularity, LocalDateTime before) {
+        return jdbcTemplate.update("delete from click_rollups where granularity = ? and bucket_start < ?",
+                granularity.name(), Timestamp.valueOf(before));
+    }
+
+    private record Click(String shortCode, long epochMillis, String clientAddress, String referrer, String userAgent) {
+    }
+
+    private record Bucket(String shortCode, ClickGranularity granularity, LocalDateTime start) {
+    }
+}
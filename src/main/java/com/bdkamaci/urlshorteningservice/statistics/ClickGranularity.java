@@ -0,0 +1,44 @@
+package com.bdkamaci.urlshorteningservice.statistics;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+
+public enum ClickGranularity {
+    MINUTE(ChronoUnit.MINUTES, Duration.ofHours(1)),
+    HOUR(ChronoUnit.HOURS, Duration.ofDays(1)),
+    DAY(ChronoUnit.DAYS, Duration.ofDays(30));
+
+    private final ChronoUnit unit;
+    private final Duration defaultWindow;
+
+    ClickGranularity(ChronoUnit unit, Duration defaultWindow) {
+        this.unit = unit;
+        this.defaultWindow = defaultWindow;
+    }
+
+    public LocalDateTime bucketOf(LocalDateTime time) {
+        return time.truncatedTo(unit);
+    }
+
+    public LocalDateTime next(LocalDateTime bucket) {
+        return bucket.plus(1, unit);
+    }
+
+    public long bucketsBetween(LocalDateTime from, LocalDateTime to) {
+        return unit.between(bucketOf(from), bucketOf(to)) + 1;
+    }
+
+    public Duration getDefaultWindow() {
+        return defaultWindow;
+    }
+
+    public String getValue() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public static ClickGranularity fromValue(String value) {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,194 @@
+package com.bdkamaci.urlshorteningservice.statistics;
+
+import com.bdkamaci.urlshorteningservice.config.SketchProperties;
+import com.bdkamaci.urlshorteningservice.model.UrlSketch;
+import com.bdkamaci.urlshorteningservice.repository.UrlSketchRepository;
+import com.bdkamaci.urlshorteningservice.statistics.sketch.HyperLogLog;
+import com.bdkamaci.urlshorteningservice.statistics.sketch.SpaceSaving;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-code unique visitor and heavy hitter sketches. Each instance only keeps the sketches of clicks it has seen
+ * since its last persist, which bounds memory by the number of recently clicked codes times a fixed sketch size.
+ * A periodic persist merges these deltas into {@code url_sketches} under a row lock, so sketches from any number
+ * of instances combine into one. Reads merge the stored sketch with the local delta.
+ */
+@Slf4j
+@Component
+public class UrlSketches {
+    static final String DIRECT = "(direct)";
+    static final String UNKNOWN = "(unknown)";
+
+    private final UrlSketchRepository repository;
+    private final SketchProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<String, Delta> pending = new ConcurrentHashMap<>();
+    private final Counter untracked;
+
+    public UrlSketches(UrlSketchRepository repository,
+                       SketchProperties properties,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.untracked = Counter.builder("shortener.sketches.untracked")
+                .description("Clicks left out of the sketches because too many codes were pending")
+                .register(meterRegistry);
+        Gauge.builder("shortener.sketches.pending", pending, Map::size)
+                .description("Codes with sketch updates waiting to be persisted")
+                .register(meterRegistry);
+    }
+
+    public void add(String shortCode, String visitor, String referrer, String userAgent) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        String referrerKey = referrerKey(referrer);
+        String userAgentKey = userAgent == null || userAgent.isBlank() ? UNKNOWN : truncate(userAgent.trim());
+        Delta updated = pending.compute(shortCode, (code, delta) -> {
+            if (delta == null) {
+                if (pending.size() >= properties.getMaxTrackedCodes()) {
+                    return null;
+                }
+                delta = new Delta(properties);
+            }
+            delta.add(visitor, referrerKey, userAgentKey);
+            return delta;
+        });
+        if (updated == null) {
+            untracked.increment();
+        }
+    }
+
+    public Summary summarize(String shortCode) {
+        Delta merged = new Delta(properties);
+        repository.findById(shortCode).ifPresent(stored -> merged.merge(decode(stored)));
+        Delta local = pending.get(shortCode);
+        if (local != null) {
+            synchronized (local) {
+                merged.merge(local);
+            }
+        }
+        return new Summary(merged.visitors.estimate(),
+                merged.referrers.top(properties.getTopN()),
+                merged.userAgents.top(properties.getTopN()));
+    }
+
+    @PreDestroy
+    @Scheduled(initialDelayString = "${shortener.sketches.persist-interval-ms:10000}",
+            fixedDelayString = "${shortener.sketches.persist-interval-ms:10000}")
+    public void persist() {
+        List<String> codes = new ArrayList<>(pending.keySet());
+        for (int from = 0; from < codes.size(); from += properties.getPersistBatchSize()) {
+            Map<String, Delta> batch = new LinkedHashMap<>();
+            for (String code : codes.subList(from, Math.min(from + properties.getPersistBatchSize(), codes.size()))) {
+                Delta delta = pending.remove(code);
+                if (delta != null) {
+                    batch.put(code, delta);
+                }
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> batch.forEach(this::mergeInto));
+            } catch (DataAccessException e) {
+                log.warn("Failed to persist sketches for {} codes, retrying on next persist", batch.size(), e);
+                batch.forEach((code, delta) -> pending.merge(code, delta, (current, failed) -> {
+                    synchronized (current) {
+                        current.merge(failed);
+                    }
+                    return current;
+                }));
+            }
+        }
+    }
+
+    private void mergeInto(String shortCode, Delta delta) {
+        Delta merged = repository.findForUpdate(shortCode).map(this::decode).orElseGet(() -> new Delta(properties));
+        merged.merge(delta);
+        repository.save(UrlSketch.builder()
+                .shortCode(shortCode)
+                .visitors(merged.visitors.toBytes())
+                .referrers(merged.referrers.toBytes())
+                .userAgents(merged.userAgents.toBytes())
+                .updatedAt(LocalDateTime.now())
+                .build());
+    }
+
+    private Delta decode(UrlSketch stored) {
+        return new Delta(HyperLogLog.fromBytes(stored.getVisitors()),
+                SpaceSaving.fromBytes(stored.getReferrers(), properties.getTopCapacity()),
+                SpaceSaving.fromBytes(stored.getUserAgents(), properties.getTopCapacity()));
+    }
+
+    private String referrerKey(String referrer) {
+        if (referrer == null || referrer.isBlank()) {
+            return DIRECT;
+        }
+        try {
+            String host = URI.create(referrer.trim()).getHost();
+            if (host != null) {
+                return truncate(host.toLowerCase(Locale.ROOT));
+            }
+        } catch (IllegalArgumentException e) {
+            // Not a valid URI, counted as sent
+        }
+        return truncate(referrer.trim());
+    }
+
+    private String truncate(String value) {
+        return value.length() <= properties.getMaxValueLength() ? value : value.substring(0, properties.getMaxValueLength());
+    }
+
+    public record Summary(long uniqueVisitors, List<SpaceSaving.Entry> topReferrers, List<SpaceSaving.Entry> topUserAgents) {
+    }
+
+    private static final class Delta {
+        private final HyperLogLog visitors;
+        private final SpaceSaving referrers;
+        private final SpaceSaving userAgents;
+
+        Delta(SketchProperties properties) {
+            this(new HyperLogLog(properties.getPrecision()),
+                    new SpaceSaving(properties.getTopCapacity()),
+                    new SpaceSaving(properties.getTopCapacity()));
+        }
+
+        Delta(HyperLogLog visitors, SpaceSaving referrers, SpaceSaving userAgents) {
+            this.visitors = visitors;
+            this.referrers = referrers;
+            this.userAgents = userAgents;
+        }
+
+        synchronized void add(String visitor, String referrer, String userAgent) {
+            if (visitor != null) {
+                visitors.add(visitor);
+            }
+            referrers.add(referrer);
+            userAgents.add(userAgent);
+        }
+
+        void merge(Delta other) {
+            visitors.merge(other.visitors);
+            referrers.merge(other.referrers);
+            userAgents.merge(other.userAgents);
+        }
+    }
+}
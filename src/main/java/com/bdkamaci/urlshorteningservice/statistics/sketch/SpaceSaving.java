@@ -0,0 +1,119 @@
+package com.bdkamaci.urlshorteningservice.statistics.sketch;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Space-Saving heavy hitter summary holding at most {@code capacity} counters. A new item that arrives when the
+ * summary is full takes over the smallest counter and inherits its count as error. Each reported count
+ * overestimates the true count by at most its error. Summaries merge following Agarwal et al.: an item missing
+ * from a full summary is assumed to have that summary's minimum count. Not thread-safe.
+ */
+public final class SpaceSaving {
+    private final int capacity;
+    private final Map<String, Entry> counters;
+
+    public SpaceSaving(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    public static SpaceSaving fromBytes(byte[] bytes, int capacity) {
+        SpaceSaving summary = new SpaceSaving(capacity);
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            int size = in.readInt();
+            List<Entry> entries = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                entries.add(new Entry(in.readUTF(), in.readLong(), in.readLong()));
+            }
+            summary.retainTop(entries);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt heavy hitter summary", e);
+        }
+        return summary;
+    }
+
+    public void add(String item) {
+        Entry entry = counters.get(item);
+        if (entry != null) {
+            counters.put(item, new Entry(item, entry.count() + 1, entry.error()));
+        } else if (counters.size() < capacity) {
+            counters.put(item, new Entry(item, 1, 0));
+        } else {
+            Entry smallest = min();
+            counters.remove(smallest.item());
+            counters.put(item, new Entry(item, smallest.count() + 1, smallest.count()));
+        }
+    }
+
+    public void merge(SpaceSaving other) {
+        long ownMin = isFull() ? min().count() : 0;
+        long otherMin = other.isFull() ? other.min().count() : 0;
+        Set<String> items = new HashSet<>(counters.keySet());
+        items.addAll(other.counters.keySet());
+        List<Entry> merged = new ArrayList<>(items.size());
+        for (String item : items) {
+            Entry own = counters.get(item);
+            Entry theirs = other.counters.get(item);
+            merged.add(new Entry(item,
+                    (own == null ? ownMin : own.count()) + (theirs == null ? otherMin : theirs.count()),
+                    (own == null ? ownMin : own.error()) + (theirs == null ? otherMin : theirs.error())));
+        }
+        retainTop(merged);
+    }
+
+    public List<Entry> top(int n) {
+        return counters.values().stream()
+                .sorted(Comparator.comparingLong(Entry::count).reversed().thenComparing(Entry::item))
+                .limit(n)
+                .toList();
+    }
+
+    public byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(counters.size());
+            for (Entry entry : counters.values()) {
+                out.writeUTF(entry.item());
+                out.writeLong(entry.count());
+                out.writeLong(entry.error());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private boolean isFull() {
+        return counters.size() >= capacity;
+    }
+
+    private Entry min() {
+        return counters.values().stream().min(Comparator.comparingLong(Entry::count)).orElseThrow();
+    }
+
+    private void retainTop(List<Entry> entries) {
+        entries.sort(Comparator.comparingLong(Entry::count).reversed());
+        counters.clear();
+        for (Entry entry : entries.subList(0, Math.min(capacity, entries.size()))) {
+            counters.put(entry.item(), entry);
+        }
+    }
+
+    public record Entry(String item, long count, long error) {
+    }
+}
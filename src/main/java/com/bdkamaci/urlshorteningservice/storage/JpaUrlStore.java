@@ -0,0 +1,230 @@
+package com.bdkamaci.urlshorteningservice.storage;
+
+import com.bdkamaci.urlshorteningservice.config.AccessCounterProperties;
+import com.bdkamaci.urlshorteningservice.dedup.UrlHashes;
+import com.bdkamaci.urlshorteningservice.export.ExportedUrl;
+import com.bdkamaci.urlshorteningservice.generator.ShortCodes;
+import com.bdkamaci.urlshorteningservice.model.ShortenedUrl;
+import com.bdkamaci.urlshorteningservice.repository.ShortenedUrlRepository;
+import com.bdkamaci.urlshorteningservice.repository.ShortenedUrlSpecifications;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Stores URLs in the {@code shortened_urls} table through JPA, with plain JDBC batches for the bulk writes that
+ * do not need entities. Redirect resolution and existence checks also bypass Hibernate: they read a single column
+ * with a prepared statement, so no entity is hydrated and no persistence context is opened.
+ * <p>
+ * {@link #saveIfAbsent} keeps deduplicated URLs unique through {@code url_hash_claims}: the new row and its claim
+ * commit together, and a caller whose claim loses rolls back and returns the winner instead.
+ */
+@Component
+@ConditionalOnProperty(name = "shortener.storage.type", havingValue = "jpa", matchIfMissing = true)
+public class JpaUrlStore implements UrlStore {
+    private static final String URL_SQL = "select url from shortened_urls where code_key = ?";
+    private static final String EXISTS_SQL = "select 1 from shortened_urls where code_key = ?";
+    private static final String ACCESS_COUNT_SQL =
+            "update shortened_urls set access_count = access_count + ? where code_key = ?";
+    private static final String CLAIM_SQL = "select code_key from url_hash_claims where url_hash = ?";
+    private static final String INSERT_CLAIM_SQL = "insert into url_hash_claims (url_hash, code_key) values (?, ?)";
+    private static final String MOVE_CLAIM_SQL =
+            "update url_hash_claims set code_key = ? where url_hash = ? and code_key = ?";
+    private static final int MAX_CLAIM_ATTEMPTS = 3;
+    private static final String UPSERT_SQL = """
+            merge into shortened_urls t
+            using (values (cast(? as varchar(255)), cast(? as bigint), cast(? as varchar(2048)), cast(? as varchar(64)),
+                           cast(? as timestamp), cast(? as timestamp), cast(? as bigint)))
+                s (short_code, code_key, url, url_hash, created_at, updated_at, access_count)
+            on t.short_code = s.short_code
+            when matched then update set t.code_key = s.code_key, t.url = s.url, t.url_hash = s.url_hash,
+                t.updated_at = s.updated_at
+            when not matched then insert (id, short_code, code_key, url, url_hash, created_at, updated_at, access_count)
+                values (next value for shortened_urls_seq, s.short_code, s.code_key, s.url, s.url_hash, s.created_at,
+                        s.updated_at, s.access_count)
+            """;
+
+    private final ShortenedUrlRepository repository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AccessCounterProperties accessCounterProperties;
+
+    public JpaUrlStore(ShortenedUrlRepository repository,
+                       JdbcTemplate jdbcTemplate,
+                       PlatformTransactionManager transactionManager,
+                       AccessCounterProperties accessCounterProperties) {
+        this.repository = repository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.accessCounterProperties = accessCounterProperties;
+    }
+
+    @Override
+    public Optional<ShortenedUrl> findByShortCode(String shortCode) {
+        return repository.findByShortCode(shortCode);
+    }
+
+    @Override
+    public Optional<String> findUrlByShortCode(String shortCode) {
+        return Optional.ofNullable(jdbcTemplate.query(URL_SQL,
+                rs -> rs.next() ? rs.getString(1) : null, ShortCodes.pack(shortCode)));
+    }
+
+    @Override
+    public List<ShortenedUrl> findByShortCodeIn(Collection<String> shortCodes) {
+        return repository.findByShortCodeIn(shortCodes);
+    }
+
+    @Override
+    public List<ShortenedUrl> findByUrlHash(String urlHash) {
+        return repository.findByUrlHash(urlHash);
+    }
+
+    @Override
+    public boolean existsByCodeKey(long codeKey) {
+        return Boolean.TRUE.equals(jdbcTemplate.query(EXISTS_SQL, ResultSet::next, codeKey));
+    }
+
+    @Override
+    public long count() {
+        return repository.count();
+    }
+
+    @Override
+    public List<ShortenedUrl> findPage(UrlPageQuery query) {
+        Specification<ShortenedUrl> specification = Specification.where(null);
+        if (query.afterId() != null) {
+            specification = specification.and(query.byCreatedAt()
+                    ? ShortenedUrlSpecifications.createdAfter(query.afterCreatedAt(), query.afterId())
+                    : ShortenedUrlSpecifications.idAfter(query.afterId()));
+        }
+        if (query.createdFrom() != null) {
+            specification = specification.and(ShortenedUrlSpecifications.createdFrom(query.createdFrom()));
+        }
+        if (query.createdTo() != null) {
+            specification = specification.and(ShortenedUrlSpecifications.createdBefore(query.createdTo()));
+        }
+        if (query.urlPrefix() != null && !query.urlPrefix().isEmpty()) {
+            specification = specification.and(ShortenedUrlSpecifications.urlStartsWith(query.urlPrefix()));
+        }
+        Sort sort = query.byCreatedAt() ? Sort.by("createdAt", "id") : Sort.by("id");
+        return repository.findBy(specification, fetch -> fetch.sortBy(sort).limit(query.limit()).all());
+    }
+
+    @Override
+    public List<ShortenedUrl> findMostAccessed(Limit limit) {
+        return repository.findMostAccessed(limit);
+    }
+
+    @Override
+    public List<ShortenedUrl> findMostAccessedAfter(long accessCount, long id, Limit limit) {
+        return repository.findMostAccessedAfter(accessCount, id, limit);
+    }
+
+    @Override
+    public List<ExportedUrl> findExportPage(long afterId, Limit limit) {
+        return repository.findExportPage(afterId, limit);
+    }
+
+    @Override
+    public Stream<String> streamAllShortCodes() {
+        return repository.streamAllShortCodes();
+    }
+
+    @Override
+    public ShortenedUrl save(ShortenedUrl url) {
+        return repository.save(url);
+    }
+
+    @Override
+    public ShortenedUrl saveIfAbsent(ShortenedUrl url) {
+        for (int attempt = 1; attempt <= MAX_CLAIM_ATTEMPTS; attempt++) {
+            Long claimedKey = jdbcTemplate.query(CLAIM_SQL, rs -> rs.next() ? rs.getLong(1) : null, url.getUrlHash());
+            Optional<ShortenedUrl> claimed = claimedKey == null ? Optional.empty()
+                    : UrlHashes.oldestMatch(repository.findByCodeKey(claimedKey).stream().toList(), url.getUrl());
+            if (claimed.isPresent()) {
+                return claimed.get();
+            }
+            // No claim, or its row was deleted or updated since: adopt a row saved without one before inserting
+            Optional<ShortenedUrl> unclaimed = UrlHashes.oldestMatch(findByUrlHash(url.getUrlHash()), url.getUrl());
+            ShortenedUrl saved = transactionTemplate.execute(status -> {
+                ShortenedUrl target = unclaimed.orElseGet(() -> repository.saveAndFlush(url));
+                if (claim(url.getUrlHash(), claimedKey, ShortCodes.pack(target.getShortCode()))) {
+                    return target;
+                }
+                status.setRollbackOnly();
+                return null;
+            });
+            if (saved != null) {
+                return saved;
+            }
+            // The rolled back insert left its sequence id on the entity
+            url.setId(null);
+        }
+        throw new ConcurrencyFailureException("URL hash claim kept changing: " + url.getUrlHash());
+    }
+
+    private boolean claim(String urlHash, Long claimedKey, long codeKey) {
+        if (claimedKey != null) {
+            return jdbcTemplate.update(MOVE_CLAIM_SQL, codeKey, urlHash, claimedKey) == 1;
+        }
+        try {
+            jdbcTemplate.update(INSERT_CLAIM_SQL, urlHash, codeKey);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public List<ShortenedUrl> saveAll(List<ShortenedUrl> urls) {
+        return repository.saveAll(urls);
+    }
+
+    @Override
+    public void delete(ShortenedUrl url) {
+        repository.delete(url);
+    }
+
+    @Override
+    public void upsertAll(List<ShortenedUrl> urls) {
+        if (urls.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, urls, urls.size(), (ps, url) -> {
+            ps.setString(1, url.getShortCode());
+            ps.setLong(2, ShortCodes.pack(url.getShortCode()));
+            ps.setString(3, url.getUrl());
+            ps.setString(4, url.getUrlHash());
+            ps.setTimestamp(5, Timestamp.valueOf(url.getCreatedAt()));
+            ps.setTimestamp(6, Timestamp.valueOf(url.getUpdatedAt()));
+            ps.setLong(7, url.getAccessCount());
+        });
+    }
+
+    @Override
+    public void addAccessCounts(Map<Long, Long> deltas) {
+        List<Map.Entry<Long, Long>> entries = new ArrayList<>(deltas.entrySet());
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+                ACCESS_COUNT_SQL, entries, accessCounterProperties.getBatchSize(), (ps, entry) -> {
+                    ps.setLong(1, entry.getValue());
+                    ps.setLong(2, entry.getKey());
+                }));
+    }
+}
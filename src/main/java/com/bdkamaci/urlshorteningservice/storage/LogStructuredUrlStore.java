@@ -0,0 +1,748 @@
+package com.bdkamaci.urlshorteningservice.storage;
+
+import com.bdkamaci.urlshorteningservice.config.StorageProperties;
+import com.bdkamaci.urlshorteningservice.dedup.UrlHashes;
+import com.bdkamaci.urlshorteningservice.export.ExportedUrl;
+import com.bdkamaci.urlshorteningservice.generator.ShortCodes;
+import com.bdkamaci.urlshorteningservice.model.ShortenedUrl;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Embedded key-value store built for this service's access pattern. Every write appends a record to the active
+ * {@link Segment}; an in-memory hash index maps each packed short code to the offset of its latest record, so a
+ * lookup is one hash probe and one read from a memory-mapped file. The index is rebuilt by replaying the segments on
+ * startup.
+ * <p>
+ * Writes are serialized by a single lock and made durable according to {@code shortener.storage.fsync}. Updates and
+ * deletes leave the older records behind as garbage; once enough of a contiguous run of sealed segments is garbage,
+ * compaction copies the run's live records into one new segment and drops the rest, without blocking readers or
+ * writers. Delete records are carried over unless the run starts at the oldest segment, since an older segment may
+ * still hold a record they delete.
+ * <p>
+ * Listing by creation time, the most accessed ranking and URL hash lookups scan the in-memory index, which suits an
+ * embedded deployment but not a table with tens of millions of rows.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shortener.storage.type", havingValue = "log")
+public class LogStructuredUrlStore implements UrlStore {
+    private static final Pattern SEGMENT_FILE = Pattern.compile("segment-(\\d+)\\.log");
+    private static final int MIN_SEGMENT_SIZE = 64 * 1024;
+    private static final int MAX_SEGMENT_SIZE = 1 << 30;
+    private static final Comparator<Location> MOST_ACCESSED = Comparator.comparingLong(Location::accessCount)
+            .thenComparingLong(Location::id)
+            .reversed();
+    private static final Comparator<ShortenedUrl> BY_CREATED_AT = Comparator.comparing(ShortenedUrl::getCreatedAt)
+            .thenComparing(ShortenedUrl::getId);
+
+    private final StorageProperties properties;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Object compactionLock = new Object();
+    private final Map<Long, Location> byCode = new ConcurrentHashMap<>();
+    private final NavigableMap<Long, Location> byId = new ConcurrentSkipListMap<>();
+    private final Map<Integer, long[]> byUrlHash = new ConcurrentHashMap<>();
+    private final NavigableMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private final Timer compactionTimer;
+
+    private volatile Segment active;
+    private long nextId = 1;
+
+    public LogStructuredUrlStore(StorageProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.compactionTimer = Timer.builder("shortener.storage.compaction")
+                .description("Time taken to compact the sealed store segments")
+                .register(meterRegistry);
+        Gauge.builder("shortener.storage.keys", byCode, Map::size)
+                .description("Short codes held in the embedded store")
+                .register(meterRegistry);
+        Gauge.builder("shortener.storage.segments", segments, Map::size)
+                .description("Segment files of the embedded store")
+                .register(meterRegistry);
+        Gauge.builder("shortener.storage.garbage", this, LogStructuredUrlStore::garbage)
+                .description("Bytes of superseded records awaiting compaction")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void open() {
+        long start = System.nanoTime();
+        try {
+            Files.createDirectories(directory());
+            List<Segment> opened = openSegments();
+            for (Segment segment : opened) {
+                nextId = Math.max(nextId, segment.nextId());
+                segment.recover(this::replay);
+                segments.put(segment.number(), segment);
+            }
+            Segment last = opened.isEmpty() ? null : opened.getLast();
+            active = last == null || last.isCompacted() ? createSegment(last == null ? 1 : last.number() + 1, 0) : last;
+        } catch (IOException e) {
+            close();
+            throw new UncheckedIOException("Embedded store could not be opened", e);
+        }
+        log.info("Embedded store opened with {} URLs in {} segments in {} ms", byCode.size(), segments.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private List<Segment> openSegments() throws IOException {
+        List<Segment> opened = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory(), "segment-*")) {
+            for (Path file : files) {
+                Matcher matcher = SEGMENT_FILE.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    opened.add(Segment.open(file, Long.parseLong(matcher.group(1))));
+                } else {
+                    // Output of a compaction that did not finish
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            opened.forEach(LogStructuredUrlStore::closeQuietly);
+            throw e;
+        }
+        opened.sort(Comparator.comparingLong(Segment::number));
+        List<Segment> compacted = opened.stream().filter(Segment::isCompacted).toList();
+        // The rest of a compacted run was merged into its last segment, but a crash may have kept it from being deleted
+        List<Segment> kept = new ArrayList<>(opened.size());
+        for (Segment segment : opened) {
+            if (compacted.stream().anyMatch(run -> run.mergedFrom() <= segment.number()
+                    && segment.number() < run.number())) {
+                closeQuietly(segment);
+                Files.deleteIfExists(segment.path());
+            } else {
+                kept.add(segment);
+            }
+        }
+        return kept;
+    }
+
+    private void replay(Segment segment, int offset, ByteBuffer record) {
+        long codeKey = UrlRecords.codeKey(record);
+        if (UrlRecords.type(record) == UrlRecords.PUT) {
+            long id = UrlRecords.id(record);
+            nextId = Math.max(nextId, id + 1);
+            String urlHash = UrlRecords.decodeUrlHash(record);
+            index(new Location(segment, offset, record.capacity(), codeKey, id, UrlRecords.accessCount(record),
+                    urlHash == null ? null : urlHash.hashCode()));
+        } else {
+            unindex(codeKey, segment, record.capacity());
+        }
+    }
+
+    @Override
+    public Optional<ShortenedUrl> findByShortCode(String shortCode) {
+        Location location = byCode.get(ShortCodes.pack(shortCode));
+        return location == null ? Optional.empty() : Optional.of(read(location));
+    }
+
+    @Override
+    public Optional<String> findUrlByShortCode(String shortCode) {
+        Location location = byCode.get(ShortCodes.pack(shortCode));
+        return location == null ? Optional.empty() : Optional.of(UrlRecords.decodeUrl(record(location)));
+    }
+
+    @Override
+    public List<ShortenedUrl> findByShortCodeIn(Collection<String> shortCodes) {
+        List<ShortenedUrl> urls = new ArrayList<>(shortCodes.size());
+        for (String shortCode : shortCodes) {
+            Location location = byCode.get(ShortCodes.pack(shortCode));
+            if (location != null) {
+                urls.add(read(location));
+            }
+        }
+        return urls;
+    }
+
+    @Override
+    public List<ShortenedUrl> findByUrlHash(String urlHash) {
+        long[] codeKeys = byUrlHash.get(urlHash.hashCode());
+        if (codeKeys == null) {
+            return List.of();
+        }
+        List<ShortenedUrl> urls = new ArrayList<>(codeKeys.length);
+        for (long codeKey : codeKeys) {
+            Location location = byCode.get(codeKey);
+            if (location != null) {
+                ShortenedUrl url = read(location);
+                if (urlHash.equals(url.getUrlHash())) {
+                    urls.add(url);
+                }
+            }
+        }
+        return urls;
+    }
+
+    @Override
+    public boolean existsByCodeKey(long codeKey) {
+        return byCode.containsKey(codeKey);
+    }
+
+    @Override
+    public long count() {
+        return byCode.size();
+    }
+
+    @Override
+    public List<ShortenedUrl> findPage(UrlPageQuery query) {
+        Predicate<ShortenedUrl> filter = url -> (query.createdFrom() == null
+                || !url.getCreatedAt().isBefore(query.createdFrom()))
+                && (query.createdTo() == null || url.getCreatedAt().isBefore(query.createdTo()))
+                && (query.urlPrefix() == null || url.getUrl().startsWith(query.urlPrefix()));
+        List<ShortenedUrl> page = new ArrayList<>(Math.min(query.limit(), 1024));
+        if (!query.byCreatedAt()) {
+            Collection<Location> candidates = query.afterId() == null
+                    ? byId.values() : byId.tailMap(query.afterId(), false).values();
+            for (Location location : candidates) {
+                ShortenedUrl url = read(location);
+                if (filter.test(url)) {
+                    page.add(url);
+                    if (page.size() == query.limit()) {
+                        break;
+                    }
+                }
+            }
+            return page;
+        }
+
+        // Keeps the smallest rows seen so far, with the largest on top to be evicted
+        PriorityQueue<ShortenedUrl> smallest = new PriorityQueue<>(BY_CREATED_AT.reversed());
+        for (Location location : byCode.values()) {
+            ShortenedUrl url = read(location);
+            boolean afterCursor = query.afterId() == null || url.getCreatedAt().isAfter(query.afterCreatedAt())
+                    || (url.getCreatedAt().isEqual(query.afterCreatedAt()) && url.getId() > query.afterId());
+            if (afterCursor && filter.test(url)) {
+                smallest.add(url);
+                if (smallest.size() > query.limit()) {
+                    smallest.poll();
+                }
+            }
+        }
+        page.addAll(smallest);
+        page.sort(BY_CREATED_AT);
+        return page;
+    }
+
+    @Override
+    public List<ShortenedUrl> findMostAccessed(Limit limit) {
+        return mostAccessed(location -> true, limit);
+    }
+
+    @Override
+    public List<ShortenedUrl> findMostAccessedAfter(long accessCount, long id, Limit limit) {
+        return mostAccessed(location -> location.accessCount() < accessCount
+                || (location.accessCount() == accessCount && location.id() < id), limit);
+    }
+
+    private List<ShortenedUrl> mostAccessed(Predicate<Location> filter, Limit limit) {
+        int max = limit.isLimited() ? limit.max() : Integer.MAX_VALUE;
+        PriorityQueue<Location> top = new PriorityQueue<>(MOST_ACCESSED.reversed());
+        for (Location location : byCode.values()) {
+            if (filter.test(location)) {
+                top.add(location);
+                if (top.size() > max) {
+                    top.poll();
+                }
+            }
+        }
+        return top.stream().sorted(MOST_ACCESSED).map(this::read).toList();
+    }
+
+    @Override
+    public List<ExportedUrl> findExportPage(long afterId, Limit limit) {
+        int max = limit.isLimited() ? limit.max() : Integer.MAX_VALUE;
+        List<ExportedUrl> page = new ArrayList<>(Math.min(max, 1024));
+        for (Location location : byId.tailMap(afterId, false).values()) {
+            ShortenedUrl url = read(location);
+            page.add(new ExportedUrl(url.getId(), url.getShortCode(), url.getUrl(), url.getCreatedAt(),
+                    url.getUpdatedAt(), url.getAccessCount()));
+            if (page.size() == max) {
+                break;
+            }
+        }
+        return page;
+    }
+
+    @Override
+    public Stream<String> streamAllShortCodes() {
+        return byCode.keySet().stream().map(ShortCodes::unpack);
+    }
+
+    @Override
+    public ShortenedUrl save(ShortenedUrl url) {
+        writeLock.lock();
+        try {
+            long codeKey = codeKey(url);
+            Location existing = byCode.get(codeKey);
+            if (url.getId() == null) {
+                if (existing != null) {
+                    throw new DuplicateKeyException("Short code already exists: " + url.getShortCode());
+                }
+                url.setId(nextId++);
+            } else if (existing != null) {
+                url.setAccessCount(existing.accessCount());
+            }
+            url.setCodeKey(codeKey);
+            append(url);
+            syncIfRequired();
+            return url;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public ShortenedUrl saveIfAbsent(ShortenedUrl url) {
+        // Only this process writes the segments, so checking under the write lock keeps the URL unique
+        writeLock.lock();
+        try {
+            return UrlHashes.oldestMatch(findByUrlHash(url.getUrlHash()), url.getUrl())
+                    .orElseGet(() -> save(url));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public List<ShortenedUrl> saveAll(List<ShortenedUrl> urls) {
+        writeLock.lock();
+        try {
+            // Checked up front so a conflict leaves nothing of the batch behind
+            Set<Long> inserted = new HashSet<>();
+            long[] codeKeys = new long[urls.size()];
+            for (int i = 0; i < urls.size(); i++) {
+                ShortenedUrl url = urls.get(i);
+                codeKeys[i] = codeKey(url);
+                if (url.getId() == null && (byCode.containsKey(codeKeys[i]) || !inserted.add(codeKeys[i]))) {
+                    throw new DuplicateKeyException("Short code already exists: " + url.getShortCode());
+                }
+            }
+            for (int i = 0; i < urls.size(); i++) {
+                ShortenedUrl url = urls.get(i);
+                Location existing = byCode.get(codeKeys[i]);
+                if (url.getId() == null) {
+                    url.setId(nextId++);
+                } else if (existing != null) {
+                    url.setAccessCount(existing.accessCount());
+                }
+                url.setCodeKey(codeKeys[i]);
+                append(url);
+            }
+            syncIfRequired();
+            return urls;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void delete(ShortenedUrl url) {
+        writeLock.lock();
+        try {
+            long codeKey = ShortCodes.pack(url.getShortCode());
+            if (byCode.containsKey(codeKey)) {
+                ByteBuffer record = UrlRecords.delete(codeKey);
+                int length = record.remaining();
+                Segment segment = writable(length);
+                segment.append(record);
+                unindex(codeKey, segment, length);
+                syncIfRequired();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void upsertAll(List<ShortenedUrl> urls) {
+        writeLock.lock();
+        try {
+            for (ShortenedUrl url : urls) {
+                long codeKey = codeKey(url);
+                Location existing = byCode.get(codeKey);
+                ShortenedUrl stored;
+                if (existing == null) {
+                    stored = url;
+                    stored.setId(nextId++);
+                } else {
+                    stored = read(existing);
+                    stored.setUrl(url.getUrl());
+                    stored.setUrlHash(url.getUrlHash());
+                    stored.setUpdatedAt(url.getUpdatedAt());
+                }
+                stored.setCodeKey(codeKey);
+                append(stored);
+            }
+            syncIfRequired();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void addAccessCounts(Map<Long, Long> deltas) {
+        writeLock.lock();
+        try {
+            List<ShortenedUrl> updated = new ArrayList<>(deltas.size());
+            List<ByteBuffer> records = new ArrayList<>(deltas.size());
+            long size = 0;
+            for (Map.Entry<Long, Long> delta : deltas.entrySet()) {
+                Location location = byCode.get(delta.getKey());
+                if (location != null) {
+                    ShortenedUrl url = read(location);
+                    url.setAccessCount(url.getAccessCount() + delta.getValue());
+                    ByteBuffer record = UrlRecords.put(url);
+                    updated.add(url);
+                    records.add(record);
+                    size += record.remaining();
+                }
+            }
+            // Room for the whole batch is made up front, as a failed roll halfway would have the caller re-add
+            // deltas that were already written
+            if (size > MAX_SEGMENT_SIZE - Segment.HEADER_SIZE) {
+                throw new DataAccessResourceFailureException("Access count batch of " + size
+                        + " bytes does not fit in one segment");
+            }
+            writable(size);
+            for (int i = 0; i < updated.size(); i++) {
+                append(updated.get(i), records.get(i));
+            }
+            syncIfRequired();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private static long codeKey(ShortenedUrl url) {
+        long codeKey = ShortCodes.pack(url.getShortCode());
+        if (codeKey == ShortCodes.INVALID) {
+            throw new DataIntegrityViolationException("Short code cannot be stored: " + url.getShortCode());
+        }
+        return codeKey;
+    }
+
+    private void append(ShortenedUrl url) {
+        append(url, UrlRecords.put(url));
+    }
+
+    private void append(ShortenedUrl url, ByteBuffer record) {
+        int length = record.remaining();
+        Segment segment = writable(length);
+        int offset = segment.append(record);
+        index(new Location(segment, offset, length, url.getCodeKey(), url.getId(), url.getAccessCount(),
+                url.getUrlHash() == null ? null : url.getUrlHash().hashCode()));
+    }
+
+    private Segment writable(long length) {
+        if (active.remaining() < length) {
+            try {
+                if (properties.getFsync() != StorageProperties.FsyncPolicy.NEVER) {
+                    active.force();
+                }
+                active = createSegment(active.number() + 1, length);
+            } catch (IOException e) {
+                throw new DataAccessResourceFailureException("Embedded store segment could not be created", e);
+            }
+        }
+        return active;
+    }
+
+    private Segment createSegment(long number, long minimumData) throws IOException {
+        long requested = Math.max(properties.getSegmentSize().toBytes(), Segment.HEADER_SIZE + minimumData);
+        int size = (int) Math.clamp(requested, MIN_SEGMENT_SIZE, MAX_SEGMENT_SIZE);
+        Segment segment = Segment.create(segmentPath(number), number, size, false, number, nextId);
+        segments.put(number, segment);
+        return segment;
+    }
+
+    private void syncIfRequired() {
+        if (properties.getFsync() == StorageProperties.FsyncPolicy.ALWAYS) {
+            active.force();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shortener.storage.fsync-interval-ms:1000}")
+    public void sync() {
+        Segment segment = active;
+        if (properties.getFsync() == StorageProperties.FsyncPolicy.INTERVAL && segment != null) {
+            segment.force();
+        }
+    }
+
+    private void index(Location location) {
+        Location previous = byCode.put(location.codeKey(), location);
+        if (previous != null) {
+            previous.segment().addGarbage(previous.length());
+            byId.remove(previous.id(), previous);
+            if (!previous.hasSameUrlHash(location)) {
+                unindexUrlHash(previous);
+            }
+        }
+        byId.put(location.id(), location);
+        if (location.urlHashCode() != null && (previous == null || !previous.hasSameUrlHash(location))) {
+            byUrlHash.merge(location.urlHashCode(), new long[]{location.codeKey()}, (codeKeys, added) -> {
+                long[] merged = Arrays.copyOf(codeKeys, codeKeys.length + 1);
+                merged[codeKeys.length] = added[0];
+                return merged;
+            });
+        }
+    }
+
+    private void unindex(long codeKey, Segment tombstoneSegment, int tombstoneLength) {
+        tombstoneSegment.addTombstone(tombstoneLength);
+        Location previous = byCode.remove(codeKey);
+        if (previous != null) {
+            previous.segment().addGarbage(previous.length());
+            byId.remove(previous.id(), previous);
+            unindexUrlHash(previous);
+        }
+    }
+
+    private void unindexUrlHash(Location location) {
+        if (location.urlHashCode() == null) {
+            return;
+        }
+        byUrlHash.computeIfPresent(location.urlHashCode(), (hashCode, codeKeys) -> {
+            long[] remaining = Arrays.stream(codeKeys).filter(codeKey -> codeKey != location.codeKey()).toArray();
+            return remaining.length == 0 ? null : remaining;
+        });
+    }
+
+    /**
+     * Merges the contiguous run of sealed segments with the most reclaimable bytes into one, if enough of the run is
+     * garbage. Returns whether a compaction ran.
+     */
+    @Scheduled(fixedDelayString = "${shortener.storage.compaction-check-interval-ms:60000}")
+    public boolean compact() {
+        synchronized (compactionLock) {
+            List<Segment> sealed;
+            writeLock.lock();
+            try {
+                sealed = new ArrayList<>(segments.headMap(active.number(), false).values());
+            } finally {
+                writeLock.unlock();
+            }
+
+            Run run = selectRun(sealed);
+            if (run == null) {
+                return false;
+            }
+            List<Segment> merged = sealed.subList(run.from(), run.to() + 1);
+            long start = System.nanoTime();
+            try {
+                rewrite(merged, run.from() == 0);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Embedded store compaction failed", e);
+                return false;
+            } finally {
+                compactionTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+            log.info("Compacted {} store segments, reclaiming {} bytes in {} ms", merged.size(), run.reclaimable(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return true;
+        }
+    }
+
+    /**
+     * Tombstones only count as reclaimable in a run that starts at the oldest segment, so a run whose garbage is
+     * nothing but tombstones it has to keep is never picked again and again.
+     */
+    private Run selectRun(List<Segment> sealed) {
+        Run best = null;
+        for (int from = 0; from < sealed.size(); from++) {
+            long data = 0;
+            long reclaimable = 0;
+            for (int to = from; to < sealed.size(); to++) {
+                Segment segment = sealed.get(to);
+                long segmentReclaimable = segment.garbage() + (from == 0 ? segment.tombstones() : 0);
+                long live = data - reclaimable + segment.dataSize() - segmentReclaimable;
+                if (to > from && live > MAX_SEGMENT_SIZE - Segment.HEADER_SIZE) {
+                    break;
+                }
+                data += segment.dataSize();
+                reclaimable += segmentReclaimable;
+                if (data > 0 && (double) reclaimable / data >= properties.getCompactionGarbageRatio()
+                        && (best == null || reclaimable > best.reclaimable())) {
+                    best = new Run(from, to, reclaimable);
+                }
+            }
+        }
+        return best;
+    }
+
+    private void rewrite(List<Segment> merged, boolean dropTombstones) throws IOException {
+        Set<Segment> mergedSet = Set.copyOf(merged);
+        // Writes only ever go to the active segment, so no record in the merged ones changes while they are copied
+        List<Location> moving = byCode.values().stream()
+                .filter(location -> mergedSet.contains(location.segment()))
+                .toList();
+        List<ByteBuffer> tombstones = dropTombstones ? List.of() : tombstonesToKeep(merged);
+        long size = Segment.HEADER_SIZE + moving.stream().mapToLong(Location::length).sum()
+                + tombstones.stream().mapToLong(ByteBuffer::remaining).sum();
+        Segment first = merged.getFirst();
+        Segment last = merged.getLast();
+        Path temporary = directory().resolve(segmentPath(last.number()).getFileName() + ".compact");
+        Files.deleteIfExists(temporary);
+        Segment compacted = Segment.create(temporary, last.number(), Math.toIntExact(size), true, first.number(),
+                nextId);
+        List<Location> moved = new ArrayList<>(moving.size());
+        try {
+            for (Location location : moving) {
+                int offset = compacted.append(record(location));
+                moved.add(location.movedTo(compacted, offset));
+            }
+            for (ByteBuffer tombstone : tombstones) {
+                compacted.addTombstone(tombstone.remaining());
+                compacted.append(tombstone);
+            }
+            compacted.force();
+            compacted.moveTo(segmentPath(last.number()));
+        } catch (IOException | RuntimeException e) {
+            closeQuietly(compacted);
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+
+        writeLock.lock();
+        try {
+            for (int i = 0; i < moving.size(); i++) {
+                Location from = moving.get(i);
+                Location to = moved.get(i);
+                if (byCode.replace(from.codeKey(), from, to)) {
+                    byId.replace(from.id(), from, to);
+                } else {
+                    // Overwritten or deleted while being copied
+                    compacted.addGarbage(to.length());
+                }
+            }
+            merged.forEach(segment -> segments.remove(segment.number()));
+            segments.put(compacted.number(), compacted);
+        } finally {
+            writeLock.unlock();
+        }
+
+        for (Segment segment : merged) {
+            closeQuietly(segment);
+            if (segment != last) {
+                Files.deleteIfExists(segment.path());
+            }
+        }
+    }
+
+    /**
+     * The latest delete record of each code in the run that is still deleted. A code stored again since is shadowed
+     * by its newer record anyway.
+     */
+    private List<ByteBuffer> tombstonesToKeep(List<Segment> merged) {
+        Map<Long, ByteBuffer> tombstones = new HashMap<>();
+        for (Segment segment : merged) {
+            segment.forEachRecord((owner, offset, record) -> {
+                if (UrlRecords.type(record) != UrlRecords.PUT) {
+                    tombstones.put(UrlRecords.codeKey(record), record);
+                } else {
+                    tombstones.remove(UrlRecords.codeKey(record));
+                }
+            });
+        }
+        tombstones.keySet().removeIf(byCode::containsKey);
+        return new ArrayList<>(tombstones.values());
+    }
+
+    private ShortenedUrl read(Location location) {
+        return UrlRecords.decode(record(location));
+    }
+
+    private static ByteBuffer record(Location location) {
+        return location.segment().read(location.offset(), location.length());
+    }
+
+    @PreDestroy
+    public void close() {
+        writeLock.lock();
+        try {
+            if (active != null) {
+                active.force();
+            }
+            segments.values().forEach(LogStructuredUrlStore::closeQuietly);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private long garbage() {
+        return segments.values().stream().mapToLong(segment -> segment.garbage() + segment.tombstones()).sum();
+    }
+
+    private Path directory() {
+        return Path.of(properties.getDirectory());
+    }
+
+    private Path segmentPath(long number) {
+        return directory().resolve("segment-" + number + ".log");
+    }
+
+    private static void closeQuietly(Segment segment) {
+        try {
+            segment.close();
+        } catch (IOException e) {
+            log.debug("Closing store segment failed", e);
+        }
+    }
+
+    private record Run(int from, int to, long reclaimable) {
+    }
+
+    /**
+     * Where the latest record of a short code lives, with the fields the scans order by.
+     */
+    private record Location(Segment segment, int offset, int length, long codeKey, long id, long accessCount,
+                            Integer urlHashCode) {
+        Location movedTo(Segment target, int targetOffset) {
+            return new Location(target, targetOffset, length, codeKey, id, accessCount, urlHashCode);
+        }
+
+        boolean hasSameUrlHash(Location other) {
+            return Objects.equals(urlHashCode, other.urlHashCode);
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.bdkamaci.urlshorteningservice.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One file of the {@link LogStructuredUrlStore}, preallocated and mapped read-write as a whole. Records are only
+ * appended, under the store's write lock; readers slice the mapping at offsets published through the store's
+ * index and need no locking. The mapping stays readable after the file is closed or deleted, so a reader holding an
+ * offset into a compacted segment still gets its record.
+ * <p>
+ * A segment written by compaction is flagged in its header, together with the first number of the run of segments
+ * it replaced. It takes the number of the run's last segment and holds everything that was live in the run; the rest
+ * of the run is deleted once it is in place.
+ */
+final class Segment implements Closeable {
+    static final int HEADER_SIZE = 24;
+    private static final int MAGIC = 0x55524c53;
+    private static final int VERSION = 1;
+    private static final int FLAG_COMPACTED = 1;
+
+    private final long number;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final boolean compacted;
+    private final long mergedFrom;
+    private final long nextId;
+    private final AtomicLong garbage = new AtomicLong();
+    private final AtomicLong tombstones = new AtomicLong();
+
+    private volatile Path path;
+    private volatile int writePosition = HEADER_SIZE;
+    private int syncedPosition = HEADER_SIZE;
+
+    private Segment(long number, Path path, FileChannel channel, MappedByteBuffer buffer) {
+        this.number = number;
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.compacted = (buffer.getInt(8) & FLAG_COMPACTED) != 0;
+        this.mergedFrom = number - buffer.getInt(12);
+        this.nextId = buffer.getLong(16);
+    }
+
+    /**
+     * Creates a segment that records the store's next id, since compaction drops the records of deleted ids. A
+     * segment written by compaction passes the first number of the run it replaces; others pass their own number.
+     */
+    static Segment create(Path path, long number, int capacity, boolean compacted, long mergedFrom, long nextId)
+            throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            buffer.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, compacted ? FLAG_COMPACTED : 0)
+                    .putInt(12, Math.toIntExact(number - mergedFrom)).putLong(16, nextId);
+            buffer.force(0, HEADER_SIZE);
+            return new Segment(number, path, channel, buffer);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    static Segment open(Path path, long number) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                throw new IOException("Invalid store segment size " + size + ": " + path);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("Not a store segment: " + path);
+            }
+            return new Segment(number, path, channel, buffer);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Walks the records from the start and leaves the write position after the last intact one. A record torn by a
+     * crash is zeroed, so a shorter record written over it later is not followed by its remains.
+     */
+    void recover(RecordVisitor visitor) {
+        int capacity = buffer.capacity();
+        int position = HEADER_SIZE;
+        while (capacity - position >= UrlRecords.HEADER_SIZE) {
+            ByteBuffer remaining = buffer.slice(position, capacity - position);
+            if (!UrlRecords.isValid(remaining)) {
+                int length = remaining.getInt(0);
+                if (length != 0) {
+                    int end = length < 0 || length > capacity - position - UrlRecords.HEADER_SIZE
+                            ? capacity : position + UrlRecords.HEADER_SIZE + length;
+                    clear(position, end);
+                }
+                break;
+            }
+            int length = UrlRecords.length(remaining);
+            visitor.visit(this, position, buffer.slice(position, length));
+            position += length;
+        }
+        writePosition = position;
+        syncedPosition = position;
+    }
+
+    /**
+     * Visits the records appended so far, oldest first.
+     */
+    void forEachRecord(RecordVisitor visitor) {
+        int end = writePosition;
+        int position = HEADER_SIZE;
+        while (position < end) {
+            int length = UrlRecords.length(buffer.slice(position, end - position));
+            visitor.visit(this, position, buffer.slice(position, length));
+            position += length;
+        }
+    }
+
+    private void clear(int from, int to) {
+        byte[] zeros = new byte[Math.min(to - from, 64 * 1024)];
+        for (int position = from; position < to; position += zeros.length) {
+            buffer.put(position, zeros, 0, Math.min(zeros.length, to - position));
+        }
+    }
+
+    long number() {
+        return number;
+    }
+
+    Path path() {
+        return path;
+    }
+
+    long nextId() {
+        return nextId;
+    }
+
+    boolean isCompacted() {
+        return compacted;
+    }
+
+    /**
+     * The first number of the run of segments this one replaced, or its own number when it was not compacted.
+     */
+    long mergedFrom() {
+        return mergedFrom;
+    }
+
+    int remaining() {
+        return buffer.capacity() - writePosition;
+    }
+
+    /**
+     * Bytes of records written so far, live or not.
+     */
+    long dataSize() {
+        return writePosition - HEADER_SIZE;
+    }
+
+    long garbage() {
+        return garbage.get();
+    }
+
+    void addGarbage(long bytes) {
+        garbage.addAndGet(bytes);
+    }
+
+    /**
+     * Bytes of delete records. They can only be dropped by a compaction that starts at the oldest segment, since an
+     * older segment may still hold a record they delete.
+     */
+    long tombstones() {
+        return tombstones.get();
+    }
+
+    void addTombstone(long bytes) {
+        tombstones.addAndGet(bytes);
+    }
+
+    /**
+     * Appends a record and returns its offset. The caller checks {@link #remaining()} first.
+     */
+    int append(ByteBuffer record) {
+        int offset = writePosition;
+        int length = record.remaining();
+        buffer.put(offset, record, record.position(), length);
+        writePosition = offset + length;
+        return offset;
+    }
+
+    ByteBuffer read(int offset, int length) {
+        return buffer.slice(offset, length);
+    }
+
+    /**
+     * Flushes the records appended since the last call to disk.
+     */
+    synchronized void force() {
+        int end = writePosition;
+        if (end > syncedPosition) {
+            buffer.force(syncedPosition, end - syncedPosition);
+            syncedPosition = end;
+        }
+    }
+
+    void moveTo(Path target) throws IOException {
+        Files.move(path, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        path = target;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    @FunctionalInterface
+    interface RecordVisitor {
+        void visit(Segment segment, int offset, ByteBuffer record);
+    }
+}
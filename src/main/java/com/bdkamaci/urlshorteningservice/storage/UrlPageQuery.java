@@ -0,0 +1,17 @@
+package com.bdkamaci.urlshorteningservice.storage;
+
+import java.time.LocalDateTime;
+
+/**
+ * One keyset page of the URL listing, ordered by {@code (createdAt, id)} or by {@code id} alone. The {@code after}
+ * values come from the last row of the previous page; {@code afterCreatedAt} is only used when sorting by creation
+ * time. Every other field is an optional filter.
+ */
+public record UrlPageQuery(boolean byCreatedAt,
+                           LocalDateTime afterCreatedAt,
+                           Long afterId,
+                           LocalDateTime createdFrom,
+                           LocalDateTime createdTo,
+                           String urlPrefix,
+                           int limit) {
+}
@@ -0,0 +1,161 @@
+package com.bdkamaci.urlshorteningservice.storage;
+
+import com.bdkamaci.urlshorteningservice.model.ShortenedUrl;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary layout of the records in a {@link Segment}: a length and a CRC32C of the body, followed by the body. A put
+ * carries the whole URL; a delete only the packed short code.
+ * <pre>
+ * int length | int crc | byte type | long codeKey
+ *     [put] long id | long createdAt | long updatedAt | long accessCount | code | url | urlHash
+ * </pre>
+ * Timestamps are microseconds since the epoch; strings are UTF-8 with a one byte length, or two bytes for the URL.
+ */
+final class UrlRecords {
+    static final int HEADER_SIZE = 8;
+    static final byte PUT = 1;
+    static final byte DELETE = 2;
+
+    private static final int TYPE = HEADER_SIZE;
+    private static final int CODE_KEY = TYPE + 1;
+    private static final int ID = CODE_KEY + 8;
+    private static final int CREATED_AT = ID + 8;
+    private static final int UPDATED_AT = CREATED_AT + 8;
+    private static final int ACCESS_COUNT = UPDATED_AT + 8;
+    private static final int STRINGS = ACCESS_COUNT + 8;
+
+    private UrlRecords() {
+    }
+
+    static ByteBuffer put(ShortenedUrl url) {
+        byte[] code = url.getShortCode().getBytes(StandardCharsets.UTF_8);
+        byte[] target = url.getUrl().getBytes(StandardCharsets.UTF_8);
+        byte[] urlHash = url.getUrlHash() == null ? new byte[0] : url.getUrlHash().getBytes(StandardCharsets.UTF_8);
+        if (code.length > 0xff || target.length > 0xffff || urlHash.length > 0xff) {
+            throw new IllegalArgumentException("URL is too long to store: " + url.getShortCode());
+        }
+        ByteBuffer record = ByteBuffer.allocate(STRINGS + 4 + code.length + target.length + urlHash.length)
+                .putInt(0)
+                .putInt(0)
+                .put(PUT)
+                .putLong(url.getCodeKey())
+                .putLong(url.getId())
+                .putLong(toMicros(url.getCreatedAt()))
+                .putLong(toMicros(url.getUpdatedAt()))
+                .putLong(url.getAccessCount() == null ? 0 : url.getAccessCount())
+                .put((byte) code.length)
+                .put(code)
+                .putChar((char) target.length)
+                .put(target)
+                .put((byte) urlHash.length)
+                .put(urlHash);
+        return seal(record.flip());
+    }
+
+    static ByteBuffer delete(long codeKey) {
+        ByteBuffer record = ByteBuffer.allocate(CODE_KEY + 8)
+                .putInt(0)
+                .putInt(0)
+                .put(DELETE)
+                .putLong(codeKey);
+        return seal(record.flip());
+    }
+
+    private static ByteBuffer seal(ByteBuffer record) {
+        int length = record.remaining() - HEADER_SIZE;
+        record.putInt(0, length);
+        record.putInt(4, checksum(record, length));
+        return record;
+    }
+
+    /**
+     * Returns whether a complete, uncorrupted record starts at the beginning of the buffer.
+     */
+    static boolean isValid(ByteBuffer record) {
+        int length = record.getInt(0);
+        return length > 0 && length <= record.capacity() - HEADER_SIZE && record.getInt(4) == checksum(record, length);
+    }
+
+    private static int checksum(ByteBuffer record, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(record.slice(HEADER_SIZE, length));
+        return (int) crc.getValue();
+    }
+
+    static int length(ByteBuffer record) {
+        return HEADER_SIZE + record.getInt(0);
+    }
+
+    static byte type(ByteBuffer record) {
+        return record.get(TYPE);
+    }
+
+    static long codeKey(ByteBuffer record) {
+        return record.getLong(CODE_KEY);
+    }
+
+    static long id(ByteBuffer record) {
+        return record.getLong(ID);
+    }
+
+    static long accessCount(ByteBuffer record) {
+        return record.getLong(ACCESS_COUNT);
+    }
+
+    static ShortenedUrl decode(ByteBuffer record) {
+        int position = STRINGS;
+        int codeLength = record.get(position) & 0xff;
+        String code = string(record, position + 1, codeLength);
+        position += 1 + codeLength;
+        int urlLength = record.getChar(position);
+        String url = string(record, position + 2, urlLength);
+        position += 2 + urlLength;
+        int urlHashLength = record.get(position) & 0xff;
+        return ShortenedUrl.builder()
+                .id(record.getLong(ID))
+                .shortCode(code)
+                .codeKey(record.getLong(CODE_KEY))
+                .url(url)
+                .urlHash(urlHashLength == 0 ? null : string(record, position + 1, urlHashLength))
+                .createdAt(fromMicros(record.getLong(CREATED_AT)))
+                .updatedAt(fromMicros(record.getLong(UPDATED_AT)))
+                .accessCount(record.getLong(ACCESS_COUNT))
+                .build();
+    }
+
+    /**
+     * Reads only the target URL, which is all a redirect needs.
+     */
+    static String decodeUrl(ByteBuffer record) {
+        int position = STRINGS + 1 + (record.get(STRINGS) & 0xff);
+        return string(record, position + 2, record.getChar(position));
+    }
+
+    static String decodeUrlHash(ByteBuffer record) {
+        int position = STRINGS + 1 + (record.get(STRINGS) & 0xff);
+        position += 2 + record.getChar(position);
+        int length = record.get(position) & 0xff;
+        return length == 0 ? null : string(record, position + 1, length);
+    }
+
+    private static String string(ByteBuffer record, int position, int length) {
+        byte[] bytes = new byte[length];
+        record.get(position, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long toMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+}
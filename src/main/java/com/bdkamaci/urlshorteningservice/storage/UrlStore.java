@@ -0,0 +1,77 @@
+package com.bdkamaci.urlshorteningservice.storage;
+
+import com.bdkamaci.urlshorteningservice.export.ExportedUrl;
+import com.bdkamaci.urlshorteningservice.model.ShortenedUrl;
+import org.springframework.data.domain.Limit;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Persistence backend for shortened URLs, selected with {@code shortener.storage.type}. Implementations report
+ * failures as Spring {@link org.springframework.dao.DataAccessException}s; inserting a short code that is already
+ * taken raises a {@link org.springframework.dao.DataIntegrityViolationException}.
+ */
+public interface UrlStore {
+    Optional<ShortenedUrl> findByShortCode(String shortCode);
+
+    Optional<String> findUrlByShortCode(String shortCode);
+
+    List<ShortenedUrl> findByShortCodeIn(Collection<String> shortCodes);
+
+    List<ShortenedUrl> findByUrlHash(String urlHash);
+
+    boolean existsByCodeKey(long codeKey);
+
+    long count();
+
+    List<ShortenedUrl> findPage(UrlPageQuery query);
+
+    /**
+     * Most accessed URLs first, ties broken by descending id.
+     */
+    List<ShortenedUrl> findMostAccessed(Limit limit);
+
+    List<ShortenedUrl> findMostAccessedAfter(long accessCount, long id, Limit limit);
+
+    List<ExportedUrl> findExportPage(long afterId, Limit limit);
+
+    /**
+     * Streams every stored short code. The stream must be closed, and the JPA store needs a transaction around it.
+     */
+    Stream<String> streamAllShortCodes();
+
+    /**
+     * Inserts a URL without an id and updates one with an id. The access count is never written by an update.
+     */
+    ShortenedUrl save(ShortenedUrl url);
+
+    /**
+     * Inserts the URL unless one with the same normalized form is already stored, and returns the mapping now stored
+     * for it. Concurrent calls for one URL, on any instance sharing the store, all return the same mapping and the
+     * losing calls write nothing.
+     */
+    ShortenedUrl saveIfAbsent(ShortenedUrl url);
+
+    /**
+     * Saves all URLs or none of them.
+     */
+    List<ShortenedUrl> saveAll(List<ShortenedUrl> urls);
+
+    void delete(ShortenedUrl url);
+
+    /**
+     * Inserts or updates URLs by short code, keeping the id and access count of existing ones. The JPA store joins
+     * the caller's transaction.
+     */
+    void upsertAll(List<ShortenedUrl> urls);
+
+    /**
+     * Adds the deltas to the access counts, keyed by {@link com.bdkamaci.urlshorteningservice.generator.ShortCodes
+     * packed} short code.
+     */
+    void addAccessCounts(Map<Long, Long> deltas);
+}
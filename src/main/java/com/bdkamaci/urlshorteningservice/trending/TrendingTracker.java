@@ -0,0 +1,200 @@
+package com.bdkamaci.urlshorteningservice.trending;
+
+import com.bdkamaci.urlshorteningservice.config.TrendingProperties;
+import com.bdkamaci.urlshorteningservice.generator.ShortCodes;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live top-K of the most resolved short codes over sliding 1 minute, 1 hour and 24 hour windows, kept entirely in
+ * memory. Each window is a ring of time slots; resolutions increment the current slot without locking and a new
+ * slot replaces the oldest one when time moves on. A scheduled refresh publishes an immutable leaderboard per
+ * window, so reads never touch the slots.
+ *
+ * <p>Closed slots are trimmed to their {@code slot-retain} largest counters once, and their sum is cached until the
+ * next slot closes. Any code in the window's top K must be in the top K of the closed slots or in the open slot,
+ * so a refresh only merges those. Windows slide in whole slots. Counters are keyed by packed short code and only
+ * leaderboard entries are unpacked.
+ */
+@Component
+public class TrendingTracker {
+    private final TrendingProperties properties;
+    private final Map<TrendingWindow, Window> windows = new EnumMap<>(TrendingWindow.class);
+    private final Counter untracked;
+
+    public TrendingTracker(TrendingProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        for (TrendingWindow window : TrendingWindow.values()) {
+            windows.put(window, new Window(window));
+        }
+        this.untracked = Counter.builder("shortener.trending.untracked")
+                .description("Resolutions not counted because the current trending slot was full")
+                .register(meterRegistry);
+    }
+
+    public void record(String shortCode, long epochMillis) {
+        long codeKey = ShortCodes.pack(shortCode);
+        if (!properties.isEnabled() || codeKey == ShortCodes.INVALID) {
+            return;
+        }
+        for (Window window : windows.values()) {
+            window.record(codeKey, epochMillis);
+        }
+    }
+
+    public Leaderboard leaderboard(TrendingWindow window) {
+        return windows.get(window).leaderboard;
+    }
+
+    @Scheduled(fixedDelayString = "${shortener.trending.refresh-interval-ms:1000}")
+    public void refresh() {
+        refresh(System.currentTimeMillis());
+    }
+
+    synchronized void refresh(long epochMillis) {
+        for (Window window : windows.values()) {
+            window.refresh(epochMillis);
+        }
+    }
+
+    public record Leaderboard(TrendingWindow window, Instant generatedAt, List<Entry> entries) {
+    }
+
+    public record Entry(String shortCode, long clicks) {
+    }
+
+    private final class Window {
+        private final TrendingWindow window;
+        private final long slotMillis;
+        private final AtomicReferenceArray<Slot> ring;
+
+        private volatile Leaderboard leaderboard;
+        private long closedThrough = Long.MIN_VALUE;
+        private Map<Long, Long> closedTotals = Map.of();
+        private List<Entry> closedTop = List.of();
+
+        Window(TrendingWindow window) {
+            this.window = window;
+            this.slotMillis = window.getSlotMillis();
+            this.ring = new AtomicReferenceArray<>(window.getSlots());
+            this.leaderboard = new Leaderboard(window, Instant.EPOCH, List.of());
+        }
+
+        void record(long codeKey, long epochMillis) {
+            long index = epochMillis / slotMillis;
+            Slot slot = slot(index);
+            if (slot == null) {
+                return;
+            }
+            LongAdder counter = slot.counts.get(codeKey);
+            if (counter == null) {
+                if (slot.counts.size() >= properties.getSlotCapacity()) {
+                    untracked.increment();
+                    return;
+                }
+                counter = slot.counts.computeIfAbsent(codeKey, key -> new LongAdder());
+            }
+            counter.increment();
+        }
+
+        void refresh(long epochMillis) {
+            long current = epochMillis / slotMillis;
+            if (current != closedThrough) {
+                closeSlotsBefore(current);
+                closedThrough = current;
+            }
+            Slot open = ring.get(position(current));
+            Map<Long, Long> candidates = new HashMap<>();
+            for (Entry entry : closedTop) {
+                candidates.put(ShortCodes.pack(entry.shortCode()), entry.clicks());
+            }
+            if (open != null && open.index == current) {
+                open.counts.forEach((code, count) -> candidates.put(code, closedTotals.getOrDefault(code, 0L) + count.sum()));
+            }
+            leaderboard = new Leaderboard(window, Instant.ofEpochMilli(epochMillis), top(candidates, properties.getTopK()));
+        }
+
+        private void closeSlotsBefore(long current) {
+            Map<Long, Long> totals = new HashMap<>();
+            for (int i = 0; i < ring.length(); i++) {
+                Slot slot = ring.get(i);
+                if (slot == null || slot.index >= current || slot.index <= current - window.getSlots()) {
+                    continue;
+                }
+                if (!slot.trimmed) {
+                    Slot trimmed = slot.trim(properties.getSlotRetain());
+                    ring.compareAndSet(i, slot, trimmed);
+                    slot = trimmed;
+                }
+                slot.counts.forEach((code, count) -> totals.merge(code, count.sum(), Long::sum));
+            }
+            closedTotals = totals;
+            closedTop = top(totals, properties.getTopK());
+        }
+
+        private Slot slot(long index) {
+            int position = position(index);
+            while (true) {
+                Slot slot = ring.get(position);
+                if (slot != null && slot.index == index) {
+                    return slot;
+                }
+                if (slot != null && slot.index > index) {
+                    return null;
+                }
+                Slot fresh = new Slot(index, new ConcurrentHashMap<>(), false);
+                if (ring.compareAndSet(position, slot, fresh)) {
+                    return fresh;
+                }
+            }
+        }
+
+        private int position(long index) {
+            return (int) Math.floorMod(index, (long) ring.length());
+        }
+    }
+
+    private record Slot(long index, ConcurrentHashMap<Long, LongAdder> counts, boolean trimmed) {
+        Slot trim(int retain) {
+            ConcurrentHashMap<Long, LongAdder> kept = new ConcurrentHashMap<>();
+            Map<Long, Long> sums = new HashMap<>(counts.size() * 2);
+            counts.forEach((code, count) -> sums.put(code, count.sum()));
+            for (Entry entry : top(sums, retain)) {
+                LongAdder adder = new LongAdder();
+                adder.add(entry.clicks());
+                kept.put(ShortCodes.pack(entry.shortCode()), adder);
+            }
+            return new Slot(index, kept, true);
+        }
+    }
+
+    private static List<Entry> top(Map<Long, Long> counts, int k) {
+        Comparator<Entry> order = Comparator.comparingLong(Entry::clicks).thenComparing(Entry::shortCode, Comparator.reverseOrder());
+        PriorityQueue<Entry> heap = new PriorityQueue<>(k + 1, order);
+        counts.forEach((codeKey, clicks) -> {
+            if (heap.size() < k) {
+                heap.add(new Entry(ShortCodes.unpack(codeKey), clicks));
+            } else if (clicks > heap.peek().clicks()) {
+                heap.poll();
+                heap.add(new Entry(ShortCodes.unpack(codeKey), clicks));
+            }
+        });
+        List<Entry> result = new ArrayList<>(heap);
+        result.sort(order.reversed());
+        return List.copyOf(result);
+    }
+}
@@ -0,0 +1,44 @@
+package com.bdkamaci.urlshorteningservice.trending;
+
+import java.time.Duration;
+
+public enum TrendingWindow {
+    ONE_MINUTE("1m", Duration.ofMinutes(1), 6),
+    ONE_HOUR("1h", Duration.ofHours(1), 12),
+    ONE_DAY("24h", Duration.ofDays(1), 24);
+
+    private final String value;
+    private final Duration length;
+    private final int slots;
+
+    TrendingWindow(String value, Duration length, int slots) {
+        this.value = value;
+        this.length = length;
+        this.slots = slots;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public Duration getLength() {
+        return length;
+    }
+
+    public int getSlots() {
+        return slots;
+    }
+
+    public long getSlotMillis() {
+        return length.toMillis() / slots;
+    }
+
+    public static TrendingWindow fromValue(String value) {
+        for (TrendingWindow window : values()) {
+            if (window.value.equalsIgnoreCase(value.trim())) {
+                return window;
+            }
+        }
+        throw new IllegalArgumentException("Unknown trending window: " + value);
+    }
+}
@@ -0,0 +1,113 @@
+package com.bdkamaci.urlshorteningservice.cache;
+
+import com.bdkamaci.urlshorteningservice.config.CacheConfig;
+import com.bdkamaci.urlshorteningservice.config.CacheWarmupProperties;
+import com.bdkamaci.urlshorteningservice.dto.response.ShortenUrlResponse;
+import com.bdkamaci.urlshorteningservice.model.ShortenedUrl;
+import com.bdkamaci.urlshorteningservice.storage.UrlStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CacheWarmerTest {
+    @Mock
+    private UrlStore urlStore;
+
+    private ConcurrentMapCacheManager cacheManager;
+    private CacheWarmupProperties properties;
+    private CacheWarmer warmer;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager(CacheConfig.SHORT_URLS, CacheConfig.SHORT_URL_TARGETS);
+        properties = new CacheWarmupProperties();
+        properties.setMaxEntries(3);
+        properties.setBatchSize(2);
+        warmer = new CacheWarmer(urlStore, cacheManager, properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void warmUp_ShouldLoadMostAccessedCodesInBatchesUpToMaxEntries() {
+        // Arrange
+        when(urlStore.findMostAccessed(Limit.of(2))).thenReturn(List.of(url(1L, "abc123", 50), url(2L, "def456", 20)));
+        when(urlStore.findMostAccessedAfter(20, 2L, Limit.of(1))).thenReturn(List.of(url(3L, "ghi789", 20)));
+
+        // Act
+        int loaded = warmer.warmUp();
+
+        // Assert
+        assertEquals(3, loaded);
+        ShortenUrlResponse cached = cacheManager.getCache(CacheConfig.SHORT_URLS).get("abc123", ShortenUrlResponse.class);
+        assertNotNull(cached);
+        assertEquals("https://www.example.com/abc123", cached.getUrl());
+        assertEquals("https://www.example.com/ghi789",
+                cacheManager.getCache(CacheConfig.SHORT_URL_TARGETS).get("ghi789", String.class));
+        verifyNoMoreInteractions(urlStore);
+    }
+
+    @Test
+    void warmUp_WithFewerRowsThanBudget_ShouldStopAtLastBatch() {
+        // Arrange
+        when(urlStore.findMostAccessed(Limit.of(2))).thenReturn(List.of(url(1L, "abc123", 5)));
+
+        // Act
+        int loaded = warmer.warmUp();
+
+        // Assert
+        assertEquals(1, loaded);
+        verify(urlStore, never()).findMostAccessedAfter(anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void warmUp_WithExhaustedTimeBudget_ShouldNotQuery() {
+        // Arrange
+        properties.setTimeBudget(Duration.ZERO);
+
+        // Act
+        int loaded = warmer.warmUp();
+
+        // Assert
+        assertEquals(0, loaded);
+        verifyNoInteractions(urlStore);
+    }
+
+    @Test
+    void warmUp_WhenQueryFails_ShouldKeepWhatWasLoaded() {
+        // Arrange
+        when(urlStore.findMostAccessed(Limit.of(2))).thenReturn(List.of(url(1L, "abc123", 50), url(2L, "def456", 20)));
+        when(urlStore.findMostAccessedAfter(20, 2L, Limit.of(1))).thenThrow(new IllegalStateException("down"));
+
+        // Act
+        int loaded = warmer.warmUp();
+
+        // Assert
+        assertEquals(2, loaded);
+        assertNotNull(cacheManager.getCache(CacheConfig.SHORT_URL_TARGETS).get("def456"));
+    }
+
+    private static ShortenedUrl url(long id, String shortCode, long accessCount) {
+        LocalDateTime now = LocalDateTime.now();
+        return ShortenedUrl.builder()
+                .id(id)
+                .url("https://www.example.com/" + shortCode)
+                .shortCode(shortCode)
+                .createdAt(now)
+                .updatedAt(now)
+                .accessCount(accessCount)
+                .build();
+    }
+}
@@ -0,0 +1,88 @@
+package com.bdkamaci.urlshorteningservice.cache;
+
+import com.bdkamaci.urlshorteningservice.config.BloomFilterProperties;
+import com.bdkamaci.urlshorteningservice.config.DeploymentProperties;
+import com.bdkamaci.urlshorteningservice.storage.UrlStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ShortCodeBloomFilterTest {
+    @Mock
+    private UrlStore urlStore;
+
+    private DeploymentProperties deploymentProperties;
+    private ShortCodeBloomFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        BloomFilterProperties properties = new BloomFilterProperties();
+        properties.setExpectedInsertions(10_000);
+        properties.setFalsePositiveProbability(0.01);
+        deploymentProperties = new DeploymentProperties();
+        deploymentProperties.setSingleInstance(true);
+        filter = new ShortCodeBloomFilter(urlStore, properties, deploymentProperties);
+    }
+
+    @Test
+    void mightContain_BeforeRebuild_ShouldAcceptEverything() {
+        // Act & Assert
+        assertFalse(filter.isReady());
+        assertTrue(filter.mightContain("unknown1"));
+    }
+
+    @Test
+    void rebuild_WithoutSingleInstance_ShouldStayInactive() {
+        // Arrange
+        deploymentProperties.setSingleInstance(false);
+
+        // Act
+        filter.rebuild();
+
+        // Assert
+        assertFalse(filter.isReady());
+        assertTrue(filter.mightContain("unknown1"));
+    }
+
+    @Test
+    void mightContain_AfterRebuild_ShouldKnowPersistedAndAddedCodes() {
+        // Arrange
+        when(urlStore.count()).thenReturn(2L);
+        when(urlStore.streamAllShortCodes()).thenReturn(Stream.of("abc123", "def456"));
+
+        // Act
+        filter.rebuild();
+        filter.put("ghi789");
+
+        // Assert
+        assertTrue(filter.isReady());
+        assertTrue(filter.mightContain("abc123"));
+        assertTrue(filter.mightContain("def456"));
+        assertTrue(filter.mightContain("ghi789"));
+    }
+
+    @Test
+    void mightContain_WithUnknownCodes_ShouldKeepFalsePositivesNearConfiguredRate() {
+        // Arrange
+        when(urlStore.count()).thenReturn(10_000L);
+        when(urlStore.streamAllShortCodes()).thenReturn(
+                Stream.iterate(0, i -> i < 10_000, i -> i + 1).map(i -> "known" + i));
+        filter.rebuild();
+
+        // Act
+        long falsePositives = Stream.iterate(0, i -> i < 100_000, i -> i + 1)
+                .filter(i -> filter.mightContain("unknown" + i))
+                .count();
+
+        // Assert
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+    }
+}
@@ -0,0 +1,45 @@
+package com.bdkamaci.urlshorteningservice.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Configuration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CodeGeneratorPropertiesTest {
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(ValidationAutoConfiguration.class))
+            .withUserConfiguration(PropertiesConfig.class);
+
+    @Test
+    void bind_WithSequenceStrategyAndNoSecret_ShouldFailToStart() {
+        contextRunner.withPropertyValues("shortener.code-generator.strategy=sequence")
+                .run(context -> {
+                    // Assert
+                    assertNotNull(context.getStartupFailure());
+                });
+    }
+
+    @Test
+    void bind_WithSecretOrRandomStrategy_ShouldStart() {
+        contextRunner.withPropertyValues("shortener.code-generator.secret=123456789")
+                .run(context -> {
+                    // Assert
+                    assertNull(context.getStartupFailure());
+                    assertEquals(123456789L, context.getBean(CodeGeneratorProperties.class).getSecret());
+                });
+        contextRunner.withPropertyValues("shortener.code-generator.strategy=random")
+                .run(context -> {
+                    // Assert
+                    assertNull(context.getStartupFailure());
+                });
+    }
+
+    @Configuration
+    @EnableConfigurationProperties(CodeGeneratorProperties.class)
+    static class PropertiesConfig {
+    }
+}
@@ -0,0 +1,41 @@
+package com.bdkamaci.urlshorteningservice.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RedirectPropertiesTest {
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(ValidationAutoConfiguration.class))
+            .withUserConfiguration(PropertiesConfig.class);
+
+    @Test
+    void bind_WithRedirectStatus_ShouldStart() {
+        contextRunner.withPropertyValues("shortener.redirect.status=MOVED_PERMANENTLY")
+                .run(context -> {
+                    // Assert
+                    assertNull(context.getStartupFailure());
+                    assertEquals(HttpStatus.MOVED_PERMANENTLY, context.getBean(RedirectProperties.class).getStatus());
+                });
+    }
+
+    @Test
+    void bind_WithNonRedirectStatus_ShouldFailToStart() {
+        contextRunner.withPropertyValues("shortener.redirect.status=OK")
+                .run(context -> {
+                    // Assert
+                    assertNotNull(context.getStartupFailure());
+                });
+    }
+
+    @Configuration
+    @EnableConfigurationProperties(RedirectProperties.class)
+    static class PropertiesConfig {
+    }
+}
@@ -0,0 +1,74 @@
+package com.bdkamaci.urlshorteningservice.controller;
+
+import com.bdkamaci.urlshorteningservice.config.RedirectProperties;
+import com.bdkamaci.urlshorteningservice.exception.ResourceNotFoundException;
+import com.bdkamaci.urlshorteningservice.service.UrlShortenerService;
+import com.bdkamaci.urlshorteningservice.statistics.ClickEventRecorder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(RedirectController.class)
+@Import(SimpleMeterRegistry.class)
+@EnableConfigurationProperties(RedirectProperties.class)
+public class RedirectControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private UrlShortenerService service;
+
+    @MockitoBean
+    private ClickEventRecorder clickEventRecorder;
+
+    private final String TEST_URL = "https://www.example.com/long/url";
+    private final String TEST_SHORT_CODE = "abc123";
+
+    @Test
+    void redirect_ShouldReturnFoundWithLocationAndNoBody() throws Exception {
+        // Arrange
+        when(service.resolveUrl(TEST_SHORT_CODE)).thenReturn(TEST_URL);
+
+        // Act & Assert
+        mockMvc.perform(get("/{shortCode}", TEST_SHORT_CODE))
+                .andExpect(status().isFound())
+                .andExpect(header().string("Location", TEST_URL))
+                .andExpect(header().string("Cache-Control", "max-age=300, public"))
+                .andExpect(content().string(""));
+
+        verify(clickEventRecorder).record(eq(TEST_SHORT_CODE), any(HttpServletRequest.class));
+    }
+
+    @Test
+    void redirect_WithNonExistentShortCode_ShouldReturnNotFound() throws Exception {
+        // Arrange
+        when(service.resolveUrl(TEST_SHORT_CODE)).thenThrow(new ResourceNotFoundException("URL not found"));
+
+        // Act & Assert
+        mockMvc.perform(get("/{shortCode}", TEST_SHORT_CODE))
+                .andExpect(status().isNotFound());
+
+        verify(clickEventRecorder, never()).record(anyString(), any(HttpServletRequest.class));
+    }
+
+    @Test
+    void redirect_WithMalformedShortCode_ShouldNotMatch() throws Exception {
+        mockMvc.perform(get("/{shortCode}", "abc"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -1,31 +1,46 @@
 package com.bdkamaci.urlshorteningservice.controller;
 
+import com.bdkamaci.urlshorteningservice.dto.request.BatchShortenUrlRequest;
+import com.bdkamaci.urlshorteningservice.dto.request.ResolveUrlsRequest;
 import com.bdkamaci.urlshorteningservice.dto.request.ShortenUrlRequest;
+import com.bdkamaci.urlshorteningservice.dto.request.UrlStatisticsRequest;
+import com.bdkamaci.urlshorteningservice.dto.response.BatchShortenUrlResponse;
+import com.bdkamaci.urlshorteningservice.dto.response.ResolveUrlsResponse;
 import com.bdkamaci.urlshorteningservice.dto.response.ShortenUrlResponse;
 import com.bdkamaci.urlshorteningservice.dto.response.UrlStatisticsResponse;
 import com.bdkamaci.urlshorteningservice.exception.ResourceNotFoundException;
 import com.bdkamaci.urlshorteningservice.service.UrlShortenerService;
+import com.bdkamaci.urlshorteningservice.statistics.ClickEventRecorder;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(UrlShortenerController.class)
+@Import(SimpleMeterRegistry.class)
 public class UrlShortenerControllerTest {
     @Autowired
     private MockMvc mockMvc;
@@ -36,6 +51,9 @@ public class UrlShortenerControllerTest {
     @MockitoBean
     private UrlShortenerService service;
 
+    @MockitoBean
+    private ClickEventRecorder clickEventRecorder;
+
     private ShortenUrlRequest request;
     private ShortenUrlResponse response;
     private UrlStatisticsResponse statsResponse;
@@ -64,6 +82,8 @@ public class UrlShortenerControllerTest {
                 .createdAt(now)
                 .updatedAt(now)
                 .accessCount(5L)
+                .granularity("minute")
+                .series(List.of(new UrlStatisticsResponse.Bucket(now.withSecond(0).withNano(0), 3)))
                 .build();
     }
 
@@ -96,6 +116,84 @@ public class UrlShortenerControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void createShortUrls_AllCreated_ShouldReturnCreatedStatus() throws Exception {
+        // Arrange
+        BatchShortenUrlRequest batchRequest = new BatchShortenUrlRequest(List.of(request));
+        BatchShortenUrlResponse batchResponse = BatchShortenUrlResponse.builder()
+                .created(1)
+                .failed(0)
+                .results(List.of(BatchShortenUrlResponse.Item.builder().index(0).url(response).build()))
+                .build();
+        when(service.createShortUrls(any(BatchShortenUrlRequest.class))).thenReturn(batchResponse);
+
+        // Act & Assert
+        mockMvc.perform(post("/shorten/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batchRequest)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.created", is(1)))
+                .andExpect(jsonPath("$.results[0].url.shortCode", is(TEST_SHORT_CODE)));
+    }
+
+    @Test
+    void createShortUrls_WithFailedItems_ShouldReturnMultiStatus() throws Exception {
+        // Arrange
+        BatchShortenUrlRequest batchRequest = new BatchShortenUrlRequest(List.of(request, new ShortenUrlRequest("")));
+        BatchShortenUrlResponse batchResponse = BatchShortenUrlResponse.builder()
+                .created(1)
+                .failed(1)
+                .results(List.of(
+                        BatchShortenUrlResponse.Item.builder().index(0).url(response).build(),
+                        BatchShortenUrlResponse.Item.builder().index(1).error("URL is required").build()))
+                .build();
+        when(service.createShortUrls(any(BatchShortenUrlRequest.class))).thenReturn(batchResponse);
+
+        // Act & Assert
+        mockMvc.perform(post("/shorten/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batchRequest)))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.failed", is(1)))
+                .andExpect(jsonPath("$.results[1].error", is("URL is required")));
+    }
+
+    @Test
+    void createShortUrls_WithEmptyBatch_ShouldReturnBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/shorten/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BatchShortenUrlRequest(List.of()))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void resolveUrls_ShouldReturnFoundAndMissingCodes() throws Exception {
+        // Arrange
+        ResolveUrlsResponse resolveResponse = ResolveUrlsResponse.builder()
+                .found(List.of(response))
+                .missing(List.of("missing"))
+                .build();
+        when(service.resolveUrls(any(ResolveUrlsRequest.class))).thenReturn(resolveResponse);
+
+        // Act & Assert
+        mockMvc.perform(post("/shorten/resolve")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new ResolveUrlsRequest(List.of(TEST_SHORT_CODE, "missing")))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.found[0].shortCode", is(TEST_SHORT_CODE)))
+                .andExpect(jsonPath("$.missing[0]", is("missing")));
+    }
+
+    @Test
+    void listUrls_WithLimitAboveMaximum_ShouldReturnBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/shorten").param("limit", "501"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.limit", is("Limit must be at most 500")));
+    }
+
     @Test
     void getOriginalUrl_ShouldReturnOkStatus() throws Exception {
         // Arrange
@@ -108,6 +206,8 @@ public class UrlShortenerControllerTest {
                 .andExpect(jsonPath("$.id", is("1")))
                 .andExpect(jsonPath("$.url", is(TEST_URL)))
                 .andExpect(jsonPath("$.shortCode", is(TEST_SHORT_CODE)));
+
+        verify(clickEventRecorder).record(eq(TEST_SHORT_CODE), any(HttpServletRequest.class));
     }
 
     @Test
@@ -119,6 +219,8 @@ public class UrlShortenerControllerTest {
         // Act & Assert
         mockMvc.perform(get("/shorten/{shortCode}", TEST_SHORT_CODE))
                 .andExpect(status().isNotFound());
+
+        verify(clickEventRecorder, never()).record(anyString(), any(HttpServletRequest.class));
     }
 
     @Test
@@ -189,22 +291,34 @@ public class UrlShortenerControllerTest {
     @Test
     void getUrlStatistics_ShouldReturnOkStatus() throws Exception {
         // Arrange
-        when(service.getUrlStatistics(TEST_SHORT_CODE)).thenReturn(statsResponse);
+        when(service.getUrlStatistics(eq(TEST_SHORT_CODE), any(UrlStatisticsRequest.class))).thenReturn(statsResponse);
 
         // Act & Assert
-        mockMvc.perform(get("/shorten/{shortCode}/stats", TEST_SHORT_CODE))
+        mockMvc.perform(get("/shorten/{shortCode}/stats", TEST_SHORT_CODE).param("granularity", "minute"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.id", is("1")))
                 .andExpect(jsonPath("$.url", is(TEST_URL)))
                 .andExpect(jsonPath("$.shortCode", is(TEST_SHORT_CODE)))
-                .andExpect(jsonPath("$.accessCount", is(5)));
+                .andExpect(jsonPath("$.accessCount", is(5)))
+                .andExpect(jsonPath("$.granularity", is("minute")))
+                .andExpect(jsonPath("$.series[0].clicks", is(3)));
+
+        verify(service).getUrlStatistics(eq(TEST_SHORT_CODE),
+                argThat(request -> "minute".equals(request.getGranularity())));
+        verify(clickEventRecorder, never()).record(anyString(), any(HttpServletRequest.class));
+    }
+
+    @Test
+    void getUrlStatistics_WithUnknownGranularity_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/shorten/{shortCode}/stats", TEST_SHORT_CODE).param("granularity", "week"))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
     void getUrlStatistics_WithNonExistentCode_ShouldReturnNotFound() throws Exception {
         // Arrange
-        when(service.getUrlStatistics(TEST_SHORT_CODE))
+        when(service.getUrlStatistics(eq(TEST_SHORT_CODE), any(UrlStatisticsRequest.class)))
                 .thenThrow(new ResourceNotFoundException("URL not found"));
 
         // Act & Assert
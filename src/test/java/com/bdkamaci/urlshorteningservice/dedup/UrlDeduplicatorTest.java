@@ -0,0 +1,89 @@
+package com.bdkamaci.urlshorteningservice.dedup;
+
+import com.bdkamaci.urlshorteningservice.config.DedupProperties;
+import com.bdkamaci.urlshorteningservice.model.ShortenedUrl;
+import com.bdkamaci.urlshorteningservice.storage.UrlStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UrlDeduplicatorTest {
+    private static final String URL = "https://www.example.com/long/url";
+
+    @Mock
+    private UrlStore urlStore;
+
+    private UrlDeduplicator deduplicator;
+
+    @BeforeEach
+    void setUp() {
+        DedupProperties properties = new DedupProperties();
+        properties.setEnabled(true);
+        deduplicator = new UrlDeduplicator(urlStore, properties);
+    }
+
+    @Test
+    void normalize_ShouldLowerCaseSchemeAndHostAndDropDefaultPort() {
+        assertEquals("https://www.example.com/Path?q=A#Top",
+                UrlHashes.normalize(" HTTPS://WWW.Example.com:443/Path?q=A#Top "));
+        assertEquals("http://example.com/", UrlHashes.normalize("http://example.com:80"));
+        assertEquals("http://example.com:8080/", UrlHashes.normalize("http://example.com:8080"));
+        assertEquals(UrlHashes.hash("https://example.com/"), UrlHashes.hash("https://EXAMPLE.com"));
+        assertNotEquals(UrlHashes.hash("https://example.com/a"), UrlHashes.hash("https://example.com/A"));
+    }
+
+    @Test
+    void findOrCreate_WithExistingMapping_ShouldNotCreate() {
+        // Arrange
+        ShortenedUrl existing = url(1L, "https://WWW.example.com/long/url");
+        when(urlStore.findByUrlHash(UrlHashes.hash(URL))).thenReturn(List.of(existing));
+
+        // Act
+        ShortenedUrl result = deduplicator.findOrCreate(URL, UrlHashes.hash(URL), () -> fail("should not create"));
+
+        // Assert
+        assertSame(existing, result);
+    }
+
+    @Test
+    void findOrCreate_WithHashCollision_ShouldCreate() {
+        // Arrange
+        ShortenedUrl other = url(1L, "https://www.example.com/other");
+        ShortenedUrl created = url(2L, URL);
+        when(urlStore.findByUrlHash(UrlHashes.hash(URL))).thenReturn(List.of(other));
+
+        // Act
+        ShortenedUrl result = deduplicator.findOrCreate(URL, UrlHashes.hash(URL), () -> created);
+
+        // Assert
+        assertSame(created, result);
+    }
+
+    @Test
+    void oldestMatch_WithSeveralMatchingRows_ShouldPickLowestId() {
+        // Arrange
+        ShortenedUrl newer = url(3L, URL);
+        ShortenedUrl older = url(2L, "https://WWW.example.com/long/url");
+        ShortenedUrl collision = url(1L, "https://www.example.com/other");
+
+        // Act & Assert
+        assertSame(older, UrlHashes.oldestMatch(List.of(newer, collision, older), URL).orElseThrow());
+    }
+
+    private static ShortenedUrl url(Long id, String url) {
+        return ShortenedUrl.builder()
+                .id(id)
+                .url(url)
+                .urlHash(UrlHashes.hash(url))
+                .shortCode("code" + id)
+                .build();
+    }
+}
@@ -0,0 +1,94 @@
+package com.bdkamaci.urlshorteningservice.export;
+
+import com.bdkamaci.urlshorteningservice.config.AccessCounterProperties;
+import com.bdkamaci.urlshorteningservice.config.ExportProperties;
+import com.bdkamaci.urlshorteningservice.model.ShortenedUrl;
+import com.bdkamaci.urlshorteningservice.repository.ShortenedUrlRepository;
+import com.bdkamaci.urlshorteningservice.storage.JpaUrlStore;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "shortener.export.page-size=2")
+@Import({ShortenedUrlExporter.class, JpaUrlStore.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@EnableConfigurationProperties({ExportProperties.class, AccessCounterProperties.class})
+public class ShortenedUrlExporterTest {
+    @Autowired
+    private ShortenedUrlExporter exporter;
+
+    @Autowired
+    private ShortenedUrlRepository repository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        repository.saveAll(List.of(
+                url("code001", "https://www.example.com/1", now),
+                url("code002", "https://www.example.com/search?q=a,b", now),
+                url("code003", "https://www.example.com/\"quoted\"", now),
+                url("code004", "https://www.example.com/4", now),
+                url("code005", "https://www.example.com/5", now)));
+    }
+
+    @Test
+    void export_AsNdjson_ShouldWriteEveryRowAcrossPagesInIdOrder() throws Exception {
+        // Arrange
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long exported = exporter.export(ExportFormat.NDJSON, out);
+
+        // Assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(5, exported);
+        assertEquals(5, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals("code001", first.get("shortCode").asText());
+        assertEquals("https://www.example.com/1", first.get("url").asText());
+        assertEquals(0, first.get("accessCount").asLong());
+        assertEquals("code005", objectMapper.readTree(lines[4]).get("shortCode").asText());
+    }
+
+    @Test
+    void export_AsCsv_ShouldWriteHeaderAndQuoteSpecialCharacters() throws Exception {
+        // Arrange
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        exporter.export(ExportFormat.CSV, out);
+
+        // Assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(6, lines.length);
+        assertEquals("id,short_code,url,created_at,updated_at,access_count", lines[0]);
+        assertTrue(lines[2].contains(",code002,\"https://www.example.com/search?q=a,b\","));
+        assertTrue(lines[3].contains(",code003,\"https://www.example.com/\"\"quoted\"\"\","));
+    }
+
+    private static ShortenedUrl url(String shortCode, String url, LocalDateTime now) {
+        return ShortenedUrl.builder()
+                .url(url)
+                .shortCode(shortCode)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+}
@@ -0,0 +1,96 @@
+package com.bdkamaci.urlshorteningservice.generator;
+
+import com.bdkamaci.urlshorteningservice.config.CodeGeneratorProperties;
+import com.bdkamaci.urlshorteningservice.config.StorageProperties;
+import com.bdkamaci.urlshorteningservice.model.ShortenedUrl;
+import com.bdkamaci.urlshorteningservice.storage.LogStructuredUrlStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FileShortCodeBlockAllocatorTest {
+    @TempDir
+    private Path directory;
+
+    private StorageProperties storageProperties;
+    private CodeGeneratorProperties generatorProperties;
+
+    @BeforeEach
+    void setUp() {
+        storageProperties = new StorageProperties();
+        storageProperties.setType("log");
+        storageProperties.setDirectory(directory.toString());
+        storageProperties.setFsync(StorageProperties.FsyncPolicy.ALWAYS);
+        generatorProperties = new CodeGeneratorProperties();
+        generatorProperties.setBlockSize(3);
+        generatorProperties.setSecret(42L);
+    }
+
+    @Test
+    void reserve_AfterReopen_ShouldClaimReleasedRangesThenContinueTheCounter() {
+        // Arrange
+        FileShortCodeBlockAllocator allocator = new FileShortCodeBlockAllocator(storageProperties);
+        allocator.reserve(10);
+        allocator.reserve(10);
+        allocator.release(List.of(new ShortCodeBlockAllocator.Block(15, 21)));
+
+        // Act
+        FileShortCodeBlockAllocator reopened = new FileShortCodeBlockAllocator(storageProperties);
+
+        // Assert
+        assertEquals(new ShortCodeBlockAllocator.Block(15, 21), reopened.reserve(10));
+        assertEquals(new ShortCodeBlockAllocator.Block(21, 31), reopened.reserve(10));
+    }
+
+    @Test
+    void nextCode_AfterRestartWithStoredUrls_ShouldNotReissueStoredCodes() {
+        // Arrange
+        Set<String> codes = new HashSet<>();
+        LogStructuredUrlStore store = openStore();
+        SequenceShortCodeGenerator generator = new SequenceShortCodeGenerator(
+                new FileShortCodeBlockAllocator(storageProperties), generatorProperties);
+        for (int i = 0; i < 5; i++) {
+            codes.add(store.save(url(generator.nextCode(), i)).getShortCode());
+        }
+        // Stopped without releasing the rest of its block, as after a crash
+        store.close();
+
+        // Act
+        store = openStore();
+        generator = new SequenceShortCodeGenerator(new FileShortCodeBlockAllocator(storageProperties),
+                generatorProperties);
+        for (int i = 5; i < 10; i++) {
+            codes.add(store.save(url(generator.nextCode(), i)).getShortCode());
+        }
+
+        // Assert
+        assertEquals(10, codes.size());
+        assertEquals(10, store.count());
+        store.close();
+    }
+
+    private LogStructuredUrlStore openStore() {
+        LogStructuredUrlStore store = new LogStructuredUrlStore(storageProperties, new SimpleMeterRegistry());
+        store.open();
+        return store;
+    }
+
+    private static ShortenedUrl url(String shortCode, int i) {
+        LocalDateTime now = LocalDateTime.now();
+        return ShortenedUrl.builder()
+                .shortCode(shortCode)
+                .url("https://www.example.com/" + i)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+}
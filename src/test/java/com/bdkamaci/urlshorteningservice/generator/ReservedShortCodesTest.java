@@ -0,0 +1,27 @@
+package com.bdkamaci.urlshorteningservice.generator;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReservedShortCodesTest {
+    @Test
+    void isReserved_WithTopLevelRouteSegment_ShouldReturnTrue() {
+        assertTrue(ReservedShortCodes.isReserved("shorten"));
+        assertTrue(ReservedShortCodes.isReserved("actuator"));
+    }
+
+    @Test
+    void isReserved_WithFixedRouteSegment_ShouldReturnTrue() {
+        assertTrue(ReservedShortCodes.isReserved("export"));
+        assertTrue(ReservedShortCodes.isReserved("trending"));
+        assertTrue(ReservedShortCodes.isReserved(ShortCodes.pack("export")));
+    }
+
+    @Test
+    void isReserved_WithOrdinaryOrDifferentlyCasedCode_ShouldReturnFalse() {
+        assertFalse(ReservedShortCodes.isReserved("abc123"));
+        assertFalse(ReservedShortCodes.isReserved("Export"));
+        assertFalse(ReservedShortCodes.isReserved(ShortCodes.INVALID));
+    }
+}
@@ -0,0 +1,60 @@
+package com.bdkamaci.urlshorteningservice.generator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShortCodePermutationTest {
+    private final ShortCodePermutation permutation = new ShortCodePermutation(8, 42L);
+
+    @Test
+    void encode_ShouldProduceDistinctFixedLengthCodes() {
+        // Arrange
+        Set<String> codes = new HashSet<>();
+
+        // Act
+        for (long value = 0; value < 100_000; value++) {
+            codes.add(permutation.encode(value));
+        }
+
+        // Assert
+        assertEquals(100_000, codes.size());
+        assertTrue(codes.stream().allMatch(code -> code.matches("[0-9A-Za-z]{8}")));
+    }
+
+    @Test
+    void decode_ShouldInvertEncode() {
+        for (long value : new long[]{0, 1, 2, 999, 123_456_789, permutation.capacity() - 1}) {
+            assertEquals(value, permutation.decode(permutation.encode(value)));
+        }
+    }
+
+    @Test
+    void encode_WithConsecutiveValues_ShouldNotLookSequential() {
+        // Act
+        String first = permutation.encode(1000);
+        String second = permutation.encode(1001);
+
+        // Assert
+        assertNotEquals(first.substring(0, 6), second.substring(0, 6));
+    }
+
+    @Test
+    void encode_WithDifferentLengths_ShouldStayWithinCodeSpace() {
+        for (int length = 6; length <= 10; length++) {
+            ShortCodePermutation sized = new ShortCodePermutation(length, 7L);
+            String code = sized.encode(sized.capacity() - 1);
+            assertEquals(length, code.length());
+            assertEquals(sized.capacity() - 1, sized.decode(code));
+        }
+    }
+
+    @Test
+    void constructor_WithLengthOutsideEntityConstraint_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> new ShortCodePermutation(5, 1L));
+        assertThrows(IllegalArgumentException.class, () -> new ShortCodePermutation(11, 1L));
+    }
+}
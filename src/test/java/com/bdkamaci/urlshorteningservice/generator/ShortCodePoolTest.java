@@ -0,0 +1,154 @@
+package com.bdkamaci.urlshorteningservice.generator;
+
+import com.bdkamaci.urlshorteningservice.config.KeyPoolProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShortCodePoolTest {
+    private final List<String> released = new ArrayList<>();
+    private final AtomicLong counter = new AtomicLong();
+    private final ShortCodeGenerator generator = new ShortCodeGenerator() {
+        @Override
+        public String nextCode() {
+            return "code" + counter.incrementAndGet();
+        }
+
+        @Override
+        public void release(Collection<String> unusedCodes) {
+            released.addAll(unusedCodes);
+        }
+    };
+
+    private ShortCodePool pool;
+
+    @BeforeEach
+    void setUp() {
+        KeyPoolProperties properties = new KeyPoolProperties();
+        properties.setCapacity(100);
+        properties.setLowWaterMark(20);
+        pool = new ShortCodePool(generator, Runnable::run, properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void take_WithWarmPool_ShouldServePreGeneratedCodes() {
+        // Arrange
+        pool.warmUp();
+
+        // Act
+        String code = pool.take();
+
+        // Assert
+        assertEquals("code1", code);
+        assertEquals(99, pool.size());
+    }
+
+    @Test
+    void take_BelowLowWaterMark_ShouldRefillPool() {
+        // Arrange
+        pool.warmUp();
+        Set<String> taken = new HashSet<>();
+
+        // Act
+        for (int i = 0; i < 90; i++) {
+            taken.add(pool.take());
+        }
+
+        // Assert
+        assertEquals(90, taken.size());
+        assertTrue(pool.size() >= 20);
+    }
+
+    @Test
+    void take_WithEmptyPool_ShouldFallBackToGenerator() {
+        // Arrange
+        ShortCodePool idle = new ShortCodePool(generator, task -> { }, new KeyPoolProperties(), new SimpleMeterRegistry());
+
+        // Act
+        String code = idle.take();
+
+        // Assert
+        assertEquals("code1", code);
+    }
+
+    @Test
+    void close_ShouldReleaseUnusedCodes() {
+        // Arrange
+        pool.warmUp();
+        pool.take();
+
+        // Act
+        pool.close();
+
+        // Assert
+        assertEquals(99, released.size());
+        assertFalse(released.contains("code1"));
+        assertEquals(0, pool.size());
+    }
+
+    @Test
+    void close_DuringRefill_ShouldWaitForRefillBeforeReleasing() throws Exception {
+        // Arrange
+        KeyPoolProperties properties = new KeyPoolProperties();
+        properties.setCapacity(10);
+        CountDownLatch generating = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        ShortCodeGenerator blockingGenerator = new ShortCodeGenerator() {
+            @Override
+            public String nextCode() {
+                long next = counter.incrementAndGet();
+                if (next == 5) {
+                    generating.countDown();
+                    awaitQuietly(proceed);
+                }
+                return "code" + next;
+            }
+
+            @Override
+            public void release(Collection<String> unusedCodes) {
+                released.addAll(unusedCodes);
+            }
+        };
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        ShortCodePool racing = new ShortCodePool(blockingGenerator, executor::execute, properties,
+                new SimpleMeterRegistry());
+        racing.warmUp();
+        generating.await();
+
+        // Act
+        Thread closer = new Thread(racing::close);
+        closer.start();
+        closer.join(200);
+        boolean closedBeforeRefillFinished = !closer.isAlive();
+        proceed.countDown();
+        closer.join();
+        executor.shutdown();
+
+        // Assert
+        assertFalse(closedBeforeRefillFinished);
+        assertEquals(5, counter.get());
+        assertEquals(5, released.size());
+        assertTrue(released.contains("code5"));
+        assertEquals(0, racing.size());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
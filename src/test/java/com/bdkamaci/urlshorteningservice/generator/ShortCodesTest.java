@@ -0,0 +1,60 @@
+package com.bdkamaci.urlshorteningservice.generator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShortCodesTest {
+    @Test
+    void unpack_ShouldInvertPackForEveryLength() {
+        for (String code : new String[]{"a", "abc123", "Zz09-_A", "lt00000042", "__________", "AAAAAAAAAA"}) {
+            long key = ShortCodes.pack(code);
+            assertNotEquals(ShortCodes.INVALID, key, code);
+            assertEquals(code, ShortCodes.unpack(key));
+        }
+    }
+
+    @Test
+    void pack_WithTrailingZeroDigits_ShouldKeepCodesOfDifferentLengthsApart() {
+        // Arrange
+        Set<Long> keys = new HashSet<>();
+
+        // Act
+        for (int length = 1; length <= ShortCodes.MAX_LENGTH; length++) {
+            keys.add(ShortCodes.pack("A".repeat(length)));
+        }
+
+        // Assert
+        assertEquals(ShortCodes.MAX_LENGTH, keys.size());
+    }
+
+    @Test
+    void pack_WithCodeOutsideAlphabetOrLength_ShouldReturnInvalid() {
+        assertEquals(ShortCodes.INVALID, ShortCodes.pack(null));
+        assertEquals(ShortCodes.INVALID, ShortCodes.pack(""));
+        assertEquals(ShortCodes.INVALID, ShortCodes.pack("abcdefghijk"));
+        assertEquals(ShortCodes.INVALID, ShortCodes.pack("abc 12"));
+        assertEquals(ShortCodes.INVALID, ShortCodes.pack("abc€12"));
+        assertThrows(IllegalArgumentException.class, () -> ShortCodes.unpack(ShortCodes.INVALID));
+    }
+
+    @Test
+    void fromBits_ShouldProduceValidCodesOfTheRequestedLength() {
+        // Arrange
+        SplittableRandom random = new SplittableRandom(42);
+
+        for (int i = 0; i < 10_000; i++) {
+            // Act
+            long key = ShortCodes.fromBits(random.nextLong(), 8);
+            String code = ShortCodes.unpack(key);
+
+            // Assert
+            assertTrue(code.matches("[A-Za-z0-9_-]{8}"), code);
+            assertEquals(key, ShortCodes.pack(code));
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.bdkamaci.urlshorteningservice.index;
+
+import com.bdkamaci.urlshorteningservice.config.DeploymentProperties;
+import com.bdkamaci.urlshorteningservice.config.IndexProperties;
+import com.bdkamaci.urlshorteningservice.export.ExportedUrl;
+import com.bdkamaci.urlshorteningservice.model.ShortenedUrl;
+import com.bdkamaci.urlshorteningservice.storage.UrlStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UrlIndexTest {
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123_456_000);
+
+    @TempDir
+    private Path directory;
+
+    @Mock
+    private UrlStore urlStore;
+
+    private IndexProperties properties;
+    private DeploymentProperties deploymentProperties;
+    private UrlIndex index;
+
+    @BeforeEach
+    void setUp() {
+        properties = new IndexProperties();
+        properties.setEnabled(true);
+        properties.setDirectory(directory.toString());
+        properties.setBuildPageSize(100);
+        deploymentProperties = new DeploymentProperties();
+        deploymentProperties.setSingleInstance(true);
+        index = new UrlIndex(urlStore, properties, deploymentProperties, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        index.close();
+    }
+
+    @Test
+    void find_AfterBuild_ShouldServeEveryRowAndMissUnknownCodes() {
+        // Arrange
+        stubRows(rows(1, 250));
+
+        // Act
+        index.open();
+
+        // Assert
+        assertTrue(index.isReady());
+        for (long id = 1; id <= 250; id++) {
+            IndexedUrl url = index.find("code" + id);
+            assertNotNull(url, "code" + id);
+            assertEquals(id, url.id());
+            assertEquals("https://www.example.com/" + id, url.url());
+            assertEquals(CREATED_AT, url.createdAt());
+        }
+        assertNull(index.find("code0"));
+        assertNull(index.find("unknown"));
+        verify(urlStore, times(3)).findExportPage(anyLong(), any(Limit.class));
+    }
+
+    @Test
+    void find_AfterChanges_ShouldPreferTheDeltaLog() {
+        // Arrange
+        stubRows(rows(1, 3));
+        index.open();
+
+        // Act
+        index.put(url(2, "code2", "https://www.example.com/updated"));
+        index.put(url(9, "code9", "https://www.example.com/new"));
+        index.delete("code1");
+        index.invalidate(List.of("code3"));
+
+        // Assert
+        assertTrue(index.find("code1").isDeleted());
+        assertEquals("https://www.example.com/updated", index.find("code2").url());
+        assertNull(index.find("code3"));
+        assertEquals("https://www.example.com/new", index.find("code9").url());
+    }
+
+    @Test
+    void open_AfterRestart_ShouldReuseFilesWithoutQueryingTheDatabase() throws IOException {
+        // Arrange
+        stubRows(rows(1, 3));
+        index.open();
+        index.put(url(2, "code2", "https://www.example.com/updated"));
+        index.delete("code3");
+        index.close();
+        Path delta = directory.resolve("delta-1.log");
+        // Simulate a crash in the middle of an append
+        Files.write(delta, new byte[]{1, 0, 5, 'c'}, StandardOpenOption.APPEND);
+        clearInvocations(urlStore);
+
+        // Act
+        UrlIndex reopened = new UrlIndex(urlStore, properties, deploymentProperties, new SimpleMeterRegistry());
+        reopened.open();
+
+        // Assert
+        assertEquals("https://www.example.com/1", reopened.find("code1").url());
+        assertEquals("https://www.example.com/updated", reopened.find("code2").url());
+        assertTrue(reopened.find("code3").isDeleted());
+        reopened.put(url(4, "code4", "https://www.example.com/4"));
+        assertEquals("https://www.example.com/4", reopened.find("code4").url());
+        verifyNoInteractions(urlStore);
+        reopened.close();
+    }
+
+    @Test
+    void open_AfterCrash_ShouldRebuildInsteadOfServingStaleFiles() {
+        // Arrange
+        List<ExportedUrl> rows = new ArrayList<>(rows(1, 3));
+        stubRows(rows);
+        index.open();
+        // The database committed an update, but the process died before appending it to the delta log
+        rows.set(1, new ExportedUrl(2L, "code2", "https://www.example.com/committed", CREATED_AT, CREATED_AT, 0L));
+
+        // Act
+        UrlIndex reopened = new UrlIndex(urlStore, properties, deploymentProperties, new SimpleMeterRegistry());
+        reopened.open();
+
+        // Assert
+        assertEquals("https://www.example.com/committed", reopened.find("code2").url());
+        assertTrue(Files.exists(directory.resolve("index-2.dat")));
+        reopened.close();
+    }
+
+    @Test
+    void maintain_WithFullDeltaLog_ShouldCompactIntoNewGeneration() {
+        // Arrange
+        properties.setMaxDeltaEntries(2);
+        List<ExportedUrl> rows = new ArrayList<>(rows(1, 2));
+        stubRows(rows);
+        index.open();
+        index.put(url(3, "code3", "https://www.example.com/3"));
+        index.delete("code1");
+        rows.removeFirst();
+        rows.add(exported(3));
+
+        // Act
+        index.maintain();
+
+        // Assert
+        assertNull(index.find("code1"));
+        assertEquals("https://www.example.com/3", index.find("code3").url());
+        assertTrue(Files.exists(directory.resolve("index-2.dat")));
+        assertFalse(Files.exists(directory.resolve("index-1.dat")));
+        assertFalse(Files.exists(directory.resolve("delta-1.log")));
+    }
+
+    @Test
+    void rebuild_WithMoreRowsThanCounted_ShouldGrowTheTable() {
+        // Arrange
+        when(urlStore.count()).thenReturn(1L);
+        properties.setBuildPageSize(1000);
+        List<ExportedUrl> rows = rows(1, 2000);
+        when(urlStore.findExportPage(anyLong(), any(Limit.class))).thenAnswer(invocation -> page(rows,
+                invocation.getArgument(0), invocation.getArgument(1)));
+
+        // Act
+        index.open();
+
+        // Assert
+        assertEquals("https://www.example.com/2000", index.find("code2000").url());
+    }
+
+    @Test
+    void open_WithoutSingleInstance_ShouldRefuseToStart() {
+        // Arrange
+        deploymentProperties.setSingleInstance(false);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, index::open);
+        assertFalse(index.isReady());
+        verifyNoInteractions(urlStore);
+    }
+
+    private void stubRows(List<ExportedUrl> rows) {
+        lenient().when(urlStore.count()).thenAnswer(invocation -> (long) rows.size());
+        lenient().when(urlStore.findExportPage(anyLong(), any(Limit.class))).thenAnswer(invocation -> page(rows,
+                invocation.getArgument(0), invocation.getArgument(1)));
+    }
+
+    private static List<ExportedUrl> page(List<ExportedUrl> rows, long afterId, Limit limit) {
+        return rows.stream().filter(row -> row.id() > afterId).limit(limit.max()).toList();
+    }
+
+    private static List<ExportedUrl> rows(long from, long to) {
+        return Stream.iterate(from, id -> id <= to, id -> id + 1).map(UrlIndexTest::exported).toList();
+    }
+
+    private static ExportedUrl exported(long id) {
+        return new ExportedUrl(id, "code" + id, "https://www.example.com/" + id, CREATED_AT, CREATED_AT, 0L);
+    }
+
+    private static ShortenedUrl url(long id, String shortCode, String url) {
+        return ShortenedUrl.builder()
+                .id(id)
+                .shortCode(shortCode)
+                .url(url)
+                .createdAt(CREATED_AT)
+                .updatedAt(CREATED_AT)
+                .build();
+    }
+}
@@ -0,0 +1,58 @@
+package com.bdkamaci.urlshorteningservice.integration;
+
+import com.bdkamaci.urlshorteningservice.dto.request.ResolveUrlsRequest;
+import com.bdkamaci.urlshorteningservice.dto.request.ShortenUrlRequest;
+import com.bdkamaci.urlshorteningservice.dto.response.ResolveUrlsResponse;
+import com.bdkamaci.urlshorteningservice.dto.response.ShortenUrlResponse;
+import com.bdkamaci.urlshorteningservice.service.UrlShortenerService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The first replica is the primary database itself, standing in for a fully caught up replica; the second one is
+ * unreachable.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:replicaprimary;DB_CLOSE_DELAY=-1",
+        "shortener.replicas.enabled=true",
+        "shortener.replicas.nodes[0].url=jdbc:h2:mem:replicaprimary;DB_CLOSE_DELAY=-1",
+        "shortener.replicas.nodes[0].username=sa",
+        "shortener.replicas.nodes[0].password=password",
+        "shortener.replicas.nodes[1].url=jdbc:h2:tcp://localhost:1/unreachable",
+        "shortener.replicas.connection-timeout-ms=250",
+        "shortener.replicas.read-your-writes-window-ms=100"
+})
+@ActiveProfiles("test")
+public class ReplicaRoutingIntegrationTest {
+    @Autowired
+    private UrlShortenerService service;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void resolveUrls_WithUnreachableReplica_ShouldTakeItOutOfRotationAndStillFindUrls() throws InterruptedException {
+        // Arrange
+        ShortenUrlRequest request = ShortenUrlRequest.builder().url("https://www.example.com/replicated").build();
+        ShortenUrlResponse created = service.createShortUrl(request);
+        assertEquals(request.getUrl(), service.resolveUrl(created.getShortCode()));
+        Thread.sleep(150);
+
+        // Act
+        ResolveUrlsRequest resolve = ResolveUrlsRequest.builder().shortCodes(List.of(created.getShortCode())).build();
+        ResolveUrlsResponse first = service.resolveUrls(resolve);
+        ResolveUrlsResponse second = service.resolveUrls(resolve);
+
+        // Assert
+        assertEquals(1, first.getFound().size());
+        assertEquals(1, second.getFound().size());
+        assertEquals(1, meterRegistry.get("shortener.replicas.healthy").gauge().value());
+    }
+}
@@ -1,20 +1,52 @@
 package com.bdkamaci.urlshorteningservice.integration;
 
+import com.bdkamaci.urlshorteningservice.cache.ShortCodeBloomFilter;
+import com.bdkamaci.urlshorteningservice.config.CacheConfig;
+import com.bdkamaci.urlshorteningservice.config.DedupProperties;
+import com.bdkamaci.urlshorteningservice.dedup.UrlHashBackfill;
+import com.bdkamaci.urlshorteningservice.dedup.UrlHashes;
+import com.bdkamaci.urlshorteningservice.dto.request.BatchShortenUrlRequest;
 import com.bdkamaci.urlshorteningservice.dto.request.ShortenUrlRequest;
+import com.bdkamaci.urlshorteningservice.dto.response.BatchShortenUrlResponse;
+import com.bdkamaci.urlshorteningservice.dto.response.ImportJobResponse;
+import com.bdkamaci.urlshorteningservice.dto.response.ShortenUrlPageResponse;
+import com.bdkamaci.urlshorteningservice.export.ExportFormat;
+import com.bdkamaci.urlshorteningservice.generator.ShortCodeKeyBackfill;
+import com.bdkamaci.urlshorteningservice.generator.ShortCodes;
+import com.bdkamaci.urlshorteningservice.model.ImportJob;
+import com.bdkamaci.urlshorteningservice.repository.ImportJobRepository;
 import com.bdkamaci.urlshorteningservice.dto.response.ShortenUrlResponse;
 import com.bdkamaci.urlshorteningservice.model.ShortenedUrl;
 import com.bdkamaci.urlshorteningservice.repository.ShortenedUrlRepository;
+import com.bdkamaci.urlshorteningservice.service.UrlShortenerService;
+import com.bdkamaci.urlshorteningservice.statistics.ClickEventRecorder;
+import com.bdkamaci.urlshorteningservice.storage.UrlStore;
+import com.bdkamaci.urlshorteningservice.trending.TrendingTracker;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -32,9 +64,48 @@ public class UrlShortenerIntegrationTest {
     @Autowired
     private ShortenedUrlRepository repository;
 
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ImportJobRepository importJobRepository;
+
+    @Autowired
+    private UrlShortenerService service;
+
+    @Autowired
+    private DedupProperties dedupProperties;
+
+    @Autowired
+    private ClickEventRecorder clickEventRecorder;
+
+    @Autowired
+    private TrendingTracker trendingTracker;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ShortCodeBloomFilter shortCodeFilter;
+
+    @Autowired
+    private ShortCodeKeyBackfill shortCodeKeyBackfill;
+
+    @Autowired
+    private UrlHashBackfill urlHashBackfill;
+
+    @Autowired
+    private UrlStore urlStore;
+
     @AfterEach
     void cleanup() {
+        dedupProperties.setEnabled(false);
+        jdbcTemplate.update("delete from url_hash_claims");
         repository.deleteAll();
+        importJobRepository.deleteAll();
     }
 
     @Test
@@ -61,14 +132,23 @@ public class UrlShortenerIntegrationTest {
                 .andExpect(jsonPath("$.url").value("https://www.example.com/integration/test"))
                 .andExpect(jsonPath("$.shortCode").value(shortCode));
 
-        // 3. Get statistics (should have access count = 0 initially)
-        mockMvc.perform(get("/shorten/{shortCode}/stats", shortCode))
+        // 3. Follow the redirect endpoint
+        mockMvc.perform(get("/{shortCode}", shortCode))
+                .andExpect(status().isFound())
+                .andExpect(header().string("Location", "https://www.example.com/integration/test"));
+
+        // 4. Get statistics (both resolutions above count as clicks, the stats call does not)
+        clickEventRecorder.flush();
+        mockMvc.perform(get("/shorten/{shortCode}/stats", shortCode).param("granularity", "minute"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.url").value("https://www.example.com/integration/test"))
                 .andExpect(jsonPath("$.shortCode").value(shortCode))
-                .andExpect(jsonPath("$.accessCount").value(1)); // First access after creation
+                .andExpect(jsonPath("$.accessCount").value(2))
+                .andExpect(jsonPath("$.granularity").value("minute"))
+                .andExpect(jsonPath("$.series.length()").value(61))
+                .andExpect(jsonPath("$.series[60].clicks").value(2));
 
-        // 4. Update the URL
+        // 5. Update the URL
         ShortenUrlRequest updateRequest = new ShortenUrlRequest();
         updateRequest.setUrl("https://www.example.com/integration/updated");
 
@@ -79,22 +159,475 @@ public class UrlShortenerIntegrationTest {
                 .andExpect(jsonPath("$.url").value("https://www.example.com/integration/updated"))
                 .andExpect(jsonPath("$.shortCode").value(shortCode));
 
-        // 5. Get statistics again (should be incremented)
-        mockMvc.perform(get("/shorten/{shortCode}/stats", shortCode))
+        // 6. Get statistics again (one more redirect, daily series)
+        mockMvc.perform(get("/{shortCode}", shortCode))
+                .andExpect(status().isFound());
+        clickEventRecorder.flush();
+        mockMvc.perform(get("/shorten/{shortCode}/stats", shortCode).param("granularity", "day"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.url").value("https://www.example.com/integration/updated"))
                 .andExpect(jsonPath("$.shortCode").value(shortCode))
-                .andExpect(jsonPath("$.accessCount").value(2)); // Second access after update
+                .andExpect(jsonPath("$.accessCount").value(3))
+                .andExpect(jsonPath("$.series[30].clicks").value(3))
+                .andExpect(jsonPath("$.uniqueVisitors").value(1))
+                .andExpect(jsonPath("$.topReferrers[0].value").value("(direct)"))
+                .andExpect(jsonPath("$.topReferrers[0].count").value(3));
 
-        // 6. Delete the URL
+        // 7. Delete the URL
         mockMvc.perform(delete("/shorten/{shortCode}", shortCode))
                 .andExpect(status().isNoContent());
 
-        // 7. Verify the URL is deleted
+        // 8. Verify the URL is deleted
         mockMvc.perform(get("/shorten/{shortCode}", shortCode))
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void getUrlByShortCode_AfterUpdateAndDelete_ShouldNotServeStaleCacheEntries() throws Exception {
+        // Arrange
+        ShortenUrlRequest createRequest = new ShortenUrlRequest();
+        createRequest.setUrl("https://www.example.com/cache/original");
+
+        MvcResult createResult = mockMvc.perform(post("/shorten")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createRequest)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        String shortCode = objectMapper.readValue(
+                createResult.getResponse().getContentAsString(), ShortenUrlResponse.class).getShortCode();
+
+        // Act & Assert
+        mockMvc.perform(get("/shorten/{shortCode}", shortCode))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.url").value("https://www.example.com/cache/original"));
+
+        ShortenUrlRequest updateRequest = new ShortenUrlRequest();
+        updateRequest.setUrl("https://www.example.com/cache/updated");
+        mockMvc.perform(put("/shorten/{shortCode}", shortCode)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateRequest)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/shorten/{shortCode}", shortCode))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.url").value("https://www.example.com/cache/updated"));
+
+        mockMvc.perform(get("/{shortCode}", shortCode))
+                .andExpect(status().isFound())
+                .andExpect(header().string("Location", "https://www.example.com/cache/updated"));
+
+        mockMvc.perform(delete("/shorten/{shortCode}", shortCode))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/shorten/{shortCode}", shortCode))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/{shortCode}", shortCode))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void cacheManager_InVirtualThreadMode_ShouldLoadEntriesAsynchronously() {
+        CaffeineCache cache = (CaffeineCache) cacheManager.getCache(CacheConfig.SHORT_URLS);
+
+        assertNotNull(cache);
+        assertDoesNotThrow(cache::getAsyncCache);
+    }
+
+    @Test
+    void requests_ShouldRecordServiceRepositoryAndErrorMetrics() throws Exception {
+        // Arrange
+        ShortenUrlRequest createRequest = new ShortenUrlRequest();
+        createRequest.setUrl("https://www.example.com/integration/metrics");
+        double notFoundBefore = meterRegistry.get("shortener.errors").tag("type", "not_found").counter().count();
+        double validationBefore = meterRegistry.get("shortener.errors").tag("type", "validation").counter().count();
+
+        // Act
+        MvcResult createResult = mockMvc.perform(post("/shorten")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createRequest)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        String shortCode = objectMapper.readValue(createResult.getResponse().getContentAsString(),
+                ShortenUrlResponse.class).getShortCode();
+        mockMvc.perform(get("/shorten/{shortCode}", shortCode)).andExpect(status().isOk());
+        mockMvc.perform(get("/shorten/nonexistent")).andExpect(status().isNotFound());
+        mockMvc.perform(post("/shorten").contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isBadRequest());
+
+        // Assert
+        assertTrue(meterRegistry.get("shortener.service").tag("method", "createShortUrl").timer().count() >= 1);
+        assertTrue(meterRegistry.get("shortener.service").tag("method", "getUrlByShortCode")
+                .tag("exception", "none").timer().count() >= 1);
+        assertTrue(meterRegistry.get("shortener.service").tag("method", "getUrlByShortCode")
+                .tag("exception", "ResourceNotFoundException").timer().count() >= 1);
+        assertTrue(meterRegistry.get("spring.data.repository.invocations")
+                .tag("repository", "ShortenedUrlRepository").tag("method", "findByCodeKey").timer().count() >= 1);
+        assertTrue(meterRegistry.get("http.server.requests").tag("uri", "/shorten/{shortCode}").timers().size() >= 2);
+        assertEquals(notFoundBefore + 1, meterRegistry.get("shortener.errors").tag("type", "not_found").counter().count());
+        assertEquals(validationBefore + 1, meterRegistry.get("shortener.errors").tag("type", "validation").counter().count());
+    }
+
+    @Test
+    void createShortUrls_WithMixedItems_ShouldPersistValidItemsAndReportFailures() throws Exception {
+        // Arrange
+        List<ShortenUrlRequest> items = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            items.add(new ShortenUrlRequest("https://www.example.com/batch/" + i));
+        }
+        items.set(7, new ShortenUrlRequest(""));
+
+        // Act
+        MvcResult result = mockMvc.perform(post("/shorten/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BatchShortenUrlRequest(items))))
+                .andExpect(status().isMultiStatus())
+                .andReturn();
+        BatchShortenUrlResponse response = objectMapper.readValue(result.getResponse().getContentAsString(),
+                BatchShortenUrlResponse.class);
+
+        // Assert
+        assertEquals(119, response.getCreated());
+        assertEquals(1, response.getFailed());
+        assertEquals(120, response.getResults().size());
+        assertEquals("URL is required", response.getResults().get(7).getError());
+        assertEquals(119, repository.count());
+        String shortCode = response.getResults().get(42).getUrl().getShortCode();
+        mockMvc.perform(get("/shorten/{shortCode}", shortCode))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.url").value("https://www.example.com/batch/42"));
+    }
+
+    @Test
+    void export_AsCsv_ShouldStreamAllLinks() throws Exception {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(post("/shorten")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new ShortenUrlRequest("https://www.example.com/export/" + i))))
+                    .andExpect(status().isCreated());
+        }
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/shorten/export").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"shortened-urls.csv\""))
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = body.split("\n");
+        assertEquals(4, lines.length);
+        assertTrue(lines[3].contains("https://www.example.com/export/2"));
+    }
+
+    @Test
+    void export_WithUnknownFormat_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/shorten/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void backfill_WithRowsWrittenBeforeCodeKey_ShouldMakeThemResolvable() throws Exception {
+        jdbcTemplate.update("insert into shortened_urls (id, short_code, url, created_at, updated_at, access_count) "
+                + "values (next value for shortened_urls_seq, 'oldrow1', 'https://www.example.com/old', "
+                + "current_timestamp, current_timestamp, 0)");
+        shortCodeFilter.put("oldrow1");
+        mockMvc.perform(get("/shorten/{shortCode}", "oldrow1")).andExpect(status().isNotFound());
+
+        assertEquals(1, shortCodeKeyBackfill.backfill());
+
+        mockMvc.perform(get("/shorten/{shortCode}", "oldrow1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.url").value("https://www.example.com/old"));
+    }
+
+    @Test
+    void backfill_WithRowsWrittenBeforeUrlHash_ShouldLetDedupFindThem() throws Exception {
+        jdbcTemplate.update("insert into shortened_urls (id, short_code, code_key, url, created_at, updated_at, "
+                + "access_count) values (next value for shortened_urls_seq, 'oldrow2', ?, "
+                + "'https://www.example.com/old/dedup', current_timestamp, current_timestamp, 0)",
+                ShortCodes.pack("oldrow2"));
+        dedupProperties.setEnabled(true);
+
+        assertEquals(1, urlHashBackfill.backfill());
+
+        assertEquals("oldrow2", createShortUrl("https://www.example.com/old/dedup"));
+        assertEquals(1, repository.count());
+    }
+
+    @Test
+    void import_AsNdjson_ShouldUpsertValidRowsAndReportRejectedOnes() throws Exception {
+        // Arrange
+        String shortCode = createShortUrl("https://www.example.com/before-import");
+        mockMvc.perform(get("/{shortCode}", shortCode))
+                .andExpect(header().string("Location", "https://www.example.com/before-import"));
+        String body = String.join("\n",
+                "{\"shortCode\":\"legacy1\",\"url\":\"https://www.example.com/legacy/1\"}",
+                "{\"shortCode\":\"x\",\"url\":\"https://www.example.com/too-short\"}",
+                "not json",
+                "{\"shortCode\":\"" + shortCode + "\",\"url\":\"https://www.example.com/after-import\"}",
+                "{\"shortCode\":\"legacy2\",\"url\":\"https://www.example.com/legacy/2\",\"accessCount\":7}",
+                "{\"shortCode\":\"export\",\"url\":\"https://www.example.com/shadowed\"}");
+
+        // Act
+        MvcResult result = mockMvc.perform(post("/shorten/import")
+                        .param("jobId", "ndjson-job")
+                        .contentType("application/x-ndjson")
+                        .content(body))
+                .andExpect(status().isOk())
+                .andReturn();
+        ImportJobResponse response = objectMapper.readValue(result.getResponse().getContentAsString(),
+                ImportJobResponse.class);
+
+        // Assert
+        assertEquals("COMPLETED", response.getStatus());
+        assertEquals(6, response.getLinesProcessed());
+        assertEquals(3, response.getImported());
+        assertEquals(3, response.getRejected());
+        assertEquals(2, response.getRejectedRows().get(0).getLine());
+        assertEquals(3, response.getRejectedRows().get(1).getLine());
+        assertEquals("Short code is reserved", response.getRejectedRows().get(2).getError());
+        assertEquals(3, repository.count());
+        assertEquals(7L, repository.findByShortCode("legacy2").orElseThrow().getAccessCount());
+        mockMvc.perform(get("/{shortCode}", shortCode))
+                .andExpect(header().string("Location", "https://www.example.com/after-import"));
+        mockMvc.perform(get("/shorten/import/{jobId}", "ndjson-job"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"));
+    }
+
+    @Test
+    void import_WhileSameJobIsRunning_ShouldReturnConflict() throws Exception {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        importJobRepository.save(ImportJob.builder()
+                .id("running-job")
+                .format(ExportFormat.NDJSON)
+                .status(ImportJob.Status.RUNNING)
+                .committedLines(1)
+                .imported(1)
+                .startedAt(now)
+                .updatedAt(now)
+                .build());
+
+        // Act & Assert
+        mockMvc.perform(post("/shorten/import")
+                        .param("jobId", "running-job")
+                        .contentType("application/x-ndjson")
+                        .content("{\"shortCode\":\"legacy1\",\"url\":\"https://www.example.com/legacy/1\"}"))
+                .andExpect(status().isConflict());
+        assertEquals(1, importJobRepository.findById("running-job").orElseThrow().getCommittedLines());
+        assertFalse(repository.existsByShortCode("legacy1"));
+    }
+
+    @Test
+    void import_ResumingWithDifferentFormat_ShouldReturnBadRequest() throws Exception {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        importJobRepository.save(ImportJob.builder()
+                .id("csv-job")
+                .format(ExportFormat.CSV)
+                .status(ImportJob.Status.FAILED)
+                .committedLines(2)
+                .startedAt(now)
+                .updatedAt(now)
+                .build());
+
+        // Act & Assert
+        mockMvc.perform(post("/shorten/import")
+                        .param("jobId", "csv-job")
+                        .contentType("application/x-ndjson")
+                        .content("{\"shortCode\":\"legacy1\",\"url\":\"https://www.example.com/legacy/1\"}"))
+                .andExpect(status().isBadRequest());
+        assertEquals(ImportJob.Status.FAILED, importJobRepository.findById("csv-job").orElseThrow().getStatus());
+    }
+
+    @Test
+    void import_WithPartiallyCommittedJob_ShouldResumeAfterLastCommittedLine() throws Exception {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        importJobRepository.save(ImportJob.builder()
+                .id("resumed-job")
+                .format(ExportFormat.CSV)
+                .status(ImportJob.Status.FAILED)
+                .committedLines(3)
+                .imported(2)
+                .startedAt(now)
+                .updatedAt(now)
+                .build());
+        String body = String.join("\n",
+                "short_code,url",
+                "csv0001,https://www.example.com/csv/1",
+                "csv0002,https://www.example.com/csv/2",
+                "csv0003,\"https://www.example.com/csv/3?a=1,2\"",
+                "csv0004,https://www.example.com/csv/4");
+
+        // Act
+        MvcResult result = mockMvc.perform(post("/shorten/import")
+                        .param("format", "csv")
+                        .param("jobId", "resumed-job")
+                        .contentType("text/csv")
+                        .content(body))
+                .andExpect(status().isOk())
+                .andReturn();
+        ImportJobResponse response = objectMapper.readValue(result.getResponse().getContentAsString(),
+                ImportJobResponse.class);
+
+        // Assert
+        assertEquals("COMPLETED", response.getStatus());
+        assertEquals(5, response.getLinesProcessed());
+        assertEquals(4, response.getImported());
+        assertFalse(repository.existsByShortCode("csv0001"));
+        assertEquals("https://www.example.com/csv/3?a=1,2", repository.findByShortCode("csv0003").orElseThrow().getUrl());
+        assertTrue(repository.existsByShortCode("csv0004"));
+    }
+
+    @Test
+    void listUrls_ShouldSeekThroughFilteredPagesInOrder() throws Exception {
+        // Arrange
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            expected.add(createShortUrl("https://www.example.com/listing/" + i));
+            createShortUrl("https://www.other.com/listing/" + i);
+        }
+
+        // Act
+        List<String> listed = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        String cursor = null;
+        do {
+            MvcResult result = mockMvc.perform(get("/shorten")
+                            .param("limit", "2")
+                            .param("urlPrefix", "https://www.example.com/")
+                            .param("createdFrom", LocalDateTime.now().minusHours(1).toString())
+                            .param("after", cursor == null ? "" : cursor))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            ShortenUrlPageResponse page = objectMapper.readValue(result.getResponse().getContentAsString(),
+                    ShortenUrlPageResponse.class);
+            page.getItems().forEach(item -> listed.add(item.getShortCode()));
+            pageSizes.add(page.getItems().size());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        // Assert
+        assertEquals(expected, listed);
+        assertEquals(List.of(2, 2, 1), pageSizes);
+    }
+
+    @Test
+    void listUrls_SortedByCreatedAt_ShouldReturnEveryLinkOnce() throws Exception {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            createShortUrl("https://www.example.com/created/" + i);
+        }
+
+        // Act
+        MvcResult first = mockMvc.perform(get("/shorten").param("sort", "createdAt").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andReturn();
+        String cursor = objectMapper.readValue(first.getResponse().getContentAsString(),
+                ShortenUrlPageResponse.class).getNextCursor();
+
+        // Assert
+        assertNotNull(cursor);
+        mockMvc.perform(get("/shorten").param("sort", "createdAt").param("limit", "2").param("after", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+        mockMvc.perform(get("/shorten").param("sort", "id").param("after", cursor))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void createShortUrl_WithDedupEnabled_ShouldReuseMappingForConcurrentIdenticalUrls() throws Exception {
+        dedupProperties.setEnabled(true);
+        String firstCode = createShortUrl("https://www.example.com/dedup");
+
+        List<Callable<String>> creates = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            String url = i % 2 == 0 ? "https://WWW.EXAMPLE.COM:443/dedup/race" : "https://www.example.com/dedup/race";
+            creates.add(() -> service.createShortUrl(new ShortenUrlRequest(url)).getShortCode());
+        }
+        Set<String> codes = new HashSet<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (Future<String> code : executor.invokeAll(creates)) {
+                codes.add(code.get());
+            }
+        }
+
+        assertEquals(1, codes.size());
+        assertEquals(firstCode, createShortUrl("https://www.example.com/dedup"));
+        assertEquals(2, repository.count());
+
+        dedupProperties.setEnabled(false);
+        assertNotEquals(firstCode, createShortUrl("https://www.example.com/dedup"));
+    }
+
+    @Test
+    void saveIfAbsent_RacingWithoutLocalLock_ShouldKeepOneRowPerUrl() throws Exception {
+        // Arrange: calling the store directly skips the deduplicator's lock, as creates on other instances would
+        String url = "https://www.example.com/dedup/instances";
+        List<Callable<String>> saves = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            String shortCode = "inst0" + i;
+            LocalDateTime now = LocalDateTime.now();
+            saves.add(() -> urlStore.saveIfAbsent(ShortenedUrl.builder()
+                    .url(url)
+                    .urlHash(UrlHashes.hash(url))
+                    .shortCode(shortCode)
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build()).getShortCode());
+        }
+
+        // Act
+        Set<String> codes = new HashSet<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (Future<String> code : executor.invokeAll(saves)) {
+                codes.add(code.get());
+            }
+        }
+
+        // Assert
+        assertEquals(1, codes.size());
+        assertEquals(1, repository.count());
+    }
+
+    @Test
+    void trending_ShouldRankResolvedLinksWithoutTouchingTheDatabase() throws Exception {
+        String hot = createShortUrl("https://www.example.com/trending/hot");
+        String warm = createShortUrl("https://www.example.com/trending/warm");
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/{shortCode}", hot)).andExpect(status().isFound());
+        }
+        mockMvc.perform(get("/shorten/{shortCode}", warm)).andExpect(status().isOk());
+        trendingTracker.refresh();
+
+        // Other tests share the context and may have resolved links within the same minute
+        mockMvc.perform(get("/shorten/trending").param("window", "1m"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.window").value("1m"))
+                .andExpect(jsonPath("$.items[?(@.shortCode == '%s')].clicks", hot).value(3))
+                .andExpect(jsonPath("$.items[?(@.shortCode == '%s')].clicks", warm).value(1));
+
+        mockMvc.perform(get("/shorten/trending").param("window", "24h").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1));
+
+        mockMvc.perform(get("/shorten/trending").param("window", "1w"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void readinessProbe_AfterCacheWarmUp_ShouldReportUp() throws Exception {
+        mockMvc.perform(get("/actuator/health/readiness"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("UP"));
+    }
+
     @Test
     void createShortUrl_WithInvalidUrl_ShouldReturnBadRequest() throws Exception {
         // Empty URL
@@ -166,4 +699,13 @@ public class UrlShortenerIntegrationTest {
 
         assertEquals(count, uniqueCount);
     }
+
+    private String createShortUrl(String url) throws Exception {
+        MvcResult result = mockMvc.perform(post("/shorten")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ShortenUrlRequest(url))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readValue(result.getResponse().getContentAsString(), ShortenUrlResponse.class).getShortCode();
+    }
 }
@@ -0,0 +1,50 @@
+package com.bdkamaci.urlshorteningservice.replica;
+
+import com.bdkamaci.urlshorteningservice.config.ReplicaProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReplicaReadsTest {
+    private ReplicaReads replicaReads;
+
+    @BeforeEach
+    void setUp() {
+        ReplicaProperties properties = new ReplicaProperties();
+        properties.setEnabled(true);
+        properties.setNodes(List.of(new ReplicaProperties.Node()));
+        replicaReads = new ReplicaReads(properties);
+    }
+
+    @Test
+    void read_WithoutRecentWrites_ShouldRouteToReplica() {
+        // Act & Assert
+        assertTrue(replicaReads.read("abc123", ReplicaRouting::isReplicaRead));
+        assertTrue(replicaReads.read(ReplicaRouting::isReplicaRead));
+        assertFalse(ReplicaRouting.isReplicaRead());
+    }
+
+    @Test
+    void read_AfterWrite_ShouldRouteThatCodeAndListingsToPrimary() {
+        // Arrange
+        replicaReads.recordWrite("abc123");
+
+        // Act & Assert
+        assertFalse(replicaReads.read("abc123", ReplicaRouting::isReplicaRead));
+        assertFalse(replicaReads.read(List.of("def456", "abc123"), ReplicaRouting::isReplicaRead));
+        assertFalse(replicaReads.read(ReplicaRouting::isReplicaRead));
+        assertTrue(replicaReads.read("def456", ReplicaRouting::isReplicaRead));
+    }
+
+    @Test
+    void read_WhenDisabled_ShouldRouteToPrimary() {
+        // Arrange
+        ReplicaReads disabled = new ReplicaReads(new ReplicaProperties());
+
+        // Act & Assert
+        assertFalse(disabled.read("abc123", ReplicaRouting::isReplicaRead));
+    }
+}
@@ -0,0 +1,100 @@
+package com.bdkamaci.urlshorteningservice.replica;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReplicaRoutingDataSourceTest {
+    private final AtomicBoolean secondReplicaDown = new AtomicBoolean();
+    private ReplicaRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-1", h2("replica1"));
+        replicas.put("replica-2", new DelegatingDataSource(h2("replica2")) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                if (secondReplicaDown.get()) {
+                    throw new SQLException("Connection refused");
+                }
+                return super.getConnection();
+            }
+        });
+        dataSource = new ReplicaRoutingDataSource(h2("primary"), replicas, 1, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void getConnection_OutsideReplicaRead_ShouldUsePrimary() throws SQLException {
+        // Act & Assert
+        assertEquals("primary", database());
+    }
+
+    @Test
+    void getConnection_InReplicaRead_ShouldRotateAcrossReplicas() {
+        // Act
+        String first = ReplicaRouting.onReplica(this::database);
+        String second = ReplicaRouting.onReplica(this::database);
+
+        // Assert
+        assertEquals("replica1", first);
+        assertEquals("replica2", second);
+    }
+
+    @Test
+    void getConnection_InReadWriteTransaction_ShouldUsePrimary() {
+        // Arrange
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            // Act
+            String database = ReplicaRouting.onReplica(this::database);
+
+            // Assert
+            assertEquals("primary", database);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+    }
+
+    @Test
+    void getConnection_WithUnreachableReplica_ShouldFailOverUntilHealthCheckPasses() {
+        // Arrange
+        secondReplicaDown.set(true);
+        ReplicaRouting.onReplica(this::database);
+
+        // Act
+        String failedOver = ReplicaRouting.onReplica(this::database);
+        int healthyWhileDown = dataSource.healthyCount();
+        secondReplicaDown.set(false);
+        dataSource.checkHealth();
+
+        // Assert
+        assertEquals("replica1", failedOver);
+        assertEquals(1, healthyWhileDown);
+        assertEquals(2, dataSource.healthyCount());
+    }
+
+    private String database() {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.getCatalog().toLowerCase();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static DataSource h2(String name) {
+        return new SimpleDriverDataSource(new org.h2.Driver(), "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
@@ -5,8 +5,10 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -52,6 +54,54 @@ public class ShortenedUrlRepositoryTest {
         assertFalse(found.isPresent());
     }
 
+    @Test
+    void findByShortCodeIn_ShouldReturnOnlyExistingCodes() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        for (String shortCode : List.of("abc123", "def456", "ghi789")) {
+            entityManager.persist(ShortenedUrl.builder()
+                    .url("https://www.example.com/" + shortCode)
+                    .shortCode(shortCode)
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build());
+        }
+        entityManager.flush();
+
+        // Act
+        List<ShortenedUrl> found = repository.findByShortCodeIn(List.of("abc123", "ghi789", "nonexistent"));
+
+        // Assert
+        assertEquals(2, found.size());
+        assertEquals(List.of("abc123", "ghi789"), found.stream().map(ShortenedUrl::getShortCode).sorted().toList());
+    }
+
+    @Test
+    void findMostAccessed_ShouldPageByAccessCountThenIdDescending() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        long[] accessCounts = {5, 40, 5, 12};
+        for (int i = 0; i < accessCounts.length; i++) {
+            entityManager.persist(ShortenedUrl.builder()
+                    .url("https://www.example.com/hot/" + i)
+                    .shortCode("hot00" + i)
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .accessCount(accessCounts[i])
+                    .build());
+        }
+        entityManager.flush();
+
+        // Act
+        List<ShortenedUrl> first = repository.findMostAccessed(Limit.of(3));
+        ShortenedUrl last = first.getLast();
+        List<ShortenedUrl> next = repository.findMostAccessedAfter(last.getAccessCount(), last.getId(), Limit.of(3));
+
+        // Assert
+        assertEquals(List.of("hot001", "hot003", "hot002"), first.stream().map(ShortenedUrl::getShortCode).toList());
+        assertEquals(List.of("hot000"), next.stream().map(ShortenedUrl::getShortCode).toList());
+    }
+
     @Test
     void existsByShortCode_WithExistingCode_ShouldReturnTrue() {
         // Arrange
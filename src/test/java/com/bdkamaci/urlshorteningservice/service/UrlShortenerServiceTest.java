@@ -1,30 +1,92 @@
 package com.bdkamaci.urlshorteningservice.service;
 
+import com.bdkamaci.urlshorteningservice.cache.ShortCodeBloomFilter;
+import com.bdkamaci.urlshorteningservice.config.BatchProperties;
+import com.bdkamaci.urlshorteningservice.config.ClickProperties;
+import com.bdkamaci.urlshorteningservice.config.ReplicaProperties;
+import com.bdkamaci.urlshorteningservice.dedup.UrlDeduplicator;
+import com.bdkamaci.urlshorteningservice.dedup.UrlHashes;
+import com.bdkamaci.urlshorteningservice.dto.request.BatchShortenUrlRequest;
+import com.bdkamaci.urlshorteningservice.dto.request.ResolveUrlsRequest;
 import com.bdkamaci.urlshorteningservice.dto.request.ShortenUrlRequest;
+import com.bdkamaci.urlshorteningservice.dto.request.UrlStatisticsRequest;
+import com.bdkamaci.urlshorteningservice.dto.response.BatchShortenUrlResponse;
+import com.bdkamaci.urlshorteningservice.dto.response.ResolveUrlsResponse;
 import com.bdkamaci.urlshorteningservice.dto.response.ShortenUrlResponse;
 import com.bdkamaci.urlshorteningservice.dto.response.UrlStatisticsResponse;
+import com.bdkamaci.urlshorteningservice.exception.BadRequestException;
 import com.bdkamaci.urlshorteningservice.exception.ResourceNotFoundException;
+import com.bdkamaci.urlshorteningservice.generator.ShortCodePool;
+import com.bdkamaci.urlshorteningservice.index.IndexedUrl;
+import com.bdkamaci.urlshorteningservice.index.UrlIndex;
+import com.bdkamaci.urlshorteningservice.model.ClickRollup;
 import com.bdkamaci.urlshorteningservice.model.ShortenedUrl;
-import com.bdkamaci.urlshorteningservice.repository.ShortenedUrlRepository;
+import com.bdkamaci.urlshorteningservice.replica.ReplicaReads;
+import com.bdkamaci.urlshorteningservice.repository.ClickRollupRepository;
 import com.bdkamaci.urlshorteningservice.service.impl.UrlShortenerServiceImpl;
+import com.bdkamaci.urlshorteningservice.statistics.AccessCounter;
+import com.bdkamaci.urlshorteningservice.statistics.ClickGranularity;
+import com.bdkamaci.urlshorteningservice.statistics.UrlSketches;
+import com.bdkamaci.urlshorteningservice.statistics.sketch.SpaceSaving;
+import com.bdkamaci.urlshorteningservice.storage.UrlStore;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 public class UrlShortenerServiceTest {
     @Mock
-    private ShortenedUrlRepository repository;
+    private UrlStore urlStore;
+
+    @Mock
+    private ShortCodeBloomFilter shortCodeFilter;
+
+    @Mock
+    private ShortCodePool shortCodePool;
+
+    @Mock
+    private AccessCounter accessCounter;
+
+    @Mock
+    private Validator validator;
+
+    @Spy
+    private BatchProperties batchProperties = new BatchProperties();
+
+    @Mock
+    private UrlDeduplicator deduplicator;
+
+    @Mock
+    private ClickRollupRepository clickRollupRepository;
+
+    @Spy
+    private ClickProperties clickProperties = new ClickProperties();
+
+    @Mock
+    private UrlSketches urlSketches;
+
+    @Mock
+    private UrlIndex urlIndex;
+
+    @Spy
+    private ReplicaReads replicaReads = new ReplicaReads(new ReplicaProperties());
 
     @InjectMocks
     private UrlShortenerServiceImpl service;
@@ -50,12 +112,15 @@ public class UrlShortenerServiceTest {
 
         request = new ShortenUrlRequest();
         request.setUrl(TEST_URL);
+
+        lenient().when(shortCodeFilter.mightContain(anyString())).thenReturn(true);
     }
 
     @Test
     void createShortUrl_ShouldReturnShortenUrlResponse() {
         // Arrange
-        when(repository.save(any(ShortenedUrl.class))).thenReturn(shortenedUrl);
+        when(shortCodePool.take()).thenReturn(TEST_SHORT_CODE);
+        when(urlStore.save(any(ShortenedUrl.class))).thenReturn(shortenedUrl);
 
         // Act
         ShortenUrlResponse response = service.createShortUrl(request);
@@ -66,13 +131,84 @@ public class UrlShortenerServiceTest {
         assertEquals(shortenedUrl.getUrl(), response.getUrl());
         assertEquals(shortenedUrl.getShortCode(), response.getShortCode());
 
-        verify(repository, times(1)).save(any(ShortenedUrl.class));
+        verify(urlStore, times(1)).save(any(ShortenedUrl.class));
+        verify(urlStore, never()).existsByCodeKey(anyLong());
+        verify(shortCodeFilter, times(1)).put(shortenedUrl.getShortCode());
+    }
+
+    @Test
+    void createShortUrl_WithCodeCollision_ShouldRetryWithNewCode() {
+        // Arrange
+        when(shortCodePool.take()).thenReturn("taken1", TEST_SHORT_CODE);
+        when(urlStore.save(any(ShortenedUrl.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate short code"))
+                .thenReturn(shortenedUrl);
+
+        // Act
+        ShortenUrlResponse response = service.createShortUrl(request);
+
+        // Assert
+        assertEquals(TEST_SHORT_CODE, response.getShortCode());
+        verify(urlStore, times(2)).save(any(ShortenedUrl.class));
+        verify(shortCodeFilter).put(TEST_SHORT_CODE);
+    }
+
+    @Test
+    void createShortUrls_WithCollisionInChunk_ShouldRetryItemWithNewCode() {
+        // Arrange
+        BatchShortenUrlRequest batchRequest = new BatchShortenUrlRequest(List.of(request));
+        when(shortCodePool.take()).thenReturn("taken1", "taken2", TEST_SHORT_CODE);
+        when(urlStore.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("duplicate short code"));
+        when(urlStore.save(any(ShortenedUrl.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate short code"))
+                .thenReturn(shortenedUrl);
+
+        // Act
+        BatchShortenUrlResponse response = service.createShortUrls(batchRequest);
+
+        // Assert
+        assertEquals(1, response.getCreated());
+        assertEquals(0, response.getFailed());
+        assertEquals(TEST_SHORT_CODE, response.getResults().get(0).getUrl().getShortCode());
+        verify(urlStore, times(2)).save(any(ShortenedUrl.class));
+        verify(shortCodeFilter).put(TEST_SHORT_CODE);
+    }
+
+    @Test
+    void createShortUrls_WithDedupEnabled_ShouldRouteEachItemThroughDeduplicator() {
+        // Arrange
+        BatchShortenUrlRequest batchRequest = new BatchShortenUrlRequest(List.of(request, request));
+        when(deduplicator.isEnabled()).thenReturn(true);
+        when(deduplicator.findOrCreate(eq(TEST_URL), eq(UrlHashes.hash(TEST_URL)), any())).thenReturn(shortenedUrl);
+
+        // Act
+        BatchShortenUrlResponse response = service.createShortUrls(batchRequest);
+
+        // Assert
+        assertEquals(2, response.getCreated());
+        assertEquals(TEST_SHORT_CODE, response.getResults().get(1).getUrl().getShortCode());
+        verify(deduplicator, times(2)).findOrCreate(eq(TEST_URL), eq(UrlHashes.hash(TEST_URL)), any());
+        verify(urlStore, never()).saveAll(anyList());
+    }
+
+    @Test
+    void createShortUrl_WithDedupEnabled_ShouldReturnExistingMapping() {
+        // Arrange
+        when(deduplicator.isEnabled()).thenReturn(true);
+        when(deduplicator.findOrCreate(eq(TEST_URL), eq(UrlHashes.hash(TEST_URL)), any())).thenReturn(shortenedUrl);
+
+        // Act
+        ShortenUrlResponse response = service.createShortUrl(request);
+
+        // Assert
+        assertEquals(TEST_SHORT_CODE, response.getShortCode());
+        verify(urlStore, never()).save(any(ShortenedUrl.class));
     }
 
     @Test
     void getUrlByShortCode_ShouldReturnShortenUrlResponse() {
         // Arrange
-        when(repository.findByShortCode(TEST_SHORT_CODE)).thenReturn(Optional.of(shortenedUrl));
+        when(urlStore.findByShortCode(TEST_SHORT_CODE)).thenReturn(Optional.of(shortenedUrl));
 
         // Act
         ShortenUrlResponse response = service.getUrlByShortCode(TEST_SHORT_CODE);
@@ -83,20 +219,109 @@ public class UrlShortenerServiceTest {
         assertEquals(shortenedUrl.getUrl(), response.getUrl());
         assertEquals(shortenedUrl.getShortCode(), response.getShortCode());
 
-        verify(repository, times(1)).findByShortCode(TEST_SHORT_CODE);
+        verify(urlStore, times(1)).findByShortCode(TEST_SHORT_CODE);
     }
 
     @Test
     void getUrlByShortCode_ShouldThrowResourceNotFoundException() {
         // Arrange
-        when(repository.findByShortCode(TEST_SHORT_CODE)).thenReturn(Optional.empty());
+        when(urlStore.findByShortCode(TEST_SHORT_CODE)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> {
+            service.getUrlByShortCode(TEST_SHORT_CODE);
+        });
+
+        verify(urlStore, times(1)).findByShortCode(TEST_SHORT_CODE);
+    }
+
+    @Test
+    void getUrlByShortCode_WithCodeRejectedByFilter_ShouldNotQueryRepository() {
+        // Arrange
+        when(shortCodeFilter.mightContain(TEST_SHORT_CODE)).thenReturn(false);
 
         // Act & Assert
         assertThrows(ResourceNotFoundException.class, () -> {
             service.getUrlByShortCode(TEST_SHORT_CODE);
         });
 
-        verify(repository, times(1)).findByShortCode(TEST_SHORT_CODE);
+        verify(urlStore, never()).findByShortCode(anyString());
+    }
+
+    @Test
+    void getUrlByShortCode_WithIndexedCode_ShouldNotQueryRepository() {
+        // Arrange
+        when(urlIndex.find(TEST_SHORT_CODE)).thenReturn(IndexedUrl.of(shortenedUrl));
+
+        // Act
+        ShortenUrlResponse response = service.getUrlByShortCode(TEST_SHORT_CODE);
+
+        // Assert
+        assertEquals("1", response.getId());
+        assertEquals(TEST_URL, response.getUrl());
+        verifyNoInteractions(urlStore);
+    }
+
+    @Test
+    void resolveUrl_WithCodeDeletedInIndex_ShouldThrowResourceNotFoundException() {
+        // Arrange
+        when(urlIndex.find(TEST_SHORT_CODE)).thenReturn(new IndexedUrl(0, TEST_SHORT_CODE, null, null, null));
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> service.resolveUrl(TEST_SHORT_CODE));
+        verifyNoInteractions(urlStore);
+    }
+
+    @Test
+    void resolveUrl_ShouldReturnOnlyTargetUrl() {
+        // Arrange
+        when(urlStore.findUrlByShortCode(TEST_SHORT_CODE)).thenReturn(Optional.of(TEST_URL));
+
+        // Act
+        String url = service.resolveUrl(TEST_SHORT_CODE);
+
+        // Assert
+        assertEquals(TEST_URL, url);
+        verify(urlStore, never()).findByShortCode(anyString());
+    }
+
+    @Test
+    void resolveUrl_ShouldThrowResourceNotFoundException() {
+        // Arrange
+        when(urlStore.findUrlByShortCode(TEST_SHORT_CODE)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> {
+            service.resolveUrl(TEST_SHORT_CODE);
+        });
+    }
+
+    @Test
+    void resolveUrls_ShouldQueryInChunksAndSplitFoundAndMissing() {
+        // Arrange
+        batchProperties.setResolveChunkSize(2);
+        ShortenedUrl other = ShortenedUrl.builder()
+                .id(2L)
+                .url("https://www.example.com/other")
+                .shortCode("def456")
+                .createdAt(shortenedUrl.getCreatedAt())
+                .updatedAt(shortenedUrl.getUpdatedAt())
+                .build();
+        when(shortCodeFilter.mightContain("filtered")).thenReturn(false);
+        when(urlStore.findByShortCodeIn(List.of(TEST_SHORT_CODE, "missing"))).thenReturn(List.of(shortenedUrl));
+        when(urlStore.findByShortCodeIn(List.of("def456"))).thenReturn(List.of(other));
+        ResolveUrlsRequest resolveRequest = new ResolveUrlsRequest(
+                List.of(TEST_SHORT_CODE, "missing", "filtered", "def456", TEST_SHORT_CODE));
+
+        // Act
+        ResolveUrlsResponse response = service.resolveUrls(resolveRequest);
+
+        // Assert
+        assertEquals(List.of(TEST_SHORT_CODE, "def456"),
+                response.getFound().stream().map(ShortenUrlResponse::getShortCode).toList());
+        assertEquals(List.of("missing", "filtered"), response.getMissing());
+        verify(urlStore, times(2)).findByShortCodeIn(anyList());
+        verify(urlStore, never()).findByShortCode(anyString());
     }
 
     @Test
@@ -111,8 +336,8 @@ public class UrlShortenerServiceTest {
                 .accessCount(shortenedUrl.getAccessCount())
                 .build();
 
-        when(repository.findByShortCode(TEST_SHORT_CODE)).thenReturn(Optional.of(shortenedUrl));
-        when(repository.save(any(ShortenedUrl.class))).thenReturn(updatedUrl);
+        when(urlStore.findByShortCode(TEST_SHORT_CODE)).thenReturn(Optional.of(shortenedUrl));
+        when(urlStore.save(any(ShortenedUrl.class))).thenReturn(updatedUrl);
 
         ShortenUrlRequest updateRequest = new ShortenUrlRequest();
         updateRequest.setUrl("https://www.example.com/updated/url");
@@ -126,14 +351,14 @@ public class UrlShortenerServiceTest {
         assertEquals(updatedUrl.getUrl(), response.getUrl());
         assertEquals(updatedUrl.getShortCode(), response.getShortCode());
 
-        verify(repository, times(1)).findByShortCode(TEST_SHORT_CODE);
-        verify(repository, times(1)).save(any(ShortenedUrl.class));
+        verify(urlStore, times(1)).findByShortCode(TEST_SHORT_CODE);
+        verify(urlStore, times(1)).save(any(ShortenedUrl.class));
     }
 
     @Test
     void updateUrl_ShouldThrowResourceNotFoundException() {
         // Arrange
-        when(repository.findByShortCode(TEST_SHORT_CODE)).thenReturn(Optional.empty());
+        when(urlStore.findByShortCode(TEST_SHORT_CODE)).thenReturn(Optional.empty());
 
         ShortenUrlRequest updateRequest = new ShortenUrlRequest();
         updateRequest.setUrl("https://www.example.com/updated/url");
@@ -143,40 +368,40 @@ public class UrlShortenerServiceTest {
             service.updateUrl(TEST_SHORT_CODE, updateRequest);
         });
 
-        verify(repository, times(1)).findByShortCode(TEST_SHORT_CODE);
-        verify(repository, never()).save(any(ShortenedUrl.class));
+        verify(urlStore, times(1)).findByShortCode(TEST_SHORT_CODE);
+        verify(urlStore, never()).save(any(ShortenedUrl.class));
     }
 
     @Test
     void deleteUrl_ShouldDeleteSuccessfully() {
         // Arrange
-        when(repository.findByShortCode(TEST_SHORT_CODE)).thenReturn(Optional.of(shortenedUrl));
-        doNothing().when(repository).delete(any(ShortenedUrl.class));
+        when(urlStore.findByShortCode(TEST_SHORT_CODE)).thenReturn(Optional.of(shortenedUrl));
+        doNothing().when(urlStore).delete(any(ShortenedUrl.class));
 
         // Act
         service.deleteUrl(TEST_SHORT_CODE);
 
         // Assert
-        verify(repository, times(1)).findByShortCode(TEST_SHORT_CODE);
-        verify(repository, times(1)).delete(shortenedUrl);
+        verify(urlStore, times(1)).findByShortCode(TEST_SHORT_CODE);
+        verify(urlStore, times(1)).delete(shortenedUrl);
     }
 
     @Test
     void deleteUrl_ShouldThrowResourceNotFoundException() {
         // Arrange
-        when(repository.findByShortCode(TEST_SHORT_CODE)).thenReturn(Optional.empty());
+        when(urlStore.findByShortCode(TEST_SHORT_CODE)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(ResourceNotFoundException.class, () -> {
             service.deleteUrl(TEST_SHORT_CODE);
         });
 
-        verify(repository, times(1)).findByShortCode(TEST_SHORT_CODE);
-        verify(repository, never()).delete(any(ShortenedUrl.class));
+        verify(urlStore, times(1)).findByShortCode(TEST_SHORT_CODE);
+        verify(urlStore, never()).delete(any(ShortenedUrl.class));
     }
 
     @Test
-    void getUrlStatistics_ShouldReturnStatistics() {
+    void getUrlStatistics_ShouldReturnTotalAndZeroFilledSeries() {
         // Arrange
         ShortenedUrl urlWithStats = ShortenedUrl.builder()
                 .id(shortenedUrl.getId())
@@ -186,35 +411,65 @@ public class UrlShortenerServiceTest {
                 .updatedAt(shortenedUrl.getUpdatedAt())
                 .accessCount(5L)
                 .build();
+        LocalDateTime from = LocalDateTime.of(2024, 1, 1, 10, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 1, 1, 13, 30);
 
-        when(repository.findByShortCode(TEST_SHORT_CODE)).thenReturn(Optional.of(urlWithStats));
-        when(repository.save(any(ShortenedUrl.class))).thenReturn(urlWithStats);
+        when(urlStore.findByShortCode(TEST_SHORT_CODE)).thenReturn(Optional.of(urlWithStats));
+        when(accessCounter.pendingCount(TEST_SHORT_CODE)).thenReturn(2L);
+        when(clickRollupRepository.findByShortCodeAndGranularityAndBucketStartBetweenOrderByBucketStartAsc(
+                TEST_SHORT_CODE, ClickGranularity.HOUR, from, to.withMinute(0)))
+                .thenReturn(List.of(ClickRollup.builder().bucketStart(from.plusHours(1)).clicks(4).build()));
+        when(urlSketches.summarize(TEST_SHORT_CODE)).thenReturn(new UrlSketches.Summary(3,
+                List.of(new SpaceSaving.Entry("news.example.org", 3, 0)), List.of()));
 
         // Act
-        UrlStatisticsResponse response = service.getUrlStatistics(TEST_SHORT_CODE);
+        UrlStatisticsResponse response = service.getUrlStatistics(TEST_SHORT_CODE,
+                UrlStatisticsRequest.builder().from(from).to(to).build());
 
         // Assert
         assertNotNull(response);
         assertEquals(urlWithStats.getId().toString(), response.getId());
         assertEquals(urlWithStats.getUrl(), response.getUrl());
         assertEquals(urlWithStats.getShortCode(), response.getShortCode());
-        assertEquals(urlWithStats.getAccessCount(), response.getAccessCount());
+        assertEquals(7L, response.getAccessCount());
+        assertEquals("hour", response.getGranularity());
+        assertEquals(List.of(0L, 4L, 0L, 0L), response.getSeries().stream().map(UrlStatisticsResponse.Bucket::getClicks).toList());
+        assertEquals(from, response.getSeries().get(0).getStart());
+        assertEquals(3L, response.getUniqueVisitors());
+        assertEquals("news.example.org", response.getTopReferrers().get(0).getValue());
+
+        verify(urlStore, times(1)).findByShortCode(TEST_SHORT_CODE);
+        verify(accessCounter, never()).increment(anyString());
+        verify(urlStore, never()).save(any(ShortenedUrl.class));
+    }
 
-        verify(repository, times(1)).findByShortCode(TEST_SHORT_CODE);
-        verify(repository, times(1)).save(any(ShortenedUrl.class));
+    @Test
+    void getUrlStatistics_WithTooManyBuckets_ShouldThrowBadRequestException() {
+        // Arrange
+        when(urlStore.findByShortCode(TEST_SHORT_CODE)).thenReturn(Optional.of(shortenedUrl));
+        UrlStatisticsRequest request = UrlStatisticsRequest.builder()
+                .granularity("minute")
+                .from(LocalDateTime.of(2024, 1, 1, 0, 0))
+                .to(LocalDateTime.of(2024, 1, 3, 0, 0))
+                .build();
+
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> service.getUrlStatistics(TEST_SHORT_CODE, request));
+        verify(clickRollupRepository, never())
+                .findByShortCodeAndGranularityAndBucketStartBetweenOrderByBucketStartAsc(any(), any(), any(), any());
     }
 
     @Test
     void getUrlStatistics_ShouldThrowResourceNotFoundException() {
         // Arrange
-        when(repository.findByShortCode(TEST_SHORT_CODE)).thenReturn(Optional.empty());
+        when(urlStore.findByShortCode(TEST_SHORT_CODE)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(ResourceNotFoundException.class, () -> {
-            service.getUrlStatistics(TEST_SHORT_CODE);
+            service.getUrlStatistics(TEST_SHORT_CODE, new UrlStatisticsRequest());
         });
 
-        verify(repository, times(1)).findByShortCode(TEST_SHORT_CODE);
-        verify(repository, never()).save(any(ShortenedUrl.class));
+        verify(urlStore, times(1)).findByShortCode(TEST_SHORT_CODE);
+        verify(urlStore, never()).save(any(ShortenedUrl.class));
     }
 }
@@ -0,0 +1,129 @@
+package com.bdkamaci.urlshorteningservice.statistics;
+
+import com.bdkamaci.urlshorteningservice.config.AccessCounterProperties;
+import com.bdkamaci.urlshorteningservice.model.ShortenedUrl;
+import com.bdkamaci.urlshorteningservice.repository.ShortenedUrlRepository;
+import com.bdkamaci.urlshorteningservice.storage.JpaUrlStore;
+import com.bdkamaci.urlshorteningservice.storage.UrlStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+@Import({AccessCounter.class, JpaUrlStore.class})
+@EnableConfigurationProperties(AccessCounterProperties.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class AccessCounterTest {
+    @Autowired
+    private AccessCounter accessCounter;
+
+    @Autowired
+    private ShortenedUrlRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        repository.save(ShortenedUrl.builder()
+                .url("https://www.example.com/long/url")
+                .shortCode("abc123")
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+    }
+
+    @AfterEach
+    void cleanup() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void flush_ShouldAddPendingCountsToDatabase() {
+        // Arrange
+        accessCounter.increment("abc123");
+        accessCounter.increment("abc123");
+
+        // Act
+        assertEquals(2, accessCounter.pendingCount("abc123"));
+        accessCounter.flush();
+
+        // Assert
+        assertEquals(0, accessCounter.pendingCount("abc123"));
+        assertEquals(2L, storedCount());
+    }
+
+    @Test
+    void increment_WithConcurrentFlushes_ShouldNotLoseHits() throws Exception {
+        // Arrange
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        AtomicBoolean running = new AtomicBoolean(true);
+        List<Future<?>> workers = new ArrayList<>();
+
+        // Act
+        Future<?> flusher = executor.submit(() -> {
+            while (running.get()) {
+                accessCounter.flush();
+            }
+        });
+        for (int i = 0; i < 7; i++) {
+            workers.add(executor.submit(() -> {
+                for (int j = 0; j < 5_000; j++) {
+                    accessCounter.increment("abc123");
+                }
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        running.set(false);
+        flusher.get();
+        executor.shutdown();
+        accessCounter.flush();
+
+        // Assert
+        assertEquals(35_000L, storedCount());
+    }
+
+    @Test
+    void flush_WhenStoreFails_ShouldKeepCountsPendingExactlyOnce() {
+        // Arrange
+        UrlStore failingStore = mock(UrlStore.class);
+        doThrow(new DataAccessResourceFailureException("database down")).when(failingStore).addAccessCounts(anyMap());
+        AccessCounter counter = new AccessCounter(failingStore);
+        counter.increment("abc123");
+        counter.increment("abc123");
+
+        // Act
+        counter.flush();
+
+        // Assert
+        assertEquals(2, counter.pendingCount("abc123"));
+    }
+
+    private Long storedCount() {
+        return jdbcTemplate.queryForObject(
+                "select access_count from shortened_urls where short_code = ?", Long.class, "abc123");
+    }
+}
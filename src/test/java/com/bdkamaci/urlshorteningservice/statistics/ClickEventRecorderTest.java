@@ -0,0 +1,105 @@
+package com.bdkamaci.urlshorteningservice.statistics;
+
+import com.bdkamaci.urlshorteningservice.config.AccessCounterProperties;
+import com.bdkamaci.urlshorteningservice.config.ClickProperties;
+import com.bdkamaci.urlshorteningservice.config.SketchProperties;
+import com.bdkamaci.urlshorteningservice.config.TrendingProperties;
+import com.bdkamaci.urlshorteningservice.model.ClickRollup;
+import com.bdkamaci.urlshorteningservice.repository.ClickRollupRepository;
+import com.bdkamaci.urlshorteningservice.storage.JpaUrlStore;
+import com.bdkamaci.urlshorteningservice.trending.TrendingTracker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "shortener.clicks.queue-capacity=4")
+@Import({ClickEventRecorder.class, AccessCounter.class, JpaUrlStore.class, UrlSketches.class, TrendingTracker.class,
+        SimpleMeterRegistry.class})
+@EnableConfigurationProperties({ClickProperties.class, AccessCounterProperties.class, SketchProperties.class,
+        TrendingProperties.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ClickEventRecorderTest {
+    @Autowired
+    private ClickEventRecorder recorder;
+
+    @Autowired
+    private AccessCounter accessCounter;
+
+    @Autowired
+    private ClickRollupRepository rollupRepository;
+
+    @Autowired
+    private UrlSketches sketches;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void cleanup() {
+        recorder.flush();
+        accessCounter.flush();
+        sketches.persist();
+        rollupRepository.deleteAll();
+        jdbcTemplate.update("delete from click_events");
+        jdbcTemplate.update("delete from url_sketches");
+    }
+
+    @Test
+    void flush_ShouldAppendEventsAndAccumulateRollups() {
+        // Arrange
+        recorder.record("abc123", "10.0.0.1", null, "curl/8.0");
+        recorder.record("abc123", "10.0.0.1", null, "curl/8.0");
+        recorder.record("xyz789", "10.0.0.2", "https://news.example.org/item", "curl/8.0");
+
+        // Act
+        recorder.flush();
+        recorder.record("abc123", "10.0.0.1", null, "curl/8.0");
+        recorder.flush();
+
+        // Assert
+        assertEquals(0, recorder.queued());
+        assertEquals(4, jdbcTemplate.queryForObject("select count(*) from click_events", Integer.class));
+        Map<ClickGranularity, Long> rollups = rollupRepository.findAll().stream()
+                .filter(rollup -> rollup.getShortCode().equals("abc123"))
+                .collect(Collectors.toMap(ClickRollup::getGranularity, ClickRollup::getClicks, Long::sum));
+        assertEquals(Map.of(ClickGranularity.MINUTE, 3L, ClickGranularity.HOUR, 3L, ClickGranularity.DAY, 3L), rollups);
+        LocalDateTime hour = ClickGranularity.HOUR.bucketOf(LocalDateTime.now());
+        assertFalse(rollupRepository.findByShortCodeAndGranularityAndBucketStartBetweenOrderByBucketStartAsc(
+                "abc123", ClickGranularity.HOUR, hour.minusHours(1), hour).isEmpty());
+        assertEquals(3, accessCounter.pendingCount("abc123"));
+        assertEquals(1, accessCounter.pendingCount("xyz789"));
+        UrlSketches.Summary summary = sketches.summarize("xyz789");
+        assertEquals(1, summary.uniqueVisitors());
+        assertEquals("news.example.org", summary.topReferrers().get(0).item());
+    }
+
+    @Test
+    void record_WithFullQueue_ShouldDropEventsButKeepAccessCounts() {
+        // Act
+        for (int i = 0; i < 6; i++) {
+            recorder.record("abc123", "10.0.0.1", null, "curl/8.0");
+        }
+
+        // Assert
+        assertEquals(4, recorder.queued());
+        assertEquals(2.0, meterRegistry.get("shortener.clicks.dropped").counter().count());
+        assertEquals(6, accessCounter.pendingCount("abc123"));
+    }
+}
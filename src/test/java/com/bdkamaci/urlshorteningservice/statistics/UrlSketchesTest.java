@@ -0,0 +1,101 @@
+package com.bdkamaci.urlshorteningservice.statistics;
+
+import com.bdkamaci.urlshorteningservice.config.SketchProperties;
+import com.bdkamaci.urlshorteningservice.repository.UrlSketchRepository;
+import com.bdkamaci.urlshorteningservice.statistics.sketch.SpaceSaving;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class UrlSketchesTest {
+    @Autowired
+    private UrlSketchRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private SketchProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new SketchProperties();
+        properties.setTopCapacity(8);
+        properties.setMaxTrackedCodes(2);
+    }
+
+    @AfterEach
+    void cleanup() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void persist_FromSeveralInstances_ShouldMergeIntoStoredSketch() {
+        // Arrange
+        UrlSketches first = newInstance();
+        UrlSketches second = newInstance();
+        for (int i = 0; i < 300; i++) {
+            first.add("abc123", "10.0.0." + i, "https://News.example.org/a?" + i, "curl/8.0");
+        }
+        for (int i = 200; i < 500; i++) {
+            second.add("abc123", "10.0.0." + i, null, "Mozilla/5.0");
+        }
+
+        // Act
+        first.persist();
+        second.persist();
+        first.persist();
+
+        // Assert
+        UrlSketches.Summary summary = newInstance().summarize("abc123");
+        assertEquals(500, summary.uniqueVisitors(), 25);
+        assertEquals(new SpaceSaving.Entry("(direct)", 300, 0), summary.topReferrers().get(0));
+        assertEquals(new SpaceSaving.Entry("news.example.org", 300, 0), summary.topReferrers().get(1));
+        assertEquals(2, summary.topUserAgents().size());
+        assertEquals(1, repository.count());
+    }
+
+    @Test
+    void summarize_ShouldIncludeUnpersistedClicks() {
+        // Arrange
+        UrlSketches sketches = newInstance();
+        sketches.add("abc123", "10.0.0.1", null, null);
+        sketches.persist();
+
+        // Act
+        sketches.add("abc123", "10.0.0.2", null, null);
+        UrlSketches.Summary summary = sketches.summarize("abc123");
+
+        // Assert
+        assertEquals(2, summary.uniqueVisitors());
+        assertEquals(new SpaceSaving.Entry("(unknown)", 2, 0), summary.topUserAgents().get(0));
+    }
+
+    @Test
+    void add_BeyondMaxTrackedCodes_ShouldSkipNewCodes() {
+        // Arrange
+        UrlSketches sketches = newInstance();
+
+        // Act
+        sketches.add("code01", "10.0.0.1", null, null);
+        sketches.add("code02", "10.0.0.1", null, null);
+        sketches.add("code03", "10.0.0.1", null, null);
+
+        // Assert
+        assertEquals(1, sketches.summarize("code02").uniqueVisitors());
+        assertEquals(0, sketches.summarize("code03").uniqueVisitors());
+    }
+
+    private UrlSketches newInstance() {
+        return new UrlSketches(repository, properties, transactionManager, new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,51 @@
+package com.bdkamaci.urlshorteningservice.statistics.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HyperLogLogTest {
+    @Test
+    void estimate_ShouldStayWithinExpectedErrorAcrossRanges() {
+        for (int distinct : new int[]{10, 1_000, 100_000}) {
+            // Arrange
+            HyperLogLog sketch = new HyperLogLog(10);
+
+            // Act
+            for (int i = 0; i < distinct; i++) {
+                sketch.add("visitor-" + i);
+                sketch.add("visitor-" + i);
+            }
+
+            // Assert
+            assertEquals(distinct, sketch.estimate(), Math.max(1, distinct * 0.1), "distinct=" + distinct);
+        }
+    }
+
+    @Test
+    void merge_ShouldEstimateUnionAndSurviveSerialization() {
+        // Arrange
+        HyperLogLog first = new HyperLogLog(12);
+        HyperLogLog second = new HyperLogLog(12);
+        for (int i = 0; i < 6_000; i++) {
+            first.add("visitor-" + i);
+        }
+        for (int i = 4_000; i < 10_000; i++) {
+            second.add("visitor-" + i);
+        }
+
+        // Act
+        HyperLogLog merged = HyperLogLog.fromBytes(first.toBytes());
+        merged.merge(second);
+        merged.merge(second);
+
+        // Assert
+        assertEquals(4096, first.toBytes().length);
+        assertEquals(10_000, merged.estimate(), 500);
+    }
+
+    @Test
+    void merge_WithDifferentPrecision_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(10).merge(new HyperLogLog(11)));
+    }
+}
@@ -0,0 +1,57 @@
+package com.bdkamaci.urlshorteningservice.statistics.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SpaceSavingTest {
+    @Test
+    void top_ShouldReportHeavyHittersWithinErrorBounds() {
+        // Arrange
+        SpaceSaving summary = new SpaceSaving(8);
+
+        // Act
+        for (int i = 0; i < 1_000; i++) {
+            summary.add("hot");
+            if (i % 2 == 0) {
+                summary.add("warm");
+            }
+            summary.add("rare-" + i);
+        }
+
+        // Assert
+        List<SpaceSaving.Entry> top = summary.top(2);
+        assertEquals(List.of("hot", "warm"), top.stream().map(SpaceSaving.Entry::item).toList());
+        assertTrue(top.get(0).count() - top.get(0).error() <= 1_000 && top.get(0).count() >= 1_000);
+        assertTrue(top.get(1).count() - top.get(1).error() <= 500 && top.get(1).count() >= 500);
+        assertEquals(8, summary.top(100).size());
+    }
+
+    @Test
+    void merge_ShouldCombineCountsAndSurviveSerialization() {
+        // Arrange
+        SpaceSaving first = new SpaceSaving(4);
+        SpaceSaving second = new SpaceSaving(4);
+        for (int i = 0; i < 30; i++) {
+            first.add("a.example.com");
+            second.add("b.example.com");
+        }
+        for (int i = 0; i < 20; i++) {
+            first.add("b.example.com");
+            second.add("a.example.com");
+        }
+        second.add("c.example.com");
+
+        // Act
+        SpaceSaving merged = SpaceSaving.fromBytes(first.toBytes(), 4);
+        merged.merge(SpaceSaving.fromBytes(second.toBytes(), 4));
+
+        // Assert
+        List<SpaceSaving.Entry> top = merged.top(3);
+        assertEquals(new SpaceSaving.Entry("a.example.com", 50, 0), top.get(0));
+        assertEquals(new SpaceSaving.Entry("b.example.com", 50, 0), top.get(1));
+        assertEquals(new SpaceSaving.Entry("c.example.com", 1, 0), top.get(2));
+    }
+}
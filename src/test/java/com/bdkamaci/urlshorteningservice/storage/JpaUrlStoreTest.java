@@ -0,0 +1,110 @@
+package com.bdkamaci.urlshorteningservice.storage;
+
+import com.bdkamaci.urlshorteningservice.config.AccessCounterProperties;
+import com.bdkamaci.urlshorteningservice.dedup.UrlHashes;
+import com.bdkamaci.urlshorteningservice.generator.ShortCodes;
+import com.bdkamaci.urlshorteningservice.model.ShortenedUrl;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(JpaUrlStore.class)
+@EnableConfigurationProperties(AccessCounterProperties.class)
+public class JpaUrlStoreTest {
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JpaUrlStore urlStore;
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        entityManager.persist(ShortenedUrl.builder()
+                .url("https://www.example.com/long/url")
+                .urlHash(UrlHashes.hash("https://www.example.com/long/url"))
+                .shortCode("abc123")
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findUrlByShortCode_ShouldReadUrlWithoutManagingEntity() {
+        // Act
+        Optional<String> url = urlStore.findUrlByShortCode("abc123");
+
+        // Assert
+        assertEquals(Optional.of("https://www.example.com/long/url"), url);
+        assertEquals(0, entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    @Test
+    void findUrlByShortCode_WithNonExistentCode_ShouldReturnEmpty() {
+        // Act
+        Optional<String> url = urlStore.findUrlByShortCode("missing");
+
+        // Assert
+        assertTrue(url.isEmpty());
+    }
+
+    @Test
+    void existsByCodeKey_ShouldReflectStoredCodes() {
+        // Act & Assert
+        assertTrue(urlStore.existsByCodeKey(ShortCodes.pack("abc123")));
+        assertFalse(urlStore.existsByCodeKey(ShortCodes.pack("missing")));
+    }
+
+    @Test
+    void saveIfAbsent_WithRowSavedWithoutClaim_ShouldAdoptIt() {
+        // Act
+        ShortenedUrl saved = urlStore.saveIfAbsent(newUrl("def456", "https://WWW.example.com/long/url"));
+
+        // Assert
+        assertEquals("abc123", saved.getShortCode());
+        assertEquals(1, urlStore.count());
+    }
+
+    @Test
+    void saveIfAbsent_WithClaimedRowUpdatedAway_ShouldInsertAndMoveClaim() {
+        // Arrange
+        urlStore.saveIfAbsent(newUrl("def456", "https://www.example.com/long/url"));
+        ShortenedUrl original = urlStore.findByShortCode("abc123").orElseThrow();
+        original.setUrl("https://www.example.com/moved");
+        original.setUrlHash(UrlHashes.hash("https://www.example.com/moved"));
+        urlStore.save(original);
+
+        // Act
+        ShortenedUrl saved = urlStore.saveIfAbsent(newUrl("ghi789", "https://www.example.com/long/url"));
+
+        // Assert
+        assertEquals("ghi789", saved.getShortCode());
+        assertEquals("ghi789", urlStore.saveIfAbsent(newUrl("jkl012", "https://www.example.com/long/url"))
+                .getShortCode());
+        assertEquals(2, urlStore.count());
+    }
+
+    private static ShortenedUrl newUrl(String shortCode, String url) {
+        LocalDateTime now = LocalDateTime.now();
+        return ShortenedUrl.builder()
+                .url(url)
+                .urlHash(UrlHashes.hash(url))
+                .shortCode(shortCode)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+}
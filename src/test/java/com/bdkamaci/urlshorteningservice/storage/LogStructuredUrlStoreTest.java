@@ -0,0 +1,253 @@
+package com.bdkamaci.urlshorteningservice.storage;
+
+import com.bdkamaci.urlshorteningservice.config.StorageProperties;
+import com.bdkamaci.urlshorteningservice.dedup.UrlHashes;
+import com.bdkamaci.urlshorteningservice.generator.ShortCodes;
+import com.bdkamaci.urlshorteningservice.model.ShortenedUrl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LogStructuredUrlStoreTest {
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123_456_000);
+
+    @TempDir
+    private Path directory;
+
+    private StorageProperties properties;
+    private LogStructuredUrlStore store;
+
+    @BeforeEach
+    void setUp() {
+        properties = new StorageProperties();
+        properties.setType("log");
+        properties.setDirectory(directory.toString());
+        properties.setSegmentSize(DataSize.ofKilobytes(64));
+        properties.setFsync(StorageProperties.FsyncPolicy.ALWAYS);
+        store = open();
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    @Test
+    void save_ThenReopen_ShouldKeepUpdatesAndDeletesAcrossRestarts() {
+        // Arrange
+        ShortenedUrl first = store.save(url("abc123", "https://www.example.com/1"));
+        ShortenedUrl second = store.save(url("def456", "https://www.example.com/2"));
+        first.setUrl("https://www.example.com/updated");
+        store.save(first);
+        store.delete(second);
+
+        // Act
+        store.close();
+        store = open();
+        ShortenedUrl third = store.save(url("ghi789", "https://www.example.com/3"));
+
+        // Assert
+        ShortenedUrl reopened = store.findByShortCode("abc123").orElseThrow();
+        assertEquals(first.getId(), reopened.getId());
+        assertEquals("https://www.example.com/updated", reopened.getUrl());
+        assertEquals(CREATED_AT, reopened.getCreatedAt());
+        assertEquals(2, store.count());
+        assertTrue(store.findByShortCode("def456").isEmpty());
+        assertEquals(second.getId() + 1, third.getId());
+    }
+
+    @Test
+    void save_WithTakenShortCode_ShouldRejectInsertAndLeaveBatchUnwritten() {
+        // Arrange
+        store.save(url("abc123", "https://www.example.com/1"));
+
+        // Act & Assert
+        assertThrows(DataIntegrityViolationException.class,
+                () -> store.save(url("abc123", "https://www.example.com/2")));
+        assertThrows(DataIntegrityViolationException.class, () -> store.saveAll(List.of(
+                url("def456", "https://www.example.com/3"),
+                url("abc123", "https://www.example.com/4"))));
+        assertEquals("https://www.example.com/1", store.findUrlByShortCode("abc123").orElseThrow());
+        assertFalse(store.existsByCodeKey(ShortCodes.pack("def456")));
+    }
+
+    @Test
+    void compact_WithMostlyGarbage_ShouldMergeSegmentsAndKeepLatestRecords() throws IOException {
+        // Arrange
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < 100; i++) {
+                String code = code(i);
+                ShortenedUrl url = store.findByShortCode(code).orElseGet(() -> url(code, "https://www.example.com/"));
+                url.setUrl("https://www.example.com/" + i + "/" + round);
+                store.save(url);
+            }
+        }
+        store.delete(store.findByShortCode(code(0)).orElseThrow());
+        long segmentsBefore = segmentFiles();
+
+        // Act
+        boolean compacted = store.compact();
+        store.close();
+        store = open();
+
+        // Assert
+        assertTrue(compacted);
+        assertTrue(segmentFiles() < segmentsBefore);
+        assertTrue(store.findByShortCode(code(0)).isEmpty());
+        assertEquals(99, store.count());
+        for (int i = 1; i < 100; i++) {
+            assertEquals("https://www.example.com/" + i + "/19", store.findUrlByShortCode(code(i)).orElseThrow());
+        }
+    }
+
+    @Test
+    void compact_WithGarbageOnlyPastOldestSegment_ShouldMergeThatRunAndKeepItsTombstones() throws IOException {
+        // Arrange: a large, mostly live oldest segment keeps any run starting there under the ratio
+        properties.setCompactionGarbageRatio(0.6);
+        properties.setSegmentSize(DataSize.ofKilobytes(512));
+        store.close();
+        store = open();
+        String path = "/" + "a".repeat(500);
+        for (int i = 0; i < 800; i++) {
+            store.save(url("live" + String.format("%03d", i), "https://www.example.com" + path + i));
+        }
+        properties.setSegmentSize(DataSize.ofKilobytes(64));
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < 50; i++) {
+                String code = code(i);
+                ShortenedUrl url = store.findByShortCode(code).orElseGet(() -> url(code, "https://www.example.com/"));
+                url.setUrl("https://www.example.com" + path + i + "/" + round);
+                store.save(url);
+            }
+            if (round == 10) {
+                // The oldest segment still holds this code's record, so its tombstone must survive compaction
+                store.delete(store.findByShortCode("live000").orElseThrow());
+            }
+        }
+        long segmentsBefore = segmentFiles();
+
+        // Act
+        boolean compacted = store.compact();
+        store.close();
+        store = open();
+
+        // Assert
+        assertTrue(compacted);
+        assertTrue(segmentFiles() < segmentsBefore);
+        assertTrue(Files.exists(directory.resolve("segment-1.log")));
+        assertTrue(store.findByShortCode("live000").isEmpty());
+        assertEquals(849, store.count());
+        assertEquals("https://www.example.com" + path + 1, store.findUrlByShortCode("live001").orElseThrow());
+        for (int i = 0; i < 50; i++) {
+            assertEquals("https://www.example.com" + path + i + "/19", store.findUrlByShortCode(code(i)).orElseThrow());
+        }
+    }
+
+    @Test
+    void open_WithTornFinalRecord_ShouldDropItAndKeepAppending() throws IOException {
+        // Arrange
+        ShortenedUrl first = store.save(url("abc123", "https://www.example.com/1"));
+        ShortenedUrl second = store.save(url("def456", "https://www.example.com/2"));
+        store.close();
+        int end = Segment.HEADER_SIZE + UrlRecords.put(first).remaining() + UrlRecords.put(second).remaining();
+        try (FileChannel channel = FileChannel.open(directory.resolve("segment-1.log"), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0x7f}), end - 1);
+        }
+
+        // Act
+        store = open();
+        store.save(url("ghi789", "https://www.example.com/3"));
+        store.close();
+        store = open();
+
+        // Assert
+        assertTrue(store.findByShortCode("abc123").isPresent());
+        assertTrue(store.findByShortCode("def456").isEmpty());
+        assertEquals("https://www.example.com/3", store.findUrlByShortCode("ghi789").orElseThrow());
+    }
+
+    @Test
+    void addAccessCounts_ShouldRankMostAccessedAndFindByUrlHash() {
+        // Arrange
+        store.saveAll(List.of(
+                url("abc123", "https://www.example.com/1"),
+                url("def456", "https://www.example.com/2"),
+                url("ghi789", "https://www.example.com/1")));
+
+        // Act
+        store.addAccessCounts(Map.of(ShortCodes.pack("abc123"), 5L, ShortCodes.pack("ghi789"), 9L));
+
+        // Assert
+        List<ShortenedUrl> top = store.findMostAccessed(Limit.of(2));
+        assertEquals(List.of("ghi789", "abc123"), top.stream().map(ShortenedUrl::getShortCode).toList());
+        assertEquals(List.of("def456"), store.findMostAccessedAfter(5, top.get(1).getId(), Limit.of(5)).stream()
+                .map(ShortenedUrl::getShortCode).toList());
+        assertEquals(2, store.findByUrlHash(UrlHashes.hash("https://www.example.com/1")).size());
+    }
+
+    @Test
+    void addAccessCounts_WithBatchLargerThanSegment_ShouldRollOnceUpFront() throws IOException {
+        // Arrange
+        String path = "/" + "a".repeat(500);
+        Map<Long, Long> deltas = new HashMap<>();
+        for (int i = 0; i < 200; i++) {
+            store.save(url(code(i), "https://www.example.com" + path + i));
+            deltas.put(ShortCodes.pack(code(i)), 1L);
+        }
+        long segmentsBefore = segmentFiles();
+
+        // Act
+        store.addAccessCounts(deltas);
+
+        // Assert
+        assertEquals(segmentsBefore + 1, segmentFiles());
+        for (int i = 0; i < 200; i++) {
+            assertEquals(1L, store.findByShortCode(code(i)).orElseThrow().getAccessCount());
+        }
+    }
+
+    private LogStructuredUrlStore open() {
+        LogStructuredUrlStore opened = new LogStructuredUrlStore(properties, new SimpleMeterRegistry());
+        opened.open();
+        return opened;
+    }
+
+    private long segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private static String code(int i) {
+        return String.format("code%03d", i);
+    }
+
+    private static ShortenedUrl url(String shortCode, String url) {
+        return ShortenedUrl.builder()
+                .shortCode(shortCode)
+                .url(url)
+                .urlHash(UrlHashes.hash(url))
+                .createdAt(CREATED_AT)
+                .updatedAt(CREATED_AT)
+                .build();
+    }
+}
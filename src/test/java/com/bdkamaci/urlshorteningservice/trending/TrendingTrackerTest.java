@@ -0,0 +1,106 @@
+package com.bdkamaci.urlshorteningservice.trending;
+
+import com.bdkamaci.urlshorteningservice.config.TrendingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TrendingTrackerTest {
+    private static final long START = 1_700_000_000_000L - 1_700_000_000_000L % 3_600_000L;
+
+    private TrendingProperties properties;
+    private TrendingTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        properties = new TrendingProperties();
+        properties.setTopK(3);
+        tracker = new TrendingTracker(properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void leaderboard_ShouldRankCodesByClicksWithinEachWindow() {
+        // Arrange
+        record("old001", START, 50);
+        record("hot001", START + 3_000_000, 5);
+        record("hot002", START + 3_590_000, 3);
+        record("hot001", START + 3_595_000, 2);
+        record("new001", START + 3_599_000, 4);
+
+        // Act
+        tracker.refresh(START + 3_599_500);
+
+        // Assert
+        assertEquals(List.of(new TrendingTracker.Entry("new001", 4), new TrendingTracker.Entry("hot002", 3),
+                new TrendingTracker.Entry("hot001", 2)), tracker.leaderboard(TrendingWindow.ONE_MINUTE).entries());
+        assertEquals(List.of(new TrendingTracker.Entry("old001", 50), new TrendingTracker.Entry("hot001", 7),
+                new TrendingTracker.Entry("new001", 4)), tracker.leaderboard(TrendingWindow.ONE_HOUR).entries());
+    }
+
+    @Test
+    void leaderboard_ShouldDropSlotsThatSlideOutOfTheWindow() {
+        // Arrange
+        record("abc123", START, 10);
+        tracker.refresh(START + 1_000);
+        assertEquals(10, tracker.leaderboard(TrendingWindow.ONE_MINUTE).entries().get(0).clicks());
+
+        // Act
+        record("abc123", START + 30_000, 1);
+        tracker.refresh(START + 65_000);
+
+        // Assert
+        assertEquals(List.of(new TrendingTracker.Entry("abc123", 1)), tracker.leaderboard(TrendingWindow.ONE_MINUTE).entries());
+        assertEquals(List.of(new TrendingTracker.Entry("abc123", 11)), tracker.leaderboard(TrendingWindow.ONE_HOUR).entries());
+    }
+
+    @Test
+    void record_WithFullSlot_ShouldOnlyCountKnownCodes() {
+        // Arrange
+        properties.setSlotCapacity(2);
+
+        // Act
+        record("code01", START, 1);
+        record("code02", START, 1);
+        record("code03", START, 5);
+        record("code01", START, 1);
+        tracker.refresh(START);
+
+        // Assert
+        assertEquals(List.of(new TrendingTracker.Entry("code01", 2), new TrendingTracker.Entry("code02", 1)),
+                tracker.leaderboard(TrendingWindow.ONE_DAY).entries());
+    }
+
+    @Test
+    void record_FromConcurrentThreads_ShouldNotLoseClicks() throws Exception {
+        // Arrange
+        List<Future<?>> workers = new ArrayList<>();
+
+        // Act
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int t = 0; t < 8; t++) {
+                workers.add(executor.submit(() -> record("abc123", START + 5_000, 10_000)));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        }
+        tracker.refresh(START + 5_000);
+
+        // Assert
+        assertEquals(80_000, tracker.leaderboard(TrendingWindow.ONE_MINUTE).entries().get(0).clicks());
+    }
+
+    private void record(String shortCode, long epochMillis, int times) {
+        for (int i = 0; i < times; i++) {
+            tracker.record(shortCode, epochMillis);
+        }
+    }
+}